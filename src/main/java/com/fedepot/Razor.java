@@ -32,21 +32,32 @@ import com.fedepot.ioc.IContainerBuilder;
 import com.fedepot.env.Env;
 import com.fedepot.mvc.annotation.RoutePrefix;
 import com.fedepot.cache.Cache;
-import com.fedepot.cache.Ehcache;
+import com.fedepot.cache.CacheFactory;
 import com.fedepot.mvc.controller.APIController;
 import com.fedepot.mvc.controller.Controller;
+import com.fedepot.mvc.controller.ControllerLifecycle;
+import com.fedepot.mvc.controller.ControllerProvider;
 import com.fedepot.mvc.controller.IController;
+import com.fedepot.mvc.controller.WebSocketController;
 import com.fedepot.mvc.http.HttpContext;
 import com.fedepot.mvc.http.HttpSessionManager;
 import com.fedepot.mvc.http.Session;
 import com.fedepot.mvc.http.SessionManager;
+import com.fedepot.mvc.http.WebSocketGroups;
 import com.fedepot.mvc.middleware.Middleware;
 import com.fedepot.mvc.route.RouteManager;
+import com.fedepot.mvc.json.GsonSerializer;
+import com.fedepot.mvc.json.JacksonSerializer;
+import com.fedepot.mvc.json.JsonSerializer;
+import com.fedepot.mvc.json.JsonSerializerFactory;
 import com.fedepot.mvc.template.BeetlTemplateEngine;
 import com.fedepot.mvc.template.JtwigTemplateEngine;
 import com.fedepot.mvc.template.TemplateEngine;
 import com.fedepot.mvc.template.TemplateEngineFactory;
 import com.fedepot.server.NettyServer;
+import com.fedepot.server.RequestDispatcher;
+import com.fedepot.server.SessionHandler;
+import com.fedepot.server.WarmUpRequests;
 import com.fedepot.util.FileKit;
 
 import com.fedepot.util.ReflectKit;
@@ -99,6 +110,24 @@ public class Razor {
     @Getter
     private IContainer ioc;
 
+    /**
+     * Controller instances supplier
+     */
+    @Getter
+    private ControllerProvider controllerProvider;
+
+    /**
+     * Request dispatcher which decides threads handling requests
+     */
+    @Getter
+    private RequestDispatcher dispatcher;
+
+    /**
+     * Session handler, null if there is no session manager
+     */
+    @Getter
+    private SessionHandler sessionHandler;
+
     /**
      * Netty server
      */
@@ -132,7 +161,7 @@ public class Razor {
      * Session manager
      */
     @Getter
-    private SessionManager sessionManager = new HttpSessionManager(Ehcache.newInstance("_SESSION_"), this);
+    private SessionManager sessionManager = new HttpSessionManager(CacheFactory.newInstance(env, "_SESSION_", env.get(ENV_KEY_SESSION_CACHE_PROVIDER, env.get(ENV_KEY_CACHE_PROVIDER, DEFAULT_CACHE_PROVIDER))), this);
 
     /**
      * Exception handler for request
@@ -140,12 +169,23 @@ public class Razor {
     @Getter
     private ExceptionHandler exceptionHandler = null;
 
+    /**
+     * Named groups of WebSocket connections
+     */
+    @Getter
+    private final WebSocketGroups webSocketGroups = new WebSocketGroups();
+
     /**
      * Event emitter
      */
     @Getter
     private final EventEmitter eventEmitter = EventEmitter.newInstance();
 
+    /**
+     * Whether startup and warm-up have finished
+     */
+    private volatile boolean ready = false;
+
     /**
      * App classes waiting for registering in IOC
      */
@@ -238,8 +278,20 @@ public class Razor {
 
         eventEmitter.emit(EventType.APP_STOP, this);
 
+        webSocketGroups.close();
+
         // TODO calculate run time
         nettyServer.shutdown();
+
+        if (dispatcher != null) {
+
+            dispatcher.shutdown();
+        }
+
+        if (sessionHandler != null) {
+
+            sessionHandler.shutdown();
+        }
     }
 
     /**
@@ -374,6 +426,58 @@ public class Razor {
     }
 
 
+    /**
+     * Specify how controller instances are supplied to requests
+     *
+     * @param lifecycle controller lifecycle, default {@link ControllerLifecycle#REQUEST}
+     * @return Razor self
+     */
+    public Razor controllerLifecycle(@NonNull ControllerLifecycle lifecycle) {
+
+        env.set(ENV_KEY_CONTROLLER_LIFECYCLE, lifecycle.name());
+
+        return this;
+    }
+
+    /**
+     * Turn dev mode on or off, modified templates are reloaded in dev mode
+     *
+     * @param devMode dev mode
+     * @return Razor self
+     */
+    public Razor devMode(boolean devMode) {
+
+        env.set(ENV_KEY_DEV_MODE, devMode);
+
+        return this;
+    }
+
+    /**
+     * Enable warm-up before serving, singletons are created, templates are compiled and synthetic GET requests are sent to fixed routes
+     *
+     * @param requests synthetic requests for each route, 0 for none
+     * @param templates templates to preload, relative templates root path
+     * @return Razor self
+     */
+    public Razor warmUp(int requests, String... templates) {
+
+        env.set(ENV_KEY_WARMUP, true);
+        env.set(ENV_KEY_WARMUP_REQUESTS, requests);
+        env.set(ENV_KEY_WARMUP_TEMPLATES, Arrays.asList(templates));
+
+        return this;
+    }
+
+    /**
+     * Readiness of the app, true only after startup and warm-up finished
+     *
+     * @return ready status
+     */
+    public boolean ready() {
+
+        return ready;
+    }
+
     /**
      * Customize 404 page
      *
@@ -468,6 +572,52 @@ public class Razor {
         return this;
     }
 
+    /**
+     * Set json serializer for action results and json responses
+     *
+     * @param serializer json serializer that implement {@link JsonSerializer}
+     * @return Razor self
+     */
+    public Razor useJsonSerializer(JsonSerializer serializer) {
+
+        JsonSerializerFactory.setSerializer(serializer);
+
+        return this;
+    }
+
+    /**
+     * Select pre-defined json serializer by case insensitive name, Gson or Jackson, Jackson requires jackson-databind on classpath
+     *
+     * @param name json serializer name
+     * @return Razor self
+     * @throws IllegalArgumentException unknown serializer name
+     * @throws IllegalStateException Jackson is selected but jackson-databind is absent
+     */
+    public Razor useJsonSerializer(@NonNull String name) {
+
+        switch (name.toLowerCase()) {
+
+            case "jackson":
+                try {
+
+                    Class.forName("com.fasterxml.jackson.databind.ObjectMapper", false, Razor.class.getClassLoader());
+                } catch (ClassNotFoundException e) {
+
+                    throw new IllegalStateException("Jackson json serializer requires com.fasterxml.jackson.core:jackson-databind on classpath", e);
+                }
+
+                useJsonSerializer(new JacksonSerializer());
+                break;
+            case "gson":
+                useJsonSerializer(new GsonSerializer());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown json serializer " + name + ", Gson or Jackson is expected");
+        }
+
+        return this;
+    }
+
     /**
      * Register middleware to the specified controller class
      *
@@ -527,6 +677,7 @@ public class Razor {
         // register controllers
         iocBuilder.autoRegister(Controller.class);
         iocBuilder.autoRegister(APIController.class);
+        iocBuilder.autoRegister(WebSocketController.class);
 
         iocBuilder.autoRegister(ExceptionHandler.class);
 
@@ -577,6 +728,20 @@ public class Razor {
      */
     private void initRoutes() {
 
+        ControllerLifecycle lifecycle;
+
+        try {
+
+            lifecycle = ControllerLifecycle.valueOf(env.get(ENV_KEY_CONTROLLER_LIFECYCLE, DEFAULT_CONTROLLER_LIFECYCLE).toUpperCase());
+        } catch (IllegalArgumentException e) {
+
+            log.error("Unknown controller lifecycle {}, use {} instead", env.get(ENV_KEY_CONTROLLER_LIFECYCLE, DEFAULT_CONTROLLER_LIFECYCLE), DEFAULT_CONTROLLER_LIFECYCLE);
+            lifecycle = ControllerLifecycle.REQUEST;
+        }
+
+        dispatcher = new RequestDispatcher(this);
+        controllerProvider = new ControllerProvider(ioc, lifecycle, env.getInt(ENV_KEY_CONTROLLER_POOL_SIZE, DEFAULT_CONTROLLER_POOL_SIZE));
+
         RouteManager.getInstance(this).registerRoutes();
     }
 
@@ -600,6 +765,11 @@ public class Razor {
 
             this.sessionManager = ioc.resolve(sessionManagers.iterator().next());
         }
+
+        if (sessionManager != null) {
+
+            this.sessionHandler = new SessionHandler(this);
+        }
     }
 
     /**
@@ -646,6 +816,55 @@ public class Razor {
 
     }
 
+    /**
+     * Create singletons, compile templates and handle synthetic requests ahead of real traffic
+     */
+    private void warmUp() {
+
+        phase("singletons", () -> log.info("Warm-up created {} singletons", ioc.instantiateSingletons()));
+
+        phase("templates", () -> {
+
+            TemplateEngine engine = TemplateEngineFactory.getEngine();
+            String templateDir = env.get(ENV_KEY_TEMPLATE_ROOT_FOLDER, DEFAULT_TEMPLATE_ROOT_FOLDER);
+            List<String> templates = env.getObject(ENV_KEY_WARMUP_TEMPLATES)
+                    .filter(List.class::isInstance)
+                    .map(value -> ((List<?>)value).stream().filter(String.class::isInstance).map(String.class::cast).collect(Collectors.toList()))
+                    .orElse(Collections.emptyList());
+
+            for (String template : templates) {
+
+                try {
+
+                    engine.preload(templateDir.concat("/").concat(template.startsWith("/") ? template.substring(1) : template));
+                } catch (Exception e) {
+
+                    log.warn("Warm-up template {} failed: {}", template, e.getMessage());
+                }
+            }
+        });
+
+        int requests = env.getInt(ENV_KEY_WARMUP_REQUESTS, DEFAULT_WARMUP_REQUESTS);
+
+        if (requests > 0) {
+
+            phase("requests", () -> log.info("Warm-up handled {} synthetic requests", WarmUpRequests.fire(this, RouteManager.getInstance(this).fixedGetPaths(), requests)));
+        }
+    }
+
+    /**
+     * Run a startup step and log its duration
+     *
+     * @param name phase name
+     * @param step phase action
+     */
+    private void phase(String name, Runnable step) {
+
+        long start = System.nanoTime();
+        step.run();
+        log.info("Startup phase {} took {} ms", name, (System.nanoTime() - start) / 1000000);
+    }
+
     /**
      * Other preparations to be done at last
      */
@@ -653,11 +872,19 @@ public class Razor {
 
         HttpContext.init(this);
 
-        this.initIoc();
-        this.initMiddlewares();
-        this.initRoutes();
-        this.initImplements();
-        this.initRuntime();
+        phase("ioc", this::initIoc);
+        phase("middlewares", this::initMiddlewares);
+        phase("routes", this::initRoutes);
+        phase("implements", this::initImplements);
+        phase("runtime", this::initRuntime);
+
+        if (env.getBool(ENV_KEY_WARMUP, DEFAULT_WARMUP_ENABLE)) {
+
+            warmUp();
+        }
+
+        ready = true;
+        eventEmitter.emit(EventType.APP_READY, this);
 
         log.info("App use web root folder: {}", env.get(ENV_KEY_WEB_ROOT_FOLDER, DEFAULT_WEB_ROOT_FOLDER));
 
@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary form of cached values, common scalar types are written with a one byte tag,
+ * other values are written by java serialization
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public final class BinaryCodec {
+
+    private static final byte NULL = 0;
+
+    private static final byte STRING = 1;
+
+    private static final byte LONG = 2;
+
+    private static final byte INTEGER = 3;
+
+    private static final byte DOUBLE = 4;
+
+    private static final byte TRUE = 5;
+
+    private static final byte FALSE = 6;
+
+    private static final byte BYTES = 7;
+
+    private static final byte SERIALIZED = 8;
+
+    private BinaryCodec() {
+
+    }
+
+    /**
+     * Write value to buffer
+     *
+     * @param value value, should be one of the scalar types or {@link Serializable}
+     * @param buf target buffer
+     */
+    public static void encode(Object value, ByteBuf buf) {
+
+        if (value == null) {
+
+            buf.writeByte(NULL);
+        } else if (value instanceof String) {
+
+            // length is known after writing, reserve it ahead
+            buf.writeByte(STRING);
+            int lengthIndex = buf.writerIndex();
+            buf.writeInt(0);
+            buf.setInt(lengthIndex, ByteBufUtil.writeUtf8(buf, (String)value));
+        } else if (value instanceof Long) {
+
+            buf.writeByte(LONG).writeLong((Long)value);
+        } else if (value instanceof Integer) {
+
+            buf.writeByte(INTEGER).writeInt((Integer)value);
+        } else if (value instanceof Double) {
+
+            buf.writeByte(DOUBLE).writeDouble((Double)value);
+        } else if (value instanceof Boolean) {
+
+            buf.writeByte((Boolean)value ? TRUE : FALSE);
+        } else if (value instanceof byte[]) {
+
+            byte[] bytes = (byte[])value;
+            buf.writeByte(BYTES);
+            writeVarInt(buf, bytes.length);
+            buf.writeBytes(bytes);
+        } else if (value instanceof Serializable) {
+
+            buf.writeByte(SERIALIZED);
+
+            try (ObjectOutputStream out = new ObjectOutputStream(new ByteBufOutputStream(buf))) {
+
+                out.writeObject(value);
+            } catch (IOException e) {
+
+                throw new UncheckedIOException("Serialize " + value.getClass().getName() + " failed", e);
+            }
+        } else {
+
+            throw new IllegalArgumentException(value.getClass().getName() + " is not serializable");
+        }
+    }
+
+    /**
+     * Read value from buffer, reader index of buffer is moved
+     *
+     * @param buf source buffer
+     * @return value
+     */
+    public static Object decode(ByteBuf buf) {
+
+        byte tag = buf.readByte();
+
+        switch (tag) {
+
+            case NULL:
+                return null;
+            case STRING:
+                int length = buf.readInt();
+                String str = buf.toString(buf.readerIndex(), length, StandardCharsets.UTF_8);
+                buf.skipBytes(length);
+                return str;
+            case LONG:
+                return buf.readLong();
+            case INTEGER:
+                return buf.readInt();
+            case DOUBLE:
+                return buf.readDouble();
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case BYTES:
+                byte[] bytes = new byte[readVarInt(buf)];
+                buf.readBytes(bytes);
+                return bytes;
+            case SERIALIZED:
+                try (ObjectInputStream in = new ObjectInputStream(new ByteBufInputStream(buf))) {
+
+                    return in.readObject();
+                } catch (IOException | ClassNotFoundException e) {
+
+                    throw new IllegalStateException("Deserialize cached value failed", e);
+                }
+            default:
+                throw new IllegalStateException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeVarInt(ByteBuf buf, int value) {
+
+        while ((value & ~0x7F) != 0) {
+
+            buf.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buf.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuf buf) {
+
+        int value = 0;
+
+        for (int shift = 0; ; shift += 7) {
+
+            byte b = buf.readByte();
+            value |= (b & 0x7F) << shift;
+
+            if (b >= 0) {
+
+                return value;
+            }
+        }
+    }
+}
@@ -23,7 +23,10 @@
 
 package com.fedepot.cache;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Cache interface
@@ -33,6 +36,11 @@ import java.util.Optional;
  */
 public interface Cache {
 
+    /**
+     * Group of keys added without a group
+     */
+    String DEFAULT_GROUP = "_default_";
+
     void add(String key, Object value, int expires);
 
     void add(String key, Object value, int expires, String group);
@@ -65,5 +73,60 @@ public interface Cache {
 
     long decr(String key, String group, int by);
 
+    /**
+     * Add to a number value atomically, a missing key is created with value `by`
+     *
+     * @param key key
+     * @param by delta, negative for decrease
+     * @param expires seconds to live of a created key, 0 for never expire
+     * @return new value
+     */
+    long incrOrCreate(String key, int by, int expires);
+
+    long incrOrCreate(String key, String group, int by, int expires);
+
+    /**
+     * Get values of keys in one call
+     *
+     * @param keys keys
+     * @return values of present keys
+     */
+    default Map<String, Object> getAll(Collection<String> keys) {
+
+        return getAll(keys, DEFAULT_GROUP);
+    }
+
+    Map<String, Object> getAll(Collection<String> keys, String group);
+
+    default void putAll(Map<String, ?> values, int expires) {
+
+        putAll(values, expires, DEFAULT_GROUP);
+    }
+
+    void putAll(Map<String, ?> values, int expires, String group);
+
+    default void deleteAll(Collection<String> keys) {
+
+        deleteAll(keys, DEFAULT_GROUP);
+    }
+
+    void deleteAll(Collection<String> keys, String group);
+
+    /**
+     * Get value, or load and add it when it is absent, concurrent misses of one key run the loader only once
+     *
+     * @param key key
+     * @param expires seconds to live of loaded value, 0 for never expire
+     * @param loader value loader, null result is returned but not cached
+     * @param <T> value type
+     * @return cached or loaded value
+     */
+    default <T> T computeIfAbsent(String key, int expires, Supplier<T> loader) {
+
+        return computeIfAbsent(key, DEFAULT_GROUP, expires, loader);
+    }
+
+    <T> T computeIfAbsent(String key, String group, int expires, Supplier<T> loader);
+
     void shutdown();
 }
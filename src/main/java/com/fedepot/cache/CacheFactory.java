@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.cache;
+
+import com.fedepot.env.Env;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.fedepot.mvc.Constants.*;
+
+/**
+ * Create cache of the provider configured by `razor.cache.provider`
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public class CacheFactory {
+
+    public static final String PROVIDER_EHCACHE = "ehcache";
+
+    public static final String PROVIDER_MEMORY = "memory";
+
+    public static final String PROVIDER_OFFHEAP = "offheap";
+
+    /**
+     * Get cache which contains the group
+     *
+     * @param env app env
+     * @param group cache group
+     * @return cache
+     */
+    public static Cache newInstance(Env env, String group) {
+
+        return newInstance(env, group, env.get(ENV_KEY_CACHE_PROVIDER, DEFAULT_CACHE_PROVIDER));
+    }
+
+    /**
+     * Get cache of specified provider which contains the group
+     *
+     * @param env app env
+     * @param group cache group
+     * @param provider cache provider
+     * @return cache
+     */
+    public static Cache newInstance(Env env, String group, String provider) {
+
+        provider = provider.toLowerCase();
+
+        switch (provider) {
+
+            case PROVIDER_MEMORY:
+                return MemoryCache.newInstance(env, group);
+            case PROVIDER_OFFHEAP:
+                return OffHeapCache.newInstance(env, group);
+            case PROVIDER_EHCACHE:
+                return Ehcache.newInstance(group);
+            default:
+                log.error("Unknown cache provider {}, use {} instead", provider, PROVIDER_EHCACHE);
+                return Ehcache.newInstance(group);
+        }
+    }
+}
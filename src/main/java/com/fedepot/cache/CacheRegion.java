@@ -0,0 +1,442 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * One cache group of {@link MemoryCache} or {@link OffHeapCache}, a concurrent map bounded by total weight of values
+ * and evicted by segmented LRU, by default each value weighs one
+ *
+ * Reads never lock, they are recorded in a lossy buffer which is replayed to the LRU lists in batches.
+ * A new entry starts in the probation segment and is promoted to the protected segment when it is read again,
+ * so one-time entries are evicted before frequently read ones.
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+final class CacheRegion {
+
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private final Map<String, Entry> map = new ConcurrentHashMap<>();
+
+    private final long maxWeight;
+
+    private final long maxProtected;
+
+    private final ToIntFunction<Object> weigher;
+
+    /**
+     * Called exactly once with the value of each entry which leaves the region, by replacement, removal or eviction
+     */
+    private final Consumer<Object> removalListener;
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Guards the LRU lists and sizes below
+     */
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final Entry probation = Entry.sentinel();
+
+    private final Entry protect = Entry.sentinel();
+
+    private volatile long weight;
+
+    private long protectedWeight;
+
+    private final AtomicReferenceArray<Entry> readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+
+    CacheRegion(int maxEntries) {
+
+        this(maxEntries, value -> 1, value -> {});
+    }
+
+    CacheRegion(long maxWeight, ToIntFunction<Object> weigher, Consumer<Object> removalListener) {
+
+        this.maxWeight = Math.max(maxWeight, 1);
+        this.maxProtected = Math.max(this.maxWeight * 4 / 5, 1);
+        this.weigher = weigher;
+        this.removalListener = removalListener;
+    }
+
+    /**
+     * Live entry of key, an expired entry is removed
+     *
+     * @param key key
+     * @return entry, null if absent or expired
+     */
+    Entry getEntry(String key) {
+
+        Entry entry = map.get(key);
+
+        if (entry == null) {
+
+            return null;
+        }
+
+        if (entry.isExpired(System.currentTimeMillis())) {
+
+            if (map.remove(key, entry)) {
+
+                afterRemove(entry);
+            }
+
+            return null;
+        }
+
+        return entry;
+    }
+
+    /**
+     * Value of a live entry, it may be released by a concurrent removal as soon as it is returned
+     *
+     * @param key key
+     * @return value, null if absent
+     */
+    Object get(String key) {
+
+        Entry entry = getEntry(key);
+
+        if (entry == null) {
+
+            return null;
+        }
+
+        recordRead(entry);
+
+        return entry.value;
+    }
+
+    void put(String key, Object value, int expires) {
+
+        Entry entry = new Entry(key, value, weigher.applyAsInt(value), expireAt(expires));
+        Entry old = map.put(key, entry);
+
+        afterWrite(key, entry, old);
+
+        if (old != null) {
+
+            removalListener.accept(old.value);
+        }
+    }
+
+    private static long expireAt(int expires) {
+
+        return expires > 0 ? System.currentTimeMillis() + expires * 1000L : 0;
+    }
+
+    private void afterWrite(String key, Entry entry, Entry old) {
+
+        evictionLock.lock();
+
+        try {
+
+            if (old != null) {
+
+                unlink(old);
+            }
+
+            // replaced or removed by another thread before we got the lock
+            if (map.get(key) == entry) {
+
+                link(probation, entry);
+                evict();
+            }
+        } finally {
+
+            evictionLock.unlock();
+        }
+    }
+
+    void remove(String key) {
+
+        Entry entry = map.remove(key);
+
+        if (entry != null) {
+
+            afterRemove(entry);
+        }
+    }
+
+    void clear() {
+
+        map.forEach((key, entry) -> {
+
+            if (map.remove(key, entry)) {
+
+                afterRemove(entry);
+            }
+        });
+    }
+
+    /**
+     * Add delta to a number value atomically
+     *
+     * @param key key
+     * @param delta delta
+     * @param create create the key with value delta if it is absent
+     * @param expires seconds to live of a created key
+     * @return new value, -1 if key is absent and not created
+     */
+    long add(String key, long delta, boolean create, int expires) {
+
+        for (;;) {
+
+            Entry entry = getEntry(key);
+
+            if (entry == null) {
+
+                if (!create) {
+
+                    return -1;
+                }
+
+                entry = new Entry(key, delta, weigher.applyAsInt(delta), expireAt(expires));
+
+                if (map.putIfAbsent(key, entry) == null) {
+
+                    afterWrite(key, entry, null);
+
+                    return delta;
+                }
+
+                // created by another thread, add to it
+                continue;
+            }
+
+            Object current = entry.value;
+            long next = ((Number)current).longValue() + delta;
+
+            if (Entry.VALUE.compareAndSet(entry, current, next)) {
+
+                return next;
+            }
+        }
+    }
+
+    int size() {
+
+        return map.size();
+    }
+
+    /**
+     * Total weight of values
+     *
+     * @return weight
+     */
+    long weight() {
+
+        return weight;
+    }
+
+    long maxWeight() {
+
+        return maxWeight;
+    }
+
+    /**
+     * Entries evicted to keep the weight bound
+     *
+     * @return count
+     */
+    long evictions() {
+
+        return evictions.sum();
+    }
+
+    private void afterRemove(Entry entry) {
+
+        evictionLock.lock();
+
+        try {
+
+            unlink(entry);
+        } finally {
+
+            evictionLock.unlock();
+        }
+
+        removalListener.accept(entry.value);
+    }
+
+    private void recordRead(Entry entry) {
+
+        int index = ThreadLocalRandom.current().nextInt() & READ_BUFFER_MASK;
+        readBuffer.lazySet(index, entry);
+
+        // replay buffer about once every buffer length reads
+        if (index == 0 && evictionLock.tryLock()) {
+
+            try {
+
+                drainReads();
+            } finally {
+
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReads() {
+
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+
+            Entry entry = readBuffer.getAndSet(i, null);
+
+            if (entry != null && entry.linked) {
+
+                onAccess(entry);
+            }
+        }
+    }
+
+    private void onAccess(Entry entry) {
+
+        unlink(entry);
+        entry.hot = true;
+        link(protect, entry);
+
+        // demote least recently used protected entries to probation
+        while (protectedWeight > maxProtected && protect.prev != entry) {
+
+            Entry demoted = protect.prev;
+            unlink(demoted);
+            demoted.hot = false;
+            link(probation, demoted);
+        }
+    }
+
+    private void evict() {
+
+        while (weight > maxWeight) {
+
+            Entry victim = probation.prev != probation ? probation.prev : protect.prev;
+            unlink(victim);
+
+            // a victim removed or replaced by others is released by them
+            if (map.remove(victim.key, victim)) {
+
+                evictions.increment();
+                removalListener.accept(victim.value);
+            }
+        }
+    }
+
+    private void link(Entry head, Entry entry) {
+
+        entry.next = head.next;
+        entry.prev = head;
+        head.next.prev = entry;
+        head.next = entry;
+        entry.linked = true;
+
+        weight += entry.weight;
+
+        if (entry.hot) {
+
+            protectedWeight += entry.weight;
+        }
+    }
+
+    private void unlink(Entry entry) {
+
+        if (!entry.linked) {
+
+            return;
+        }
+
+        entry.prev.next = entry.next;
+        entry.next.prev = entry.prev;
+        entry.prev = null;
+        entry.next = null;
+        entry.linked = false;
+
+        weight -= entry.weight;
+
+        if (entry.hot) {
+
+            protectedWeight -= entry.weight;
+        }
+    }
+
+    static final class Entry {
+
+        static final AtomicReferenceFieldUpdater<Entry, Object> VALUE = AtomicReferenceFieldUpdater.newUpdater(Entry.class, Object.class, "value");
+
+        final String key;
+
+        volatile Object value;
+
+        final int weight;
+
+        /**
+         * Expire time in milliseconds, 0 for never
+         */
+        final long expireAt;
+
+        // guarded by eviction lock
+        Entry prev;
+
+        Entry next;
+
+        boolean hot;
+
+        boolean linked;
+
+        Entry(String key, Object value, int weight, long expireAt) {
+
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.expireAt = expireAt;
+        }
+
+        static Entry sentinel() {
+
+            Entry head = new Entry(null, null, 0, 0);
+            head.prev = head;
+            head.next = head;
+
+            return head;
+        }
+
+        boolean isExpired(long now) {
+
+            return expireAt != 0 && now >= expireAt;
+        }
+    }
+}
@@ -35,7 +35,10 @@ import net.sf.ehcache.config.Configuration;
 import net.sf.ehcache.config.ConfigurationFactory;
 
 import java.net.URL;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Ehcache factory
@@ -49,10 +52,15 @@ public class Ehcache implements Cache {
 
     private static Ehcache instance;
 
-    private static String DEFAULT_GROUP = "_default_";
-
     private CacheManager cacheManager;
 
+    /**
+     * Group handles, looked up from cache manager only once for each group
+     */
+    private final Map<String, net.sf.ehcache.Cache> cachers = new ConcurrentHashMap<>();
+
+    private final SingleFlight flights = new SingleFlight();
+
     private Ehcache(String group) {
 
         String configXmlPath = Constants.APP_CLASS_PATH.concat("/WEB-INF/ehcache.xml");
@@ -117,13 +125,23 @@ public class Ehcache implements Cache {
 
     private net.sf.ehcache.Cache cacher(String group) {
 
-        net.sf.ehcache.Cache cacher = this.cacheManager.getCache(group);
+        net.sf.ehcache.Cache cacher = cachers.get(group);
+
+        if (cacher != null) {
+
+            return cacher;
+        }
+
+        cacher = this.cacheManager.getCache(group);
 
         if (cacher == null) {
 
             log.error("Cache group {} is not exist", group);
+            return null;
         }
 
+        cachers.put(group, cacher);
+
         return cacher;
     }
 
@@ -157,7 +175,7 @@ public class Ehcache implements Cache {
 
         try {
 
-            add(key, value, expires);
+            add(key, value, expires, group);
 
             return true;
         } catch (Exception e) {
@@ -228,61 +246,146 @@ public class Ehcache implements Cache {
     }
 
     @Override
-    public synchronized long incr(String key, String group, int by) {
+    public long incr(String key, String group, int by) {
+
+        return add(key, group, by, false, 0);
+    }
+
+    @Override
+    public long decr(String key, int by) {
+
+        return decr(key, DEFAULT_GROUP, by);
+    }
+
+    @Override
+    public long decr(String key, String group, int by) {
+
+        return add(key, group, -by, false, 0);
+    }
+
+    @Override
+    public long incrOrCreate(String key, int by, int expires) {
+
+        return incrOrCreate(key, DEFAULT_GROUP, by, expires);
+    }
+
+    @Override
+    public long incrOrCreate(String key, String group, int by, int expires) {
+
+        return add(key, group, by, true, expires);
+    }
+
+    /**
+     * Add delta to a number value by compare-and-swap, retried when the value is changed by others
+     *
+     * @param key key
+     * @param group group
+     * @param delta delta
+     * @param create create the key with value delta if it is absent
+     * @param expires seconds to live of a created key
+     * @return new value, -1 if key is absent and not created
+     */
+    private long add(String key, String group, long delta, boolean create, int expires) {
 
         net.sf.ehcache.Cache cacher = cacher(group);
 
-        if (cacher != null) {
+        if (cacher == null) {
+
+            return -1;
+        }
+
+        for (;;) {
 
             Element element = cacher.get(key);
 
             if (element == null) {
 
-                return -1;
+                if (!create) {
+
+                    return -1;
+                }
+
+                Element newEle = new Element(key, delta);
+                newEle.setTimeToLive(expires);
+
+                Element old = cacher.putIfAbsent(newEle);
+
+                if (old == null) {
+
+                    return delta;
+                }
+
+                if (old.isExpired()) {
+
+                    cacher.removeElement(old);
+                }
+
+                continue;
             }
 
-            long newValue = ((Number)element.getObjectValue()).longValue() + by;
+            long newValue = ((Number)element.getObjectValue()).longValue() + delta;
             Element newEle = new Element(key, newValue);
             newEle.setTimeToLive(element.getTimeToLive());
 
-            cacher.put(newEle);
+            if (cacher.replace(element, newEle)) {
 
-            return newValue;
+                return newValue;
+            }
         }
-
-        return -1;
     }
 
     @Override
-    public long decr(String key, int by) {
+    public Map<String, Object> getAll(Collection<String> keys, String group) {
 
-        return decr(key, DEFAULT_GROUP, by);
+        net.sf.ehcache.Cache cacher = cacher(group);
+        Map<String, Object> values = new HashMap<>();
+
+        if (cacher != null) {
+
+            cacher.getAll(keys).forEach((key, element) -> {
+
+                if (element != null) {
+
+                    values.put((String)key, element.getObjectValue());
+                }
+            });
+        }
+
+        return values;
     }
 
     @Override
-    public synchronized long decr(String key, String group, int by) {
+    public void putAll(Map<String, ?> values, int expires, String group) {
 
         net.sf.ehcache.Cache cacher = cacher(group);
 
         if (cacher != null) {
 
-            Element element = cacher.get(key);
+            cacher.putAll(values.entrySet().stream().map(entry -> {
 
-            if (element == null) {
+                Element element = new Element(entry.getKey(), entry.getValue());
+                element.setTimeToLive(expires);
 
-                return -1;
-            }
+                return element;
+            }).collect(Collectors.toList()));
+        }
+    }
 
-            long newValue = ((Number)element.getObjectValue()).longValue() - by;
-            Element newEle = new Element(key, newValue);
-            newEle.setTimeToLive(element.getTimeToLive());
+    @Override
+    public void deleteAll(Collection<String> keys, String group) {
+
+        net.sf.ehcache.Cache cacher = cacher(group);
 
-            cacher.put(newEle);
+        if (cacher != null) {
 
-            return newValue;
+            cacher.removeAll(keys);
         }
+    }
+
+    @Override
+    public <T> T computeIfAbsent(String key, String group, int expires, Supplier<T> loader) {
 
-        return -1;
+        return flights.load(this, key, group, expires, loader);
     }
 
     @Override
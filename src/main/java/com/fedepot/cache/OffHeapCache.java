@@ -0,0 +1,351 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.cache;
+
+import com.fedepot.env.Env;
+import com.fedepot.ioc.annotation.IocIgnore;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.util.IllegalReferenceCountException;
+import io.netty.util.ReferenceCountUtil;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static com.fedepot.mvc.Constants.*;
+
+/**
+ * Cache keeping values out of java heap, values are encoded by {@link BinaryCodec} into direct buffers,
+ * each group is bounded by bytes of its values and evicted by segmented LRU, counters stay on heap
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@IocIgnore
+public class OffHeapCache implements Cache {
+
+    private static OffHeapCache instance;
+
+    /**
+     * Weight of a counter kept on heap
+     */
+    private static final int NUMBER_WEIGHT = 16;
+
+    /**
+     * Buffers are not pooled, so a buffer released by removal is never reused while a reader may still try to retain it
+     */
+    private static final ByteBufAllocator ALLOCATOR = new UnpooledByteBufAllocator(true);
+
+    private final Env env;
+
+    private final Map<String, CacheRegion> regions = new ConcurrentHashMap<>();
+
+    private final SingleFlight flights = new SingleFlight();
+
+    private OffHeapCache(Env env) {
+
+        this.env = env;
+    }
+
+    public synchronized static OffHeapCache newInstance(Env env, String group) {
+
+        if (instance == null) {
+
+            instance = new OffHeapCache(env);
+        }
+
+        instance.region(group);
+
+        return instance;
+    }
+
+    private CacheRegion region(String group) {
+
+        CacheRegion region = regions.get(group);
+
+        if (region != null) {
+
+            return region;
+        }
+
+        return regions.computeIfAbsent(group, name -> new CacheRegion(env.getLong(ENV_KEY_CACHE_OFFHEAP_CAPACITY.concat(".").concat(name), env.getLong(ENV_KEY_CACHE_OFFHEAP_CAPACITY, DEFAULT_CACHE_OFFHEAP_CAPACITY)), OffHeapCache::weigh, ReferenceCountUtil::release));
+    }
+
+    private static int weigh(Object value) {
+
+        return value instanceof ByteBuf ? ((ByteBuf)value).capacity() : NUMBER_WEIGHT;
+    }
+
+    /**
+     * Bytes of values in group
+     *
+     * @param group group name
+     * @return bytes
+     */
+    public long occupancy(String group) {
+
+        return region(group).weight();
+    }
+
+    /**
+     * Max bytes of values in group
+     *
+     * @param group group name
+     * @return bytes
+     */
+    public long capacity(String group) {
+
+        return region(group).maxWeight();
+    }
+
+    /**
+     * Entries evicted from group when it is full
+     *
+     * @param group group name
+     * @return count
+     */
+    public long evictions(String group) {
+
+        return region(group).evictions();
+    }
+
+    public int size(String group) {
+
+        return region(group).size();
+    }
+
+    @Override
+    public void add(String key, Object value, int expires) {
+
+        add(key, value, expires, DEFAULT_GROUP);
+    }
+
+    @Override
+    public void add(String key, Object value, int expires, String group) {
+
+        put(region(group), key, value, expires);
+    }
+
+    private static void put(CacheRegion region, String key, Object value, int expires) {
+
+        if (value instanceof Number) {
+
+            region.put(key, value, expires);
+            return;
+        }
+
+        ByteBuf buf = ALLOCATOR.directBuffer();
+
+        try {
+
+            BinaryCodec.encode(value, buf);
+        } catch (RuntimeException e) {
+
+            buf.release();
+            throw e;
+        }
+
+        // trim the unused tail so capacity is what the value occupies
+        region.put(key, buf.capacity(buf.writerIndex()), expires);
+    }
+
+    @Override
+    public boolean safeAdd(String key, Object value, int expires) {
+
+        return safeAdd(key, value, expires, DEFAULT_GROUP);
+    }
+
+    @Override
+    public boolean safeAdd(String key, Object value, int expires, String group) {
+
+        try {
+
+            add(key, value, expires, group);
+
+            return true;
+        } catch (RuntimeException e) {
+
+            return false;
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+
+        delete(key, DEFAULT_GROUP);
+    }
+
+    @Override
+    public void delete(String key, String group) {
+
+        region(group).remove(key);
+    }
+
+    @Override
+    public void clear() {
+
+        regions.values().forEach(CacheRegion::clear);
+    }
+
+    @Override
+    public void clear(String group) {
+
+        region(group).clear();
+    }
+
+    @Override
+    public Optional<Object> get(String key) {
+
+        return get(key, DEFAULT_GROUP);
+    }
+
+    @Override
+    public Optional<Object> get(String key, String group) {
+
+        return read(region(group), key);
+    }
+
+    private static Optional<Object> read(CacheRegion region, String key) {
+
+        Object value = region.get(key);
+
+        if (!(value instanceof ByteBuf)) {
+
+            return Optional.ofNullable(value);
+        }
+
+        ByteBuf buf = (ByteBuf)value;
+
+        try {
+
+            buf.retain();
+        } catch (IllegalReferenceCountException e) {
+
+            // released by a concurrent removal
+            return Optional.empty();
+        }
+
+        try {
+
+            return Optional.ofNullable(BinaryCodec.decode(buf.duplicate()));
+        } finally {
+
+            buf.release();
+        }
+    }
+
+    @Override
+    public Object get(String key, Object defaultValue) {
+
+        return get(key, DEFAULT_GROUP, defaultValue);
+    }
+
+    @Override
+    public Object get(String key, String group, Object defaultValue) {
+
+        return get(key, group).orElse(defaultValue);
+    }
+
+    @Override
+    public long incr(String key, int by) {
+
+        return incr(key, DEFAULT_GROUP, by);
+    }
+
+    @Override
+    public long incr(String key, String group, int by) {
+
+        return region(group).add(key, by, false, 0);
+    }
+
+    @Override
+    public long decr(String key, int by) {
+
+        return decr(key, DEFAULT_GROUP, by);
+    }
+
+    @Override
+    public long decr(String key, String group, int by) {
+
+        return region(group).add(key, -by, false, 0);
+    }
+
+    @Override
+    public long incrOrCreate(String key, int by, int expires) {
+
+        return incrOrCreate(key, DEFAULT_GROUP, by, expires);
+    }
+
+    @Override
+    public long incrOrCreate(String key, String group, int by, int expires) {
+
+        return region(group).add(key, by, true, expires);
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys, String group) {
+
+        Map<String, Object> values = new HashMap<>();
+
+        CacheRegion region = region(group);
+
+        for (String key : keys) {
+
+            read(region, key).ifPresent(value -> values.put(key, value));
+        }
+
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<String, ?> values, int expires, String group) {
+
+        CacheRegion region = region(group);
+        values.forEach((key, value) -> put(region, key, value, expires));
+    }
+
+    @Override
+    public void deleteAll(Collection<String> keys, String group) {
+
+        CacheRegion region = region(group);
+        keys.forEach(region::remove);
+    }
+
+    @Override
+    public <T> T computeIfAbsent(String key, String group, int expires, Supplier<T> loader) {
+
+        return flights.load(this, key, group, expires, loader);
+    }
+
+    @Override
+    public void shutdown() {
+
+        clear();
+    }
+}
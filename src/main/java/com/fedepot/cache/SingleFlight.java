@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Run at most one loader for a key at a time, callers arriving while it runs wait and share its result
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+final class SingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Run loader, or wait for the running loader of the same key
+     *
+     * @param key flight key
+     * @param loader value loader
+     * @param <T> value type
+     * @return loaded value
+     */
+    @SuppressWarnings("unchecked")
+    <T> T run(String key, Supplier<T> loader) {
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = flights.putIfAbsent(key, flight);
+
+        if (running != null) {
+
+            try {
+
+                return (T)running.join();
+            } catch (CompletionException e) {
+
+                if (e.getCause() instanceof RuntimeException) {
+
+                    throw (RuntimeException)e.getCause();
+                }
+
+                throw e;
+            }
+        }
+
+        try {
+
+            T value = loader.get();
+            flight.complete(value);
+
+            return value;
+        } catch (RuntimeException | Error e) {
+
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+
+            flights.remove(key, flight);
+        }
+    }
+
+    /**
+     * Read through cache, loading a missing value at most once for concurrent callers, null value is not cached
+     *
+     * @param cache cache to read and fill
+     * @param key cache key
+     * @param group cache group
+     * @param expires expire seconds of loaded value
+     * @param loader value loader
+     * @param <T> value type
+     * @return cached or loaded value
+     */
+    @SuppressWarnings("unchecked")
+    <T> T load(Cache cache, String key, String group, int expires, Supplier<T> loader) {
+
+        Optional<Object> cached = cache.get(key, group);
+
+        if (cached.isPresent()) {
+
+            return (T)cached.get();
+        }
+
+        return run(group.concat("\0").concat(key), () -> {
+
+            // loaded by a flight which just finished
+            Optional<Object> loaded = cache.get(key, group);
+
+            if (loaded.isPresent()) {
+
+                return (T)loaded.get();
+            }
+
+            T value = loader.get();
+
+            if (value != null) {
+
+                cache.add(key, value, expires, group);
+            }
+
+            return value;
+        });
+    }
+}
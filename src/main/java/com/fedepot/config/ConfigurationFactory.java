@@ -161,6 +161,103 @@ public class ConfigurationFactory {
                 Element element = (Element)sessionNode;
                 properties.put(ENV_KEY_SESSION_KEY, element.getElementsByTagName("key").item(0).getTextContent());
                 properties.put(ENV_KEY_SESSION_TIMEOUT, Integer.parseInt(element.getElementsByTagName("timeout").item(0).getTextContent()));
+
+                NodeList providerNodes = element.getElementsByTagName("provider");
+                if (providerNodes.getLength() > 0) {
+
+                    properties.put(ENV_KEY_SESSION_CACHE_PROVIDER, providerNodes.item(0).getTextContent());
+                }
+
+                NodeList writeBehindNodes = element.getElementsByTagName("writeBehind");
+                if (writeBehindNodes.getLength() > 0) {
+
+                    Element writeBehind = (Element)writeBehindNodes.item(0);
+                    properties.put(ENV_KEY_SESSION_WRITE_BEHIND, !"false".equals(writeBehind.getAttribute("enable")));
+
+                    if (!writeBehind.getAttribute("interval").isEmpty()) {
+
+                        properties.put(ENV_KEY_SESSION_WRITE_BEHIND_INTERVAL, Integer.parseInt(writeBehind.getAttribute("interval")));
+                    }
+                }
+            }
+        }
+
+
+        // dev mode
+        NodeList devNodes = doc.getElementsByTagName("dev");
+        if (devNodes.getLength() > 0) {
+
+            properties.put(ENV_KEY_DEV_MODE, "true".equals(devNodes.item(0).getTextContent().trim()));
+        }
+
+
+        // cache
+        NodeList cacheNodes = doc.getElementsByTagName("caches");
+        if (cacheNodes.getLength() > 0) {
+
+            Node cacheNode = cacheNodes.item(0);
+
+            if (cacheNode.getNodeType() == Node.ELEMENT_NODE) {
+
+                Element element = (Element)cacheNode;
+
+                if (!element.getAttribute("provider").isEmpty()) {
+
+                    properties.put(ENV_KEY_CACHE_PROVIDER, element.getAttribute("provider"));
+                }
+
+                if (!element.getAttribute("maxEntries").isEmpty()) {
+
+                    properties.put(ENV_KEY_CACHE_MAX_ENTRIES, Integer.parseInt(element.getAttribute("maxEntries")));
+                }
+
+                if (!element.getAttribute("capacity").isEmpty()) {
+
+                    properties.put(ENV_KEY_CACHE_OFFHEAP_CAPACITY, Long.parseLong(element.getAttribute("capacity")));
+                }
+
+                NodeList groups = element.getElementsByTagName("group");
+                for (int i=0; i<groups.getLength(); i++) {
+                    Element groupEle = (Element)groups.item(i);
+                    String name = groupEle.getAttribute("name");
+
+                    if (!groupEle.getAttribute("maxEntries").isEmpty()) {
+
+                        properties.put(ENV_KEY_CACHE_MAX_ENTRIES.concat(".").concat(name), Integer.parseInt(groupEle.getAttribute("maxEntries")));
+                    }
+
+                    if (!groupEle.getAttribute("capacity").isEmpty()) {
+
+                        properties.put(ENV_KEY_CACHE_OFFHEAP_CAPACITY.concat(".").concat(name), Long.parseLong(groupEle.getAttribute("capacity")));
+                    }
+                }
+            }
+        }
+
+
+        // warm-up
+        NodeList warmUpNodes = doc.getElementsByTagName("warmup");
+        if (warmUpNodes.getLength() > 0) {
+
+            Node warmUpNode = warmUpNodes.item(0);
+
+            if (warmUpNode.getNodeType() == Node.ELEMENT_NODE) {
+
+                Element element = (Element)warmUpNode;
+                properties.put(ENV_KEY_WARMUP, !"false".equals(element.getAttribute("enable")));
+
+                if (!element.getAttribute("requests").isEmpty()) {
+
+                    properties.put(ENV_KEY_WARMUP_REQUESTS, Integer.parseInt(element.getAttribute("requests")));
+                }
+
+                NodeList templates = element.getElementsByTagName("template");
+                List<String> list = new ArrayList<>();
+                for (int i=0; i<templates.getLength(); i++) {
+
+                    list.add(templates.item(i).getTextContent());
+                }
+                properties.put(ENV_KEY_WARMUP_TEMPLATES, list);
             }
         }
 
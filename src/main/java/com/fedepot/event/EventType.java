@@ -33,5 +33,6 @@ public enum EventType {
 
     APP_START,
     APP_STARTED,
+    APP_READY,
     APP_STOP
 }
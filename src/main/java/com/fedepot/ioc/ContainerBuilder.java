@@ -32,6 +32,7 @@ import com.fedepot.ioc.walker.FieldsWalker;
 
 import com.fedepot.mvc.controller.APIController;
 import com.fedepot.mvc.controller.Controller;
+import com.fedepot.mvc.controller.WebSocketController;
 import com.fedepot.util.ReflectKit;
 import org.reflections.Reflections;
 import lombok.extern.slf4j.Slf4j;
@@ -140,7 +141,7 @@ public class ContainerBuilder implements IContainerBuilder {
             return;
         }
 
-        if (clazz == Controller.class || clazz == APIController.class) {
+        if (clazz == Controller.class || clazz == APIController.class || clazz == WebSocketController.class) {
 
             this.registerControllers(clazz);
         }
@@ -224,7 +225,8 @@ public class ContainerBuilder implements IContainerBuilder {
     @Override
     public IContainer build() {
 
-        Ioc ioc = new Ioc(rbs.stream().map(t -> ServiceBean.fromRegistrationData(t.getRegistrationData())).collect(Collectors.toList()));
+        List<Class<?>> interfaces = registeredTypes.stream().filter(Class::isInterface).collect(Collectors.toList());
+        Ioc ioc = new Ioc(rbs.stream().map(t -> ServiceBean.fromRegistrationData(t.getRegistrationData())).collect(Collectors.toList()), interfaces);
 
         // dispose
         rbs.clear();
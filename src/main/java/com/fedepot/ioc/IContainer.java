@@ -46,6 +46,13 @@ public interface IContainer {
 
     <T, E extends Enum<E>> T resolveKeyed(Class<T> t, E enumKey);
 
+    /**
+     * Create all singleton beans ahead of the first resolving, dependencies are created before their dependents
+     *
+     * @return count of singletons created
+     */
+    int instantiateSingletons();
+
     // TODO IContainer.Resolve<T>(NamedParameter namedParameter)
     // TODO container.Resolve<DBManager>(new NamedParameter("name", "SQL"))
 }
@@ -25,13 +25,12 @@ package com.fedepot.ioc;
 
 import com.fedepot.ioc.exception.DependencyResolveException;
 import com.fedepot.ioc.walker.ClassesWalker;
-import com.fedepot.ioc.walker.ConstructorWalker;
 import com.fedepot.ioc.walker.FieldsWalker;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
 
 /**
@@ -50,8 +49,14 @@ public class Ioc implements IContainer {
 
     private final Map<String, Map<Object, ServiceBean>> keyedBeanPool = new HashMap<>();
 
-    Ioc(List<ServiceBean> beans) {
+    private final Map<Class<?>, ServiceBean> interfaceBindings = new HashMap<>();
+
+    private final List<ServiceBean> beans;
+
+    Ioc(List<ServiceBean> beans, Collection<Class<?>> interfaces) {
         // TODO getInterfaces() and register
+        this.beans = beans;
+
         for (ServiceBean bean : beans) {
 
             String typeName = bean.getRegType().getName();
@@ -76,6 +81,96 @@ public class Ioc implements IContainer {
 
             beanPool.put(typeName, bean);
         }
+
+        // compile plans after all beans are known, interface arguments and fields look up their binding when resolved
+        for (ServiceBean bean : beans) {
+
+            if (bean.getBean() != null) {
+
+                continue;
+            }
+
+            try {
+
+                bean.setPlan(ResolvePlan.compile(bean.getImplType(), this));
+            } catch (DependencyResolveException e) {
+
+                log.warn("Bean {} has no resolve plan: {}", bean.getImplType().getName(), e.getMessage());
+            }
+        }
+
+        // bind registered interfaces to the first resolvable implementer
+        for (Class<?> face : interfaces) {
+
+            ServiceBean target = bindingOf(face);
+
+            if (target != null) {
+
+                interfaceBindings.put(face, target);
+            }
+        }
+    }
+
+    /**
+     * Find the bean to supply a type, interfaces are bound to the first implementer which could be resolved
+     *
+     * @param type service type
+     * @return service bean, null if not registered
+     */
+    private ServiceBean bindingOf(Class<?> type) {
+
+        if (!type.isInterface()) {
+
+            return beanPool.get(type.getName());
+        }
+
+        ServiceBean target = interfaceBindings.get(type);
+
+        if (target != null) {
+
+            return target;
+        }
+
+        for (Class<?> implementer : ClassesWalker.cachedImplementers(type)) {
+
+            ServiceBean bean = beanPool.get(implementer.getName());
+
+            if (bean != null && (bean.getBean() != null || (bean.getPlan() != null && !Modifier.isAbstract(bean.getImplType().getModifiers())))) {
+
+                return bean;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Provider of a constructor argument or field value, types not registered are resolved dynamically
+     *
+     * @param type service type
+     * @return provider
+     */
+    ResolvePlan.Provider providerOf(Class<?> type) {
+
+        if (type.isInterface()) {
+
+            // bindings are made after all plans are compiled
+            return () -> {
+
+                ServiceBean target = interfaceBindings.get(type);
+
+                return target != null ? resolveBean(target) : resolve(type);
+            };
+        }
+
+        ServiceBean target = bindingOf(type);
+
+        if (target == null) {
+
+            return () -> resolve(type);
+        }
+
+        return () -> resolveBean(target);
     }
 
     @Override
@@ -83,6 +178,21 @@ public class Ioc implements IContainer {
 
         if (t.isInterface()) {
 
+            ServiceBean target = interfaceBindings.get(t);
+
+            if (target != null) {
+
+                try {
+
+                    return resolveBean(target);
+                } catch (DependencyResolveException e) {
+
+                    log.error("Resolve {} encounter exception: {}", t.getName(), e.getMessage());
+
+                    return null;
+                }
+            }
+
             Class<?>[] implementers = ClassesWalker.cachedImplementers(t);
 
             if (implementers.length == 0) {
@@ -116,6 +226,21 @@ public class Ioc implements IContainer {
     @Override
     public <T> T resolve(T t) {
 
+        ServiceBean svb = beanPool.get(t.getClass().getName());
+
+        if (svb != null && svb.getPlan() != null) {
+
+            try {
+
+                svb.getPlan().injectFields(t);
+            } catch (DependencyResolveException e) {
+
+                log.error("Resolve fields of {} encounter exception: {}", t.getClass().getName(), e.getMessage());
+            }
+
+            return t;
+        }
+
         // resolve fields
         Field[] fields = FieldsWalker.cachedInjectFields(t.getClass());
         Arrays.stream(fields).forEach(field -> {
@@ -211,84 +336,71 @@ public class Ioc implements IContainer {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private <T> T resolveBean(ServiceBean svb) throws DependencyResolveException {
+    @Override
+    public int instantiateSingletons() {
 
-        if (svb == null) {
+        int count = 0;
 
-            return null;
-        }
-
-        Object bean = svb.getBean();
+        for (ServiceBean bean : beans) {
 
-        if (bean != null) {
+            if (!bean.isSington() || bean.getBean() != null || bean.getPlan() == null) {
 
-            return (T)bean;
-        }
+                continue;
+            }
 
-        try {
-            Class<?> clazz = svb.getImplType();
+            try {
 
-            if (clazz.isInterface()) {
+                // resolving a plan creates singleton dependencies first
+                resolveBean(bean);
+                count++;
+            } catch (DependencyResolveException e) {
 
-                Class<?>[] implementers = ClassesWalker.cachedImplementers(clazz);
-                for (Class<?> implementer : implementers) {
+                log.error("Instantiate singleton {} encounter exception: {}", bean.getImplType().getName(), e.getMessage());
+            }
+        }
 
-                    Object ret = resolve(implementer);
+        return count;
+    }
 
-                    if (ret != null) {
+    @SuppressWarnings("unchecked")
+    private <T> T resolveBean(ServiceBean svb) throws DependencyResolveException {
 
-                        return (T)ret;
-                    }
-                }
+        if (svb == null) {
 
-                throw new DependencyResolveException("Cannot resolve interface " + clazz.getName());
-            }
+            return null;
+        }
 
-            // resolve constructor and args
-            Constructor constructor = ConstructorWalker.cachedInjectConstructor(clazz);
-            Class[] parameterTypes = constructor.getParameterTypes();
-            Object ins;
+        Object bean = svb.getBean();
 
-            if (parameterTypes.length == 0) {
+        if (bean != null) {
 
-                ins = constructor.newInstance();
-            } else {
+            return (T)bean;
+        }
 
-                Object[] args = Arrays.stream(parameterTypes).map(this::resolve).toArray();
-                ins = constructor.newInstance(args);
-            }
+        ResolvePlan plan = svb.getPlan();
 
-            // resolve fields
-            Field[] fields = FieldsWalker.cachedInjectFields(clazz);
-            Arrays.stream(fields).forEach(field -> {
+        if (plan == null) {
 
-                // boolean accessible = field.isAccessible();
-                try {
+            throw new DependencyResolveException("Cannot resolve constructor for Type: " + svb.getImplType().getName());
+        }
 
-                    field.setAccessible(true);
-                    field.set(ins, resolve(field.getType()));
-                } catch (IllegalAccessException e) {
+        if (!svb.isSington()) {
 
-                    log.error("Access field {} of {} with exception: {}", field.getName(), clazz.getName(), e.getMessage());
-                } finally {
+            return (T)plan.newInstance();
+        }
 
-                    // field.setAccessible(accessible);
-                }
-            });
+        // once-only creation, later resolving reads the published bean without lock
+        synchronized (svb) {
 
+            bean = svb.getBean();
 
-            if (svb.isSington()) {
+            if (bean == null) {
 
-                svb.setBean(ins);
+                bean = plan.newInstance();
+                svb.setBean(bean);
             }
-
-            return (T)ins;
-        } catch (Exception e) {
-
-            e.printStackTrace();
-            throw new DependencyResolveException(e.getMessage(), e.getCause());
         }
 
+        return (T)bean;
     }
 }
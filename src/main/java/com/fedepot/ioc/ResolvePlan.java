@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.ioc;
+
+import com.fedepot.ioc.exception.DependencyResolveException;
+import com.fedepot.ioc.walker.ConstructorWalker;
+import com.fedepot.ioc.walker.FieldsWalker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+
+/**
+ * Immutable steps to build a bean, compiled once when the container is built
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+final class ResolvePlan {
+
+    /**
+     * Supply a constructor argument or a field value, bound to the target bean at build time
+     */
+    @FunctionalInterface
+    interface Provider {
+
+        Object get() throws DependencyResolveException;
+    }
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<?> type;
+
+    private final MethodHandle constructor;
+
+    private final Provider[] arguments;
+
+    private final MethodHandle[] setters;
+
+    private final Provider[] values;
+
+    private ResolvePlan(Class<?> type, MethodHandle constructor, Provider[] arguments, MethodHandle[] setters, Provider[] values) {
+
+        this.type = type;
+        this.constructor = constructor;
+        this.arguments = arguments;
+        this.setters = setters;
+        this.values = values;
+    }
+
+    static ResolvePlan compile(Class<?> clazz, Ioc ioc) throws DependencyResolveException {
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Constructor<?> injectConstructor = ConstructorWalker.cachedInjectConstructor(clazz);
+        Class<?>[] parameterTypes = injectConstructor.getParameterTypes();
+        Field[] fields = FieldsWalker.cachedInjectFields(clazz);
+
+        try {
+
+            injectConstructor.setAccessible(true);
+            MethodHandle constructor = lookup.unreflectConstructor(injectConstructor).asSpreader(Object[].class, parameterTypes.length).asType(CONSTRUCTOR_TYPE);
+
+            Provider[] arguments = new Provider[parameterTypes.length];
+
+            for (int i = 0; i < parameterTypes.length; i++) {
+
+                arguments[i] = ioc.providerOf(parameterTypes[i]);
+            }
+
+            MethodHandle[] setters = new MethodHandle[fields.length];
+            Provider[] values = new Provider[fields.length];
+
+            for (int i = 0; i < fields.length; i++) {
+
+                setters[i] = setterOf(lookup, fields[i]);
+                values[i] = ioc.providerOf(fields[i].getType());
+            }
+
+            return new ResolvePlan(clazz, constructor, arguments, setters, values);
+        } catch (ReflectiveOperationException e) {
+
+            throw new DependencyResolveException("Cannot compile resolve plan for " + clazz.getName(), e);
+        }
+    }
+
+    private static MethodHandle setterOf(MethodHandles.Lookup lookup, Field field) throws ReflectiveOperationException {
+
+        field.setAccessible(true);
+
+        try {
+
+            return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+
+            // final fields are not writable through a field setter handle, reflection is still able to set them
+            return lookup.findVirtual(Field.class, "set", SETTER_TYPE).bindTo(field);
+        }
+    }
+
+    Object newInstance() throws DependencyResolveException {
+
+        Object[] args = new Object[arguments.length];
+
+        for (int i = 0; i < args.length; i++) {
+
+            args[i] = arguments[i].get();
+        }
+
+        Object ins;
+
+        try {
+
+            ins = (Object) constructor.invokeExact(args);
+        } catch (Throwable e) {
+
+            throw new DependencyResolveException("Construct " + type.getName() + " failed", e);
+        }
+
+        injectFields(ins);
+
+        return ins;
+    }
+
+    void injectFields(Object ins) throws DependencyResolveException {
+
+        for (int i = 0; i < setters.length; i++) {
+
+            Object value = values[i].get();
+
+            try {
+
+                setters[i].invokeExact(ins, value);
+            } catch (Throwable e) {
+
+                throw new DependencyResolveException("Inject field of " + type.getName() + " failed", e);
+            }
+        }
+    }
+}
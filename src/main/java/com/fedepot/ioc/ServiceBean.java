@@ -43,10 +43,18 @@ class ServiceBean {
 
     private Object key;
 
-    private Object bean;
+    /**
+     * Created instance of a singleton bean, published once and read without lock
+     */
+    private volatile Object bean;
 
     private boolean sington;
 
+    /**
+     * Compiled steps to build the bean, null for registered instances
+     */
+    private ResolvePlan plan;
+
     boolean hasName() {
 
         return !StringUtils.isEmpty(name);
@@ -83,6 +91,11 @@ class ServiceBean {
         this.bean = bean;
     }
 
+    void setPlan(ResolvePlan plan) {
+
+        this.plan = plan;
+    }
+
     static ServiceBean fromRegistrationData(RegistrationData rd) {
 
         return new ServiceBean(rd);
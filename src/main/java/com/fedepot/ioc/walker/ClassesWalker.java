@@ -27,8 +27,8 @@ package com.fedepot.ioc.walker;
 import com.fedepot.util.ReflectKit;
 import org.reflections.Reflections;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Reflect classes for a interface
@@ -38,9 +38,9 @@ import java.util.Map;
  */
 public class ClassesWalker {
 
-    private static final Map<Class<?>, Class<?>[]> classesMap = new HashMap<>();
+    private static final Map<Class<?>, Class<?>[]> classesMap = new ConcurrentHashMap<>();
 
-    private static Class<?> appClass;
+    private static volatile Class<?> appClass;
 
     public static <T> Class<?>[] reflectImplementers(Class<?> appClass, Class<T> implType) {
 
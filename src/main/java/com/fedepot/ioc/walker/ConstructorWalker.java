@@ -29,8 +29,8 @@ import com.fedepot.ioc.annotation.ForInject;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Constructor;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Find right inject constructor for a class
@@ -41,7 +41,7 @@ import java.util.Map;
 @Slf4j
 public class ConstructorWalker {
 
-    private static final Map<Class<?>, Constructor> constructorMap = new HashMap<>();
+    private static final Map<Class<?>, Constructor> constructorMap = new ConcurrentHashMap<>();
 
     public static Constructor findInjectConstructor(Class<?> clazz) throws DependencyResolveException {
 
@@ -28,6 +28,7 @@ import com.fedepot.ioc.annotation.FromService;
 import java.util.*;
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Find fields marked as from services
@@ -36,7 +37,7 @@ import java.util.Arrays;
  * @since 0.0.1
  */
 public class FieldsWalker {
-    private static final Map<Class<?>, Field[]> fieldsMap = new HashMap<>();
+    private static final Map<Class<?>, Field[]> fieldsMap = new ConcurrentHashMap<>();
 
     public static Field[] findInjectFields(Class<?> clazz) {
 
@@ -83,6 +83,46 @@ public interface Constants {
 
     Integer DEFAULT_SESSION_TIMEOUT = 3600;
 
+    Boolean DEFAULT_SESSION_WRITE_BEHIND = false;
+
+    String DEFAULT_CACHE_PROVIDER = "ehcache";
+
+    Integer DEFAULT_CACHE_MAX_ENTRIES = 10000;
+
+    Long DEFAULT_CACHE_OFFHEAP_CAPACITY = 64L * 1024 * 1024;
+
+    Integer DEFAULT_SESSION_WRITE_BEHIND_INTERVAL = 200;
+
+    Boolean DEFAULT_DEV_MODE = false;
+
+    String DEFAULT_CONTROLLER_LIFECYCLE = "REQUEST";
+
+    Integer DEFAULT_CONTROLLER_POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    Boolean DEFAULT_DISPATCH_INLINE = false;
+
+    Integer DEFAULT_WORKER_THREADS = Runtime.getRuntime().availableProcessors() * 2;
+
+    Integer DEFAULT_WORKER_QUEUE = 1024;
+
+    String DEFAULT_OVERLOAD_POLICY = "REJECT";
+
+    Boolean DEFAULT_VIRTUAL_THREADS = false;
+
+    Integer DEFAULT_VIRTUAL_MAX_CONCURRENCY = 10000;
+
+    Integer DEFAULT_RETRY_AFTER = 1;
+
+    Integer DEFAULT_MAX_CONTENT_LENGTH = 512 * 1024;
+
+    Integer DEFAULT_STREAMING_LOW_WATER_MARK = 64 * 1024;
+
+    Integer DEFAULT_STREAMING_HIGH_WATER_MARK = 256 * 1024;
+
+    Boolean DEFAULT_WARMUP_ENABLE = false;
+
+    Integer DEFAULT_WARMUP_REQUESTS = 0;
+
     // Env keys
     String ENV_KEY_SERVER_HOST = "razor.server.host";
 
@@ -94,12 +134,34 @@ public interface Constants {
 
     String ENV_KEY_GZIP = "razor.server.gzip";
 
+    String ENV_KEY_DISPATCH_INLINE = "razor.server.dispatch.inline"; // handle requests on the event loop
+
+    String ENV_KEY_WORKER_THREADS = "razor.server.worker.threads";
+
+    String ENV_KEY_WORKER_QUEUE = "razor.server.worker.queue";
+
+    String ENV_KEY_OVERLOAD_POLICY = "razor.server.worker.overload"; // REJECT or DROP
+
+    String ENV_KEY_RETRY_AFTER = "razor.server.worker.retry.after"; // seconds
+
+    String ENV_KEY_VIRTUAL_THREADS = "razor.server.worker.virtual"; // a virtual thread for each request, requires Java 21+
+
+    String ENV_KEY_VIRTUAL_MAX_CONCURRENCY = "razor.server.worker.virtual.max";
+
+    String ENV_KEY_MAX_CONTENT_LENGTH = "razor.server.max.content.length"; // bytes of an aggregated request body
+
+    String ENV_KEY_STREAMING_LOW_WATER_MARK = "razor.server.streaming.low.water.mark"; // buffered bytes to resume reading a streaming body
+
+    String ENV_KEY_STREAMING_HIGH_WATER_MARK = "razor.server.streaming.high.water.mark"; // buffered bytes to pause reading a streaming body
+
     String ENV_KEY_WEB_ROOT_FOLDER = "razor.web.root";
 
     String ENV_KEY_USE_OUTER_WEB_ROOT = "razor.web.root.outer"; // false means use inner resources directory, which is a subfolder of the classpath
 
     String ENV_KEY_TEMPLATE_ROOT_FOLDER = "razor.web.template.root";
 
+    String ENV_KEY_DEV_MODE = "razor.dev.mode"; // reload modified templates
+
     String ENV_KEY_STATIC_RULES = "razor.web.statics";
 
     String ENV_KEY_INDEX_FILES = "razor.web.indexs";
@@ -118,6 +180,28 @@ public interface Constants {
 
     String ENV_KEY_SESSION_TIMEOUT = "razor.web.http.session.timeout";
 
+    String ENV_KEY_SESSION_WRITE_BEHIND = "razor.web.http.session.write.behind"; // store changed sessions from a background thread
+
+    String ENV_KEY_SESSION_WRITE_BEHIND_INTERVAL = "razor.web.http.session.write.behind.interval"; // milliseconds
+
+    String ENV_KEY_CACHE_PROVIDER = "razor.cache.provider"; // ehcache, memory or offheap
+
+    String ENV_KEY_CACHE_MAX_ENTRIES = "razor.cache.max.entries"; // entries of each group of memory cache, append `.{group}` for a certain group
+
+    String ENV_KEY_CACHE_OFFHEAP_CAPACITY = "razor.cache.offheap.capacity"; // bytes of each group of offheap cache, append `.{group}` for a certain group
+
+    String ENV_KEY_SESSION_CACHE_PROVIDER = "razor.web.http.session.cache.provider"; // cache provider of sessions, default to `razor.cache.provider`
+
+    String ENV_KEY_CONTROLLER_LIFECYCLE = "razor.web.controller.lifecycle"; // REQUEST, POOLED or SINGLETON
+
+    String ENV_KEY_CONTROLLER_POOL_SIZE = "razor.web.controller.pool.size";
+
+    String ENV_KEY_WARMUP = "razor.warmup.enable";
+
+    String ENV_KEY_WARMUP_TEMPLATES = "razor.warmup.templates"; // relative templates root path
+
+    String ENV_KEY_WARMUP_REQUESTS = "razor.warmup.requests"; // synthetic GET requests for each fixed route
+
 
     // Env keys for runtime
     String ENV_RT_KEY_403_HTML = "razor.runtime.web.html.403";
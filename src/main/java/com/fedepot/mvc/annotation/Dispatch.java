@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Choose where actions of a controller or a single action are executed, action annotation overrides controller annotation
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Dispatch {
+
+    /**
+     * @return name of a dedicated executor, empty for the default worker pool
+     */
+    String value() default "";
+
+    /**
+     * @return run on the event loop, only for actions which never block
+     */
+    boolean inline() default false;
+
+    /**
+     * @return threads of the dedicated executor, 0 for the default size
+     */
+    int threads() default 0;
+
+    /**
+     * @return queue capacity of the dedicated executor, 0 for the default size
+     */
+    int queue() default 0;
+}
@@ -30,8 +30,6 @@ import com.fedepot.mvc.http.*;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import lombok.extern.slf4j.Slf4j;
 
-import static com.fedepot.mvc.http.HttpHeaderNames.CONTENT_TYPE;
-
 /**
  * Abstract controller specified for API actions
  */
@@ -61,9 +59,7 @@ public class APIController implements IController {
      */
     protected void JSON(Object json) {
 
-        Response response = Response();
-        response.header(CONTENT_TYPE, ContentType.JSON.getMimeTypeWithCharset());
-        response.end(ActionResult.build(json, json.getClass()).getBytes());
+        Response().json(json);
     }
 
     /**
@@ -89,6 +89,14 @@ public abstract class Controller implements IController {
         viewBag.put(key, value);
     }
 
+    /**
+     * Clear per-request state before a pooled instance is reused
+     */
+    void reset() {
+
+        viewBag.clear();
+    }
+
 
     /**
      * Render view with template
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.controller;
+
+import com.fedepot.ioc.IContainer;
+import com.fedepot.ioc.annotation.FromService;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Supply controller instances to the request handler according to the configured {@link ControllerLifecycle}
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public class ControllerProvider {
+
+    private final IContainer ioc;
+
+    private final ControllerLifecycle lifecycle;
+
+    private final int poolSize;
+
+    private final Map<Class<?>, Slot> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Acquires served by an existing instance, indexed by lifecycle ordinal
+     */
+    private final LongAdder[] hits = newCounters();
+
+    /**
+     * Acquires which built a new instance from container, indexed by lifecycle ordinal
+     */
+    private final LongAdder[] misses = newCounters();
+
+    public ControllerProvider(IContainer ioc, ControllerLifecycle lifecycle, int poolSize) {
+
+        this.ioc = ioc;
+        this.lifecycle = lifecycle;
+        this.poolSize = Math.max(1, poolSize);
+    }
+
+    private static LongAdder[] newCounters() {
+
+        LongAdder[] counters = new LongAdder[ControllerLifecycle.values().length];
+
+        for (int i = 0; i < counters.length; i++) {
+
+            counters[i] = new LongAdder();
+        }
+
+        return counters;
+    }
+
+    /**
+     * Decide the lifecycle of a controller class, called when routes are registered
+     *
+     * @param controllerClass controller class
+     * @return the lifecycle actually applied
+     */
+    public ControllerLifecycle register(Class<?> controllerClass) {
+
+        return slots.computeIfAbsent(controllerClass, this::newSlot).lifecycle;
+    }
+
+    /**
+     * Get a controller instance for handling a request, must be paired with {@link #release(Class, Object)}
+     *
+     * @param controllerClass controller class
+     * @return controller instance, null if container could not build it
+     */
+    public Object acquire(Class<?> controllerClass) {
+
+        return slots.computeIfAbsent(controllerClass, this::newSlot).acquire();
+    }
+
+    /**
+     * Give back a controller instance after the request has been handled
+     *
+     * @param controllerClass controller class
+     * @param controller controller instance
+     */
+    public void release(Class<?> controllerClass, Object controller) {
+
+        Slot slot = slots.get(controllerClass);
+
+        if (slot != null && controller != null) {
+
+            slot.release(controller);
+        }
+    }
+
+    public long hits(ControllerLifecycle lifecycle) {
+
+        return hits[lifecycle.ordinal()].sum();
+    }
+
+    public long misses(ControllerLifecycle lifecycle) {
+
+        return misses[lifecycle.ordinal()].sum();
+    }
+
+    private Slot newSlot(Class<?> controllerClass) {
+
+        ControllerLifecycle mode = lifecycle;
+
+        if (mode == ControllerLifecycle.SINGLETON && !isStateless(controllerClass)) {
+
+            log.warn("Controller {} is not a stateless api controller and could not be a singleton, use pooled instances instead", controllerClass.getName());
+            mode = ControllerLifecycle.POOLED;
+        }
+
+        return new Slot(controllerClass, mode);
+    }
+
+    /**
+     * An api controller is stateless when every instance field declared below {@link APIController} is final or injected
+     *
+     * @param controllerClass controller class
+     * @return whether instances could be shared across requests
+     */
+    static boolean isStateless(Class<?> controllerClass) {
+
+        if (!APIController.class.isAssignableFrom(controllerClass)) {
+
+            return false;
+        }
+
+        for (Class<?> clazz = controllerClass; clazz != APIController.class; clazz = clazz.getSuperclass()) {
+
+            for (Field field : clazz.getDeclaredFields()) {
+
+                int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || field.isSynthetic() || field.getAnnotation(FromService.class) != null) {
+
+                    continue;
+                }
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private final class Slot {
+
+        private final Class<?> type;
+
+        private final ControllerLifecycle lifecycle;
+
+        private final BlockingQueue<Object> pool;
+
+        private volatile Object instance;
+
+        Slot(Class<?> type, ControllerLifecycle lifecycle) {
+
+            this.type = type;
+            this.lifecycle = lifecycle;
+            this.pool = lifecycle == ControllerLifecycle.POOLED ? new ArrayBlockingQueue<>(poolSize) : null;
+        }
+
+        Object acquire() {
+
+            int index = lifecycle.ordinal();
+
+            if (lifecycle == ControllerLifecycle.SINGLETON) {
+
+                Object controller = instance;
+
+                if (controller == null) {
+                    synchronized (this) {
+
+                        controller = instance;
+
+                        if (controller == null) {
+
+                            misses[index].increment();
+                            instance = controller = ioc.resolve(type);
+
+                            return controller;
+                        }
+                    }
+                }
+
+                hits[index].increment();
+
+                return controller;
+            }
+
+            if (lifecycle == ControllerLifecycle.POOLED) {
+
+                Object controller = pool.poll();
+
+                if (controller != null) {
+
+                    hits[index].increment();
+
+                    return controller;
+                }
+            }
+
+            misses[index].increment();
+
+            return ioc.resolve(type);
+        }
+
+        void release(Object controller) {
+
+            if (lifecycle != ControllerLifecycle.POOLED) {
+
+                return;
+            }
+
+            if (controller instanceof Controller) {
+
+                ((Controller) controller).reset();
+            }
+
+            // pool is full, leave the instance to gc
+            pool.offer(controller);
+        }
+    }
+}
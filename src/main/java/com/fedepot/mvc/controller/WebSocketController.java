@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.controller;
+
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.WebSocketGroups;
+import com.fedepot.mvc.http.WebSocketSession;
+
+import io.netty.buffer.ByteBuf;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Abstract controller for WebSocket connections, subclass should be marked with
+ * {@link com.fedepot.mvc.annotation.WebSocket} for its path
+ *
+ * One instance serves one connection from upgrade to close, it is supplied by the configured
+ * {@link ControllerLifecycle}. Callbacks run on the channel's event loop, they must not block.
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public abstract class WebSocketController implements IController {
+
+    protected WebSocketGroups Groups() {
+
+        return HttpContext.app().getWebSocketGroups();
+    }
+
+    /**
+     * Connection is upgraded
+     *
+     * @param session WebSocket session
+     */
+    public void onOpen(WebSocketSession session) { }
+
+    /**
+     * Text message received, fragmented messages are aggregated
+     *
+     * @param session WebSocket session
+     * @param text message text
+     */
+    public void onMessage(WebSocketSession session, String text) { }
+
+    /**
+     * Binary message received, fragmented messages are aggregated
+     *
+     * @param session WebSocket session
+     * @param data message data, it is released after this method returns, retain it for later use
+     */
+    public void onBinary(WebSocketSession session, ByteBuf data) { }
+
+    /**
+     * Connection is closed by client or server
+     *
+     * @param session WebSocket session
+     * @param code close status code, 1006 if connection is lost without a close frame
+     * @param reason close reason
+     */
+    public void onClose(WebSocketSession session, int code, String reason) { }
+
+    /**
+     * A callback or the connection failed, connection is closed afterwards
+     *
+     * @param session WebSocket session
+     * @param cause exception
+     */
+    public void onError(WebSocketSession session, Throwable cause) {
+
+        log.error("WebSocket {} failed", session.path(), cause);
+    }
+}
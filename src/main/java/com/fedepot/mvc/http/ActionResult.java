@@ -23,12 +23,19 @@
 
 package com.fedepot.mvc.http;
 
-import com.fedepot.mvc.json.GsonFactory;
+import com.fedepot.mvc.json.JsonSerializerFactory;
 
-import com.google.gson.Gson;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 /**
- * Action execute result wrapper
+ * Action execute result wrapper, result is serialized by the selected {@link com.fedepot.mvc.json.JsonSerializer}
  *
  * @author Touchumind
  * @since 0.0.1
@@ -39,8 +46,6 @@ public class ActionResult {
 
     private Class<?> originType;
 
-    private String text;
-
     private ActionResult() { }
 
     public static ActionResult build(Object result, Class<?> type) {
@@ -49,32 +54,60 @@ public class ActionResult {
         actionResult.origin = result;
         actionResult.originType = type;
 
-        actionResult.cast();
-
         return actionResult;
     }
 
     /**
-     * Core cast method
+     * Serialize result straight into a buffer from the allocator, the caller owns the returned buffer
+     *
+     * @param allocator buffer allocator, normally the channel's pooled allocator
+     * @return UTF-8 encoded content
      */
-    private void cast() {
+    public ByteBuf getContent(ByteBufAllocator allocator) {
 
         // void
         if (originType == Void.TYPE) {
 
-            text = "";
-            return;
+            return Unpooled.EMPTY_BUFFER;
         }
 
-        // TODO complicated customized object serialization
-        Gson gson = GsonFactory.getGson();
+        return write(origin, allocator);
+    }
+
+    public byte[] getBytes() {
+
+        if (originType == Void.TYPE) {
+
+            return new byte[0];
+        }
 
-        text = gson.toJson(origin);
+        return JsonSerializerFactory.getSerializer().toJson(origin).getBytes(StandardCharsets.UTF_8);
     }
 
+    /**
+     * Serialize data as json into a buffer from the allocator, buffer is released if serialization fails
+     *
+     * @param data data to serialize
+     * @param allocator buffer allocator
+     * @return UTF-8 encoded json
+     */
+    static ByteBuf write(Object data, ByteBufAllocator allocator) {
 
-    public byte[] getBytes() {
+        ByteBuf buf = allocator.buffer();
+
+        try {
+
+            JsonSerializerFactory.getSerializer().write(data, new ByteBufOutputStream(buf));
+        } catch (IOException e) {
+
+            buf.release();
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+
+            buf.release();
+            throw e;
+        }
 
-        return text.getBytes();
+        return buf;
     }
 }
@@ -110,6 +110,8 @@ public enum ContentType {
 
     MICROSOFT_ACCESS("application/x-msaccess", "access", false, "mdb"),
 
+    EVENT_STREAM("text/event-stream", "event-stream", true),
+
     EMPTY("application/octet-stream", "other", true),;
 
     private final static Map<String, ContentType> mimeTypeMap = new HashMap<>();
@@ -0,0 +1,259 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-Sent Events sink of one client connection, obtained by {@link Response#eventStream()} or by declaring an
+ * action parameter of this type
+ *
+ * Sending never blocks. While the channel is not writable the client is regarded as a slow consumer, events are
+ * dropped and the connection is closed once it stays unwritable longer than maxStall. Sink could be used from any
+ * thread.
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public class EventSink implements Closeable {
+
+    public static final long DEFAULT_MAX_STALL_MILLIS = 30000L;
+
+    private final ChannelHandlerContext channelCxt;
+
+    private final boolean keepAlive;
+
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long maxStallMillis = DEFAULT_MAX_STALL_MILLIS;
+
+    /**
+     * Time when channel was found not writable, 0 while it is writable
+     */
+    private volatile long unwritableSince = 0L;
+
+    EventSink(ChannelHandlerContext channelCxt, boolean keepAlive, ChannelFuture headFuture) {
+
+        this.channelCxt = channelCxt;
+        this.keepAlive = keepAlive;
+
+        channelCxt.flush();
+        headFuture.addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        channelCxt.channel().closeFuture().addListener(future -> markClosed());
+    }
+
+    /**
+     * Close connection when client has not been accepting data for the specified time
+     *
+     * @param millis max stall time in milliseconds
+     * @return EventSink self
+     */
+    public EventSink maxStall(long millis) {
+
+        this.maxStallMillis = millis;
+
+        return this;
+    }
+
+    /**
+     * Register callback which runs once when the sink is closed by server or by client
+     *
+     * @param listener callback
+     * @return EventSink self
+     */
+    public EventSink onClose(Runnable listener) {
+
+        closeListeners.add(listener);
+
+        if (closed.get() && closeListeners.remove(listener)) {
+
+            listener.run();
+        }
+
+        return this;
+    }
+
+    public boolean isClosed() {
+
+        return closed.get();
+    }
+
+    /**
+     * Count of events dropped because client was not accepting data
+     *
+     * @return dropped events
+     */
+    public long dropped() {
+
+        return dropped.sum();
+    }
+
+    public ByteBufAllocator alloc() {
+
+        return channelCxt.alloc();
+    }
+
+    public boolean send(String data) {
+
+        return send(ServerSentEvent.of(data));
+    }
+
+    public boolean send(String event, String data) {
+
+        return send(ServerSentEvent.of(event, data));
+    }
+
+    /**
+     * Send one event
+     *
+     * @param event event to send
+     * @return true if event is written, false if sink is closed or event is dropped for a slow client
+     */
+    public boolean send(ServerSentEvent event) {
+
+        if (isClosed()) {
+
+            return false;
+        }
+
+        return write(event.encode(channelCxt.alloc()));
+    }
+
+    /**
+     * Send a comment line, e.g as heartbeat to keep proxies from closing an idle connection
+     *
+     * @param comment comment text
+     * @return true if comment is written
+     */
+    public boolean comment(String comment) {
+
+        if (isClosed()) {
+
+            return false;
+        }
+
+        return write(ServerSentEvent.encodeComment(channelCxt.alloc(), comment));
+    }
+
+    /**
+     * Write an encoded event, the sink takes ownership of the buffer, shared buffers should be passed as retained
+     * duplicates
+     *
+     * @param encoded encoded event
+     * @return true if event is written
+     */
+    boolean write(ByteBuf encoded) {
+
+        if (isClosed()) {
+
+            encoded.release();
+            return false;
+        }
+
+        if (!channelCxt.channel().isWritable()) {
+
+            encoded.release();
+            dropped.increment();
+
+            long now = System.currentTimeMillis();
+
+            if (unwritableSince == 0L) {
+
+                unwritableSince = now;
+            } else if (now - unwritableSince > maxStallMillis) {
+
+                log.debug("Event stream client {} stalled for {}ms, close it", channelCxt.channel().remoteAddress(), now - unwritableSince);
+                channelCxt.close();
+            }
+
+            return false;
+        }
+
+        unwritableSince = 0L;
+        channelCxt.writeAndFlush(new DefaultHttpContent(encoded)).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+
+        return true;
+    }
+
+    /**
+     * End the event stream, client will reconnect unless it closes its EventSource
+     */
+    @Override
+    public void close() {
+
+        if (!markClosed()) {
+
+            return;
+        }
+
+        if (keepAlive) {
+
+            channelCxt.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        } else {
+
+            channelCxt.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    private boolean markClosed() {
+
+        if (!closed.compareAndSet(false, true)) {
+
+            return false;
+        }
+
+        for (Runnable listener : closeListeners) {
+
+            try {
+
+                listener.run();
+            } catch (RuntimeException e) {
+
+                log.error("Event sink close listener failed", e);
+            }
+        }
+
+        closeListeners.clear();
+
+        return true;
+    }
+}
@@ -25,11 +25,12 @@ package com.fedepot.mvc.http;
 
 import com.fedepot.ioc.annotation.IocIgnore;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Session object implement
+ * Session object implement, changes are tracked and stored once at the end of request
  *
  * @author Touchumind
  * @since 0.0.1
@@ -45,7 +46,12 @@ public class HttpSession implements Session {
 
     private boolean isFirstTime = false;
 
-    private Map<String, Object> attributes = new HashMap<>();
+    private Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    /**
+     * A new session is not stored yet, a session read from store is clean
+     */
+    private transient volatile boolean dirty = true;
 
     public HttpSession(String id, long createAt, long expireAt) {
 
@@ -76,7 +82,7 @@ public class HttpSession implements Session {
     @Override
     public Map<String, Object> attributes() {
 
-        return attributes;
+        return Collections.unmodifiableMap(attributes);
     }
 
     @Override
@@ -95,26 +101,40 @@ public class HttpSession implements Session {
     @Override
     public void addAttribute(String name, Object value) {
 
-        this.attributes.put(name, value);
-        this.update();
+        if (value == null) {
+
+            this.attributes.remove(name);
+        } else {
+
+            this.attributes.put(name, value);
+        }
+
+        this.dirty = true;
     }
 
     @Override
     public void removeAttribute(String name) {
 
         this.attributes.remove(name);
-        this.update();
+        this.dirty = true;
     }
 
     @Override
     public void clearAttributes() {
 
         this.attributes.clear();
-        this.update();
+        this.dirty = true;
     }
 
-    private void update() {
+    @Override
+    public boolean isDirty() {
+
+        return dirty;
+    }
+
+    @Override
+    public void markClean() {
 
-        HttpContext.app().getSessionManager().add(this);
+        this.dirty = false;
     }
 }
@@ -25,9 +25,11 @@ package com.fedepot.mvc.http;
 
 import com.fedepot.exception.NotImplementException;
 import com.fedepot.mvc.route.RouteManager;
+import com.fedepot.mvc.route.RouteMatch;
 import com.fedepot.mvc.route.Router;
 import com.fedepot.mvc.route.PathParameter;
 import com.fedepot.server.SessionHandler;
+import com.fedepot.server.StreamingHttpRequest;
 import com.fedepot.util.HttpKit;
 import com.fedepot.util.MimeKit;
 import com.fedepot.util.UrlKit;
@@ -46,6 +48,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLConnection;
 import java.nio.file.Files;
 import java.util.*;
@@ -65,6 +68,8 @@ public class Request {
 
     private static final HttpDataFactory HTTP_DATA_FACTORY = new DefaultHttpDataFactory(DefaultHttpDataFactory.MINSIZE);
 
+    private static final Pattern HOST_PATTERN = Pattern.compile("^([^:]+)(:(\\d+))?$");
+
     private ChannelHandlerContext channelCxt;
 
     private FullHttpRequest fullHttpRequest;
@@ -100,16 +105,70 @@ public class Request {
     @Getter
     private ByteBuf rawBody;
 
-    @Getter
-    private String rawCookie;
+    /**
+     * Body stream of a route marked with {@link com.fedepot.mvc.annotation.StreamingBody}, null for aggregated requests
+     */
+    private InputStream bodyStream;
+
+    private boolean released = false;
 
     /**
-     * Parsed cookie key-value pairs, default to null, use cookie-parser middleware to set it
+     * Request body as it arrives, only available for routes with a {@link com.fedepot.mvc.annotation.StreamingBody} parameter
+     *
+     * @return body stream, null for aggregated requests
+     */
+    public InputStream bodyStream() {
+
+        return bodyStream;
+    }
+
+    /**
+     * Release resources held by the request when it has been handled, the raw body is no longer readable after that
+     */
+    public void release() {
+
+        if (released) {
+
+            return;
+        }
+
+        released = true;
+        rawBody.release();
+        fullHttpRequest.release();
+
+        if (bodyStream != null) {
+
+            try {
+
+                bodyStream.close();
+            } catch (IOException e) {
+
+                log.error("Close request body stream failed", e);
+            }
+        }
+    }
+
+    public String getRawCookie() {
+
+        return fullHttpRequest.headers().get(COOKIE);
+    }
+
+    /**
+     * Parsed cookie key-value pairs, parsed from cookie header on first access
      */
-    @Getter
     @Setter
     private Map<String, String> cookies;
 
+    public Map<String, String> getCookies() {
+
+        if (cookies == null) {
+
+            cookies = HttpKit.parseCookies(getRawCookie());
+        }
+
+        return cookies;
+    }
+
     /**
      * Get specified cookie value
      *
@@ -118,12 +177,7 @@ public class Request {
      */
     public Optional<String> cookie(String name) {
 
-        if (cookies == null) {
-
-            return  Optional.empty();
-        }
-
-        return Optional.ofNullable(cookies.get(name));
+        return Optional.ofNullable(getCookies().get(name));
     }
 
     /**
@@ -133,17 +187,33 @@ public class Request {
      */
     public void cookie(Cookie cookie) {
 
-        if (cookies == null) {
+        getCookies().put(cookie.getName(), cookie.getValue());
+    }
+
+    /**
+     * Session of current request, loaded or created on first access
+     */
+    private Session session;
+
+    public Session session() {
 
-            cookies = new HashMap<>();
+        if (session == null) {
+
+            session = sessionHandler.getSession(this);
         }
 
-        cookies.put(cookie.getName(), cookie.getValue());
+        return session;
     }
 
-    public Session session() {
+    /**
+     * Store session if it has been accessed and changed, called by server when request is handled
+     */
+    public void commitSession() {
+
+        if (session != null) {
 
-        return sessionHandler.getSession(this);
+            sessionHandler.commit(session);
+        }
     }
 
     // TODO basic auth infos in header
@@ -154,26 +224,51 @@ public class Request {
     /**
      * Hostname from Host HTTP header, eg. Host: "example.com:3000" -> hostname: "example.com"
      */
-    @Getter
     private String hostname;
 
+    public String getHostname() {
+
+        if (hostname == null) {
+
+            String host = getHost();
+            Matcher matcher = HOST_PATTERN.matcher(host != null ? host : "");
+
+            hostname = matcher.matches() ? matcher.group(1) : "";
+        }
+
+        return hostname;
+    }
+
     /**
      * HTTP Host header
      */
-    @Getter
-    private String host;
+    public String getHost() {
+
+        return fullHttpRequest.headers().get(HOST);
+    }
 
     /**
      * remote IP address of the request
      */
-    @Getter
     private String ip;
 
+    public String getIp() {
+
+        if (ip == null) {
+
+            ip = HttpKit.getIP(fullHttpRequest.headers());
+        }
+
+        return ip;
+    }
+
     /**
      * user agent of request
      */
-    @Getter
-    private String ua;
+    public String getUa() {
+
+        return fullHttpRequest.headers().get(USER_AGENT);
+    }
 
     /**
      * http or https
@@ -211,10 +306,17 @@ public class Request {
     /**
      * Request origin header
      */
-    @Getter
-    private String origin;
+    public String getOrigin() {
+
+        return fullHttpRequest.headers().get(ORIGIN);
+    }
 
 
+    /**
+     * Route match is looked up on first access
+     */
+    private boolean routeResolved = false;
+
     /**
      * Request match a controller action
      */
@@ -222,6 +324,8 @@ public class Request {
 
     public boolean matchRoute() {
 
+        resolveRoute();
+
         return matchRoute;
     }
 
@@ -232,29 +336,57 @@ public class Request {
 
     public Router router() {
 
+        resolveRoute();
+
         return router;
     }
 
     /**
      * url match route properties, e.g you have a route /book/:name, the `name` would be one url parameter
      */
-    @Getter
     private PathParameter[] pathParams;
 
+    public PathParameter[] getPathParams() {
+
+        resolveRoute();
+
+        return pathParams;
+    }
+
+
+    /**
+     * Body is decoded on first access of form params or files
+     */
+    private boolean bodyDecoded = false;
 
     /**
      * data items from form body
      */
-    @Getter
     private Map<String, List<String>> formParams;
 
+    public Map<String, List<String>> getFormParams() {
+
+        decodeBody();
+
+        return formParams;
+    }
+
 
     /**
      * Url queries
      */
-    @Getter
     private Map<String, List<String>> queries;
 
+    public Map<String, List<String>> getQueries() {
+
+        if (queries == null) {
+
+            queries = UrlKit.parseQueries(baseUrl);
+        }
+
+        return queries;
+    }
+
 
     /**
      * Form upload files
@@ -263,6 +395,8 @@ public class Request {
 
     public Map<String, FormFile> files() {
 
+        decodeBody();
+
         return files;
     }
 
@@ -274,7 +408,9 @@ public class Request {
      */
     public Optional<FormFile> getFile(@NonNull String name) {
 
-        return Optional.ofNullable(files.get(name));
+        Map<String, FormFile> files = files();
+
+        return Optional.ofNullable(files != null ? files.get(name) : null);
     }
 
     /**
@@ -328,41 +464,15 @@ public class Request {
         this.fullHttpRequest = fullHttpRequest;
 
         HttpHeaders headers = fullHttpRequest.headers();
-        host = headers.get("Host");
-        Matcher matcher = Pattern.compile("^([^:]+)(:(\\d+))?$").matcher(host);
-
-        if (matcher.matches()) {
-
-            hostname = matcher.group(1);
-            // port = matcher.group(3);
-        }
 
         String requestWith = headers.get("X-Requested-With");
         xhr = StringUtils.equals(requestWith, "XMLHttpRequest");
 
-        ip = HttpKit.getIP(headers);
-        ua = headers.get("User-Agent");
-
         method = fullHttpRequest.method().name().toUpperCase();
 
-        String originMethod;
-
-        if (method.equals(HttpMethod.OPTIONS)) {
-
-            originMethod = headers.get(ACCESS_CONTROL_REQUEST_METHOD);
-            if (originMethod == null) {
-
-                originMethod = HttpMethod.POST;
-            }
-        } else {
-
-            originMethod = method;
-        }
-
-        origin = headers.get(ORIGIN);
-
         // netty server do not implement https, use nginx forward request and implement https
-        if (headers.get(X_FORWARDED_PROTO) != null && "https".equals(headers.get(X_FORWARDED_PROTO).toLowerCase())) {
+        String forwardedProto = headers.get(X_FORWARDED_PROTO);
+        if (forwardedProto != null && "https".equals(forwardedProto.toLowerCase())) {
 
             protocol = "https";
         } else {
@@ -372,41 +482,92 @@ public class Request {
 
         secure = StringUtils.equals(protocol, "https");
 
-        rawCookie = fullHttpRequest.headers().get("Cookie");
-
         baseUrl = fullHttpRequest.uri();
 
-        rawBody = fullHttpRequest.content().copy();
+        // no copy, the slice is released with the request in {@link #release()}
+        rawBody = fullHttpRequest.content().retainedSlice();
 
         path = UrlKit.purgeUrlQueries(baseUrl);
 
-        queries = UrlKit.parseQueries(baseUrl);
-
         isStatic = UrlKit.isStaticFile(HttpContext.app().getStatics(), path);
 
+        // body of streaming route is read by the action
+        if (!isStatic && fullHttpRequest instanceof StreamingHttpRequest) {
+
+            bodyStream = ((StreamingHttpRequest) fullHttpRequest).getBody();
+        }
+    }
+
+    /**
+     * Match route with path and method (the requested method for a CORS preflight request), only once for a request
+     */
+    private void resolveRoute() {
+
+        if (routeResolved) {
+
+            return;
+        }
+
+        routeResolved = true;
+
         if (isStatic) {
 
             return;
         }
 
-        // below for non static requests
+        String originMethod = method;
 
-        // for form upload request
-        String contentType = headers.get(CONTENT_TYPE);
-        if (!method.equals(HttpMethod.GET) && (contentType != null) && (contentType.startsWith("application/json") || contentType.startsWith("application/x-www-form-urlencoded") || contentType.startsWith("multipart/form-data"))) {
+        if (method.equals(HttpMethod.OPTIONS)) {
 
-            HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(HTTP_DATA_FACTORY, fullHttpRequest);
-            decoder.getBodyHttpDatas().forEach(this::parseBodyData);
+            originMethod = get(ACCESS_CONTROL_REQUEST_METHOD);
+            if (originMethod == null) {
+
+                originMethod = HttpMethod.POST;
+            }
         }
 
-        Router router = RouteManager.getInstance(HttpContext.app()).findRoute(path, originMethod);
-        if (router != null) {
+        RouteMatch match = RouteManager.getInstance(HttpContext.app()).match(path, originMethod);
+        if (match != null) {
 
             matchRoute = true;
-            this.router = router;
+            this.router = match.getRouter();
 
             if (!method.equals(HttpMethod.OPTIONS)) {
-                pathParams = router.getRouteMatcher().getParams(path);
+                pathParams = match.getParams();
+            }
+        }
+    }
+
+    /**
+     * Decode form or multipart body, only once for a request and before the request is released
+     */
+    private void decodeBody() {
+
+        if (bodyDecoded || released) {
+
+            return;
+        }
+
+        bodyDecoded = true;
+
+        // for form upload request
+        String contentType = get(CONTENT_TYPE);
+        if (isStatic || bodyStream != null || method.equals(HttpMethod.GET) || contentType == null) {
+
+            return;
+        }
+
+        if (contentType.startsWith("application/json") || contentType.startsWith("application/x-www-form-urlencoded") || contentType.startsWith("multipart/form-data")) {
+
+            HttpPostRequestDecoder decoder = new HttpPostRequestDecoder(HTTP_DATA_FACTORY, fullHttpRequest);
+
+            try {
+
+                decoder.getBodyHttpDatas().forEach(this::parseBodyData);
+            } finally {
+
+                // release undecoded chunk and temporary disk files of the decoder
+                decoder.destroy();
             }
         }
     }
@@ -468,7 +629,7 @@ public class Request {
 
 
     /**
-     * Parse data from http request body
+     * Parse data from http request body, data is released by the decoder when it is destroyed
      *
      * @param data {@link InterfaceHttpData}
      */
@@ -484,7 +645,9 @@ public class Request {
 
                         this.formParams = new HashMap<>();
                     }
-                    this.formParams.put(attribute.getName(), Arrays.asList(attribute.getValue()));
+
+                    // a repeated name keeps all of its values in order
+                    this.formParams.computeIfAbsent(attribute.getName(), name -> new ArrayList<>(1)).add(attribute.getValue());
                     break;
                 case FileUpload:
                     FileUpload fileUpload = (FileUpload)data;
@@ -496,9 +659,6 @@ public class Request {
         } catch (IOException e) {
 
             log.error("Parse request form data with error", e);
-        } finally {
-
-            data.release();
         }
     }
 
@@ -524,7 +684,8 @@ public class Request {
 
             if (fileUpload.isInMemory()) {
 
-                formFile.setData(fileUpload.getByteBuf().array());
+                // content buffer may be direct or composite which has no backing array
+                formFile.setData(fileUpload.get());
             } else {
 
                 formFile.setData(Files.readAllBytes(fileUpload.getFile().toPath()));
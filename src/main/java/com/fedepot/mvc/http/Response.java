@@ -26,21 +26,28 @@ package com.fedepot.mvc.http;
 import com.fedepot.Razor;
 import com.fedepot.exception.NotImplementException;
 import com.fedepot.mvc.Constants;
-import com.fedepot.mvc.json.GsonFactory;
 import com.fedepot.server.ProgressiveFutureListener;
 import com.fedepot.util.DateKit;
 import com.fedepot.util.MimeKit;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.handler.stream.ChunkedStream;
 import io.netty.util.AsciiString;
 import io.netty.util.CharsetUtil;
-import com.google.gson.Gson;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.util.*;
 
@@ -55,6 +62,7 @@ import static com.fedepot.mvc.Constants.*;
  * @author Touchumind
  * @since 0.0.1
  */
+@Slf4j
 public class Response {
 
     private ChannelHandlerContext channelCxt;
@@ -161,6 +169,16 @@ public class Response {
         return new Response(cxt, null);
     }
 
+    /**
+     * Buffer allocator of the channel, pooled by default
+     *
+     * @return ByteBufAllocator
+     */
+    public ByteBufAllocator alloc() {
+
+        return channelCxt.alloc();
+    }
+
     /**
      * Set response header
      *
@@ -419,10 +437,7 @@ public class Response {
 
         header(CONTENT_TYPE, ContentType.JSON.getMimeTypeWithCharset());
 
-        Gson gson = GsonFactory.getGson();
-        String text = gson.toJson(data);
-
-        end(text);
+        end(ActionResult.write(data, alloc()));
     }
 
     /**
@@ -508,14 +523,126 @@ public class Response {
     }
 
     /**
-     * Send multi-type data
+     * Send multi-type data, text and binary data are sent as is, streams and chunked inputs are sent as chunked
+     * content, files are sent with zero copy, other objects are serialized as json
      *
      * @param data unknown type data
      */
     public void send(Object data) {
 
-        // TODO send multi-type data
-        throw new NotImplementException();
+        if (data == null) {
+
+            end();
+        } else if (data instanceof CharSequence) {
+
+            end(data.toString());
+        } else if (data instanceof byte[]) {
+
+            end((byte[]) data);
+        } else if (data instanceof ByteBuf) {
+
+            end((ByteBuf) data);
+        } else if (data instanceof File) {
+
+            sendFile((File) data);
+        } else if (data instanceof InputStream) {
+
+            sendChunked(new ChunkedStream((InputStream) data));
+        } else if (data instanceof ChunkedInput) {
+
+            @SuppressWarnings("unchecked")
+            ChunkedInput<ByteBuf> input = (ChunkedInput<ByteBuf>) data;
+            sendChunked(input);
+        } else {
+
+            json(data);
+        }
+    }
+
+    /**
+     * Start a chunked response, headers are sent immediately and body is written with the returned stream, which must
+     * be closed to finish the response
+     *
+     * @return ResponseStream
+     */
+    public ResponseStream stream() {
+
+        return stream(ResponseStream.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Start a chunked response, headers are sent immediately and body is written with the returned stream, which must
+     * be closed to finish the response
+     *
+     * @param chunkSize bytes collected before a chunk is sent
+     * @return ResponseStream
+     */
+    public ResponseStream stream(int chunkSize) {
+
+        return new ResponseStream(channelCxt, keepAlive, sendChunkedHead(), chunkSize);
+    }
+
+    /**
+     * Start a Server-Sent Events response, the connection is kept open until the sink is closed
+     *
+     * @return EventSink
+     */
+    public EventSink eventStream() {
+
+        header(CONTENT_TYPE, ContentType.EVENT_STREAM.getMimeTypeWithCharset());
+        header(CACHE_CONTROL, "no-cache");
+        // compressor holds back chunks of a response it encodes, events must reach client when they are sent
+        header(CONTENT_ENCODING, "identity");
+
+        return new EventSink(channelCxt, keepAlive, sendChunkedHead());
+    }
+
+    /**
+     * Write status line and headers of a chunked response, body is written by the caller afterwards
+     *
+     * @return future of the header write
+     */
+    private ChannelFuture sendChunkedHead() {
+
+        if (flushed()) {
+
+            throw new IllegalStateException("Response has been sent");
+        }
+
+        setDate();
+        setPowerBy();
+        setResponseTime();
+        header(TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+
+        if (keepAlive) {
+
+            header(CONNECTION, "keep-alive");
+        }
+
+        setHttpResponse(new DefaultHttpResponse(HTTP_1_1, getStatus(), true));
+        httpResponse.headers().remove(CONTENT_LENGTH);
+
+        ChannelFuture future = channelCxt.write(httpResponse);
+
+        flush();
+
+        return future;
+    }
+
+    private void sendChunked(ChunkedInput<ByteBuf> input) {
+
+        ResponseStream stream = stream();
+
+        try {
+
+            stream.write(input);
+        } catch (IOException e) {
+
+            log.debug("Send chunked response failed", e);
+        } finally {
+
+            stream.close();
+        }
     }
 
     /**
@@ -650,6 +777,60 @@ public class Response {
         flush();
     }
 
+    /**
+     * Send file, mime type is detected from file name if Content-Type is not set
+     *
+     * @param file file to send
+     */
+    public void sendFile(File file) {
+
+        if (get(CONTENT_TYPE) == null) {
+
+            header(CONTENT_TYPE, MimeKit.detailOf(file.getName()).getMimeTypeWithCharset());
+        }
+
+        RandomAccessFile raf = null;
+        long length;
+
+        try {
+
+            raf = new RandomAccessFile(file, "r");
+            length = raf.length();
+        } catch (IOException e) {
+
+            log.debug("Send file {} failed", file.getPath(), e);
+            closeFile(raf);
+            notFound();
+            return;
+        }
+
+        try {
+
+            // file is closed by the progressive listener once it has been written
+            sendFile(raf, length);
+        } catch (RuntimeException e) {
+
+            closeFile(raf);
+            throw e;
+        }
+    }
+
+    private static void closeFile(RandomAccessFile raf) {
+
+        if (raf == null) {
+
+            return;
+        }
+
+        try {
+
+            raf.close();
+        } catch (IOException e) {
+
+            log.error("Close randomAccessFile with error", e);
+        }
+    }
+
     /**
      * Send file download response
      */
@@ -658,6 +839,17 @@ public class Response {
         throw new NotImplementException();
     }
 
+    /**
+     * Send file as an attachment download response
+     *
+     * @param file file to send
+     */
+    public void download(File file) {
+
+        attachment(file.getName());
+        sendFile(file);
+    }
+
 
     /**
      * Write and flush channel context
@@ -700,7 +892,7 @@ public class Response {
      */
     public void end() {
 
-        end(Unpooled.EMPTY_BUFFER.toString(CharsetUtil.UTF_8));
+        end(Unpooled.EMPTY_BUFFER);
     }
 
     /**
@@ -711,18 +903,7 @@ public class Response {
      */
     public void end(String data, String[]... options) {
 
-        header(CONTENT_LENGTH, Integer.toString(data.length()));
-
-        if (httpResponse == null) {
-
-            setHttpResponse(new DefaultFullHttpResponse(
-                    HTTP_1_1,
-                    getStatus(),
-                    Unpooled.copiedBuffer(data, CharsetUtil.UTF_8)
-            ));
-        }
-
-        writeFlush(!keepAlive);
+        end(ByteBufUtil.writeUtf8(alloc(), data));
     }
 
     /**
@@ -733,13 +914,25 @@ public class Response {
      */
     public void end(byte[] data, String[]... options) {
 
-        setHttpResponse(new DefaultFullHttpResponse(
-                HTTP_1_1,
-                getStatus(),
-                Unpooled.copiedBuffer(data)
-        ));
+        end(Unpooled.wrappedBuffer(data));
+    }
+
+    /**
+     * End the response immediately, the response takes ownership of the buffer
+     *
+     * @param data content to send
+     */
+    public void end(ByteBuf data) {
+
+        if (flushed()) {
+
+            data.release();
+            return;
+        }
+
+        setHttpResponse(new DefaultFullHttpResponse(HTTP_1_1, getStatus(), data));
 
-        header(CONTENT_LENGTH, Integer.toString(data.length));
+        header(CONTENT_LENGTH, Integer.toString(data.readableBytes()));
 
         writeFlush(!keepAlive);
     }
@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.ClosedChannelException;
+
+/**
+ * Chunked response body, obtained by {@link Response#stream()}, data is sent as `Transfer-Encoding: chunked` content
+ * so large payloads could be produced with constant memory
+ *
+ * Bytes are collected into chunks of chunkSize and every full chunk is flushed to client. When the channel is not
+ * writable, writes from a worker thread block until the previous chunk has been sent, writes on the event loop never
+ * block. The stream must be closed to finish the response, it is not thread-safe.
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class ResponseStream extends OutputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final ChannelHandlerContext channelCxt;
+
+    private final boolean keepAlive;
+
+    private final int chunkSize;
+
+    /**
+     * Bytes not yet sent as a chunk
+     */
+    private ByteBuf pending;
+
+    /**
+     * Future of the latest write, writes complete in order
+     */
+    private ChannelFuture lastFuture;
+
+    private boolean closed = false;
+
+    ResponseStream(ChannelHandlerContext channelCxt, boolean keepAlive, ChannelFuture headFuture, int chunkSize) {
+
+        this.channelCxt = channelCxt;
+        this.keepAlive = keepAlive;
+        this.lastFuture = headFuture;
+        this.chunkSize = chunkSize;
+    }
+
+    public ByteBufAllocator alloc() {
+
+        return channelCxt.alloc();
+    }
+
+    /**
+     * Whether the client connection accepts more data without queueing
+     *
+     * @return boolean
+     */
+    public boolean isWritable() {
+
+        return channelCxt.channel().isWritable();
+    }
+
+    public boolean isClosed() {
+
+        return closed || !channelCxt.channel().isActive();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+
+        ensureOpen();
+        pendingBuffer().writeByte(b);
+
+        if (pending.readableBytes() >= chunkSize) {
+
+            sendPending(true);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+
+        ensureOpen();
+
+        while (length > 0) {
+
+            ByteBuf buf = pendingBuffer();
+            int count = Math.min(length, chunkSize - buf.readableBytes());
+
+            buf.writeBytes(bytes, offset, count);
+            offset += count;
+            length -= count;
+
+            if (buf.readableBytes() >= chunkSize) {
+
+                sendPending(true);
+            }
+        }
+    }
+
+    /**
+     * Write text as UTF-8
+     *
+     * @param text text to write
+     * @return ResponseStream self
+     * @throws IOException connection closed or interrupted while waiting for writability
+     */
+    public ResponseStream write(CharSequence text) throws IOException {
+
+        ensureOpen();
+        ByteBufUtil.writeUtf8(pendingBuffer(), text);
+
+        if (pending.readableBytes() >= chunkSize) {
+
+            sendPending(true);
+        }
+
+        return this;
+    }
+
+    /**
+     * Send buffer as one chunk, the stream takes ownership of the buffer
+     *
+     * @param buf content
+     * @return ResponseStream self
+     * @throws IOException connection closed or interrupted while waiting for writability
+     */
+    public ResponseStream write(ByteBuf buf) throws IOException {
+
+        if (isClosed()) {
+
+            buf.release();
+            throw new ClosedChannelException();
+        }
+
+        sendPending(false);
+        send(new DefaultHttpContent(buf), true);
+
+        return this;
+    }
+
+    /**
+     * Send chunks produced by input, channel writability is handled by the ChunkedWriteHandler in pipeline and input is
+     * closed when it ends
+     *
+     * @param input chunk source, e.g {@link io.netty.handler.stream.ChunkedStream}, {@link io.netty.handler.stream.ChunkedNioFile}
+     * @return future completed when all chunks of input have been sent
+     * @throws IOException connection closed or interrupted while waiting for writability
+     */
+    public ChannelFuture write(ChunkedInput<ByteBuf> input) throws IOException {
+
+        ensureOpen();
+        sendPending(false);
+
+        lastFuture = channelCxt.writeAndFlush(new ContentChunkedInput(input));
+
+        return lastFuture;
+    }
+
+    /**
+     * Send collected bytes as a chunk without waiting for chunkSize
+     *
+     * @throws IOException connection closed or interrupted while waiting for writability
+     */
+    @Override
+    public void flush() throws IOException {
+
+        ensureOpen();
+        sendPending(true);
+    }
+
+    /**
+     * Send collected bytes and the last chunk, the connection is closed if it is not keep-alive
+     */
+    @Override
+    public void close() {
+
+        if (closed) {
+
+            return;
+        }
+
+        closed = true;
+
+        if (pending != null && pending.isReadable()) {
+
+            channelCxt.write(new DefaultHttpContent(pending));
+        } else if (pending != null) {
+
+            pending.release();
+        }
+
+        pending = null;
+        lastFuture = channelCxt.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+
+        if (!keepAlive) {
+
+            lastFuture.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Future of the latest write, completed with last chunk after the stream is closed
+     *
+     * @return ChannelFuture
+     */
+    public ChannelFuture lastFuture() {
+
+        return lastFuture;
+    }
+
+    private ByteBuf pendingBuffer() {
+
+        if (pending == null) {
+
+            pending = channelCxt.alloc().buffer(chunkSize);
+        }
+
+        return pending;
+    }
+
+    private void sendPending(boolean flush) throws IOException {
+
+        if (pending == null || !pending.isReadable()) {
+
+            return;
+        }
+
+        HttpContent chunk = new DefaultHttpContent(pending);
+        pending = null;
+
+        send(chunk, flush);
+    }
+
+    private void send(HttpContent chunk, boolean flush) throws IOException {
+
+        awaitWritable();
+
+        lastFuture = flush ? channelCxt.writeAndFlush(chunk) : channelCxt.write(chunk);
+    }
+
+    /**
+     * Block a worker thread until the previous write has been sent when outbound buffer is over its high water mark
+     */
+    private void awaitWritable() throws IOException {
+
+        if (channelCxt.channel().isWritable() || channelCxt.executor().inEventLoop()) {
+
+            return;
+        }
+
+        try {
+
+            lastFuture.await();
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for channel writability");
+        }
+
+        if (!lastFuture.isSuccess()) {
+
+            closed = true;
+            throw new IOException("Write response chunk failed", lastFuture.cause());
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+
+        if (isClosed()) {
+
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * Wrap chunks of input as http contents, the last content is sent when the stream is closed
+     */
+    private static class ContentChunkedInput implements ChunkedInput<HttpContent> {
+
+        private final ChunkedInput<ByteBuf> input;
+
+        ContentChunkedInput(ChunkedInput<ByteBuf> input) {
+
+            this.input = input;
+        }
+
+        @Override
+        public boolean isEndOfInput() throws Exception {
+
+            return input.isEndOfInput();
+        }
+
+        @Override
+        public void close() throws Exception {
+
+            input.close();
+        }
+
+        @Override
+        @Deprecated
+        public HttpContent readChunk(ChannelHandlerContext ctx) throws Exception {
+
+            return readChunk(ctx.alloc());
+        }
+
+        @Override
+        public HttpContent readChunk(ByteBufAllocator allocator) throws Exception {
+
+            ByteBuf buf = input.readChunk(allocator);
+
+            return buf == null ? null : new DefaultHttpContent(buf);
+        }
+
+        @Override
+        public long length() {
+
+            return input.length();
+        }
+
+        @Override
+        public long progress() {
+
+            return input.progress();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import lombok.*;
+
+/**
+ * One event of a `text/event-stream` response
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Getter
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ServerSentEvent {
+
+    private String id;
+
+    /**
+     * Event name, client receives it with a `message` listener when it is null
+     */
+    private String event;
+
+    private String data;
+
+    /**
+     * Reconnection time in milliseconds, null to keep client default
+     */
+    private Long retry;
+
+    public static ServerSentEvent of(String data) {
+
+        return builder().data(data).build();
+    }
+
+    public static ServerSentEvent of(String event, String data) {
+
+        return builder().event(event).data(data).build();
+    }
+
+    /**
+     * Encode as UTF-8 event stream format, multi-line data is split into several data fields
+     *
+     * @param allocator buffer allocator
+     * @return encoded event
+     */
+    ByteBuf encode(ByteBufAllocator allocator) {
+
+        ByteBuf buf = allocator.buffer(data != null ? data.length() + 32 : 32);
+
+        if (id != null) {
+
+            writeField(buf, "id", singleLine(id));
+        }
+
+        if (event != null) {
+
+            writeField(buf, "event", singleLine(event));
+        }
+
+        if (retry != null) {
+
+            writeField(buf, "retry", retry.toString());
+        }
+
+        if (data != null) {
+
+            int start = 0;
+
+            for (int i = 0; i < data.length(); i++) {
+
+                char c = data.charAt(i);
+
+                if (c == '\n' || c == '\r') {
+
+                    writeField(buf, "data", data.subSequence(start, i));
+
+                    if (c == '\r' && i + 1 < data.length() && data.charAt(i + 1) == '\n') {
+
+                        i++;
+                    }
+
+                    start = i + 1;
+                }
+            }
+
+            writeField(buf, "data", data.subSequence(start, data.length()));
+        }
+
+        buf.writeByte('\n');
+
+        return buf;
+    }
+
+    /**
+     * Encode a comment line, clients ignore it, useful as a heartbeat
+     *
+     * @param allocator buffer allocator
+     * @param comment comment text
+     * @return encoded comment
+     */
+    static ByteBuf encodeComment(ByteBufAllocator allocator, String comment) {
+
+        ByteBuf buf = allocator.buffer(comment.length() + 4);
+
+        writeField(buf, "", singleLine(comment));
+        buf.writeByte('\n');
+
+        return buf;
+    }
+
+    private static void writeField(ByteBuf buf, String name, CharSequence value) {
+
+        ByteBufUtil.writeAscii(buf, name);
+        buf.writeByte(':');
+        buf.writeByte(' ');
+        ByteBufUtil.writeUtf8(buf, value);
+        buf.writeByte('\n');
+    }
+
+    private static String singleLine(String value) {
+
+        return value.replace('\r', ' ').replace('\n', ' ');
+    }
+}
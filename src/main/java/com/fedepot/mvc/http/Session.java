@@ -51,4 +51,21 @@ public interface Session extends Serializable {
     void clearAttributes();
 
     <T> T attribute(String name);
+
+    /**
+     * Whether session has changes not stored yet
+     *
+     * @return true if session should be stored
+     */
+    default boolean isDirty() {
+
+        return false;
+    }
+
+    /**
+     * Mark session as stored
+     */
+    default void markClean() {
+
+    }
 }
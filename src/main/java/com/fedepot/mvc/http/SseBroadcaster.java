@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Broadcast Server-Sent Events to many subscribers, each event is encoded once and the same buffer is shared by all
+ * connections. Slow subscribers only lose their own events, see {@link EventSink}, closed subscribers are removed
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class SseBroadcaster {
+
+    private final Set<EventSink> sinks = ConcurrentHashMap.newKeySet();
+
+    private final ByteBufAllocator allocator;
+
+    public SseBroadcaster() {
+
+        this(ByteBufAllocator.DEFAULT);
+    }
+
+    public SseBroadcaster(ByteBufAllocator allocator) {
+
+        this.allocator = allocator;
+    }
+
+    /**
+     * Add a subscriber, it is removed when closed
+     *
+     * @param sink event sink of a client
+     * @return the sink
+     */
+    public EventSink subscribe(EventSink sink) {
+
+        sinks.add(sink);
+        sink.onClose(() -> sinks.remove(sink));
+
+        return sink;
+    }
+
+    public void unsubscribe(EventSink sink) {
+
+        sinks.remove(sink);
+    }
+
+    public int size() {
+
+        return sinks.size();
+    }
+
+    public int broadcast(String data) {
+
+        return broadcast(ServerSentEvent.of(data));
+    }
+
+    public int broadcast(String event, String data) {
+
+        return broadcast(ServerSentEvent.of(event, data));
+    }
+
+    /**
+     * Send event to all subscribers
+     *
+     * @param event event to send
+     * @return count of subscribers the event is written to
+     */
+    public int broadcast(ServerSentEvent event) {
+
+        if (sinks.isEmpty()) {
+
+            return 0;
+        }
+
+        ByteBuf encoded = event.encode(allocator);
+        int delivered = 0;
+
+        try {
+
+            for (EventSink sink : sinks) {
+
+                if (sink.write(encoded.retainedDuplicate())) {
+
+                    delivered++;
+                }
+            }
+        } finally {
+
+            encoded.release();
+        }
+
+        return delivered;
+    }
+
+    /**
+     * Close all subscribers
+     */
+    public void close() {
+
+        for (EventSink sink : sinks) {
+
+            sink.close();
+        }
+
+        sinks.clear();
+    }
+}
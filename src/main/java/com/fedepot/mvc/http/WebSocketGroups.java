@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.ChannelGroupFuture;
+import io.netty.channel.group.ChannelMatcher;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.concurrent.GlobalEventExecutor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named groups of WebSocket connections, closed connections leave their groups automatically
+ *
+ * A broadcast frame is encoded once and its content is shared by all connections of the group, connections which are
+ * not writable are skipped so one slow client never makes the server queue frames for it.
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class WebSocketGroups {
+
+    private static final ChannelMatcher WRITABLE = Channel::isWritable;
+
+    /**
+     * Always empty, broadcasting to a missing group writes here so the frame is released and a succeeded future returned
+     */
+    private static final ChannelGroup NONE = new DefaultChannelGroup("none", GlobalEventExecutor.INSTANCE);
+
+    private final Map<String, ChannelGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * All upgraded connections
+     */
+    private final ChannelGroup all = new DefaultChannelGroup("*", GlobalEventExecutor.INSTANCE);
+
+    /**
+     * Get or create a named group
+     *
+     * @param name group name
+     * @return ChannelGroup
+     */
+    public ChannelGroup group(String name) {
+
+        return groups.computeIfAbsent(name, key -> new DefaultChannelGroup(key, GlobalEventExecutor.INSTANCE));
+    }
+
+    /**
+     * Remove a group, its connections are kept open
+     *
+     * @param name group name
+     */
+    public void remove(String name) {
+
+        groups.remove(name);
+    }
+
+    public int size(String name) {
+
+        ChannelGroup group = groups.get(name);
+
+        return group != null ? group.size() : 0;
+    }
+
+    /**
+     * Count of all upgraded connections
+     *
+     * @return connections
+     */
+    public int connections() {
+
+        return all.size();
+    }
+
+    public ChannelGroupFuture broadcast(String name, String text) {
+
+        return broadcast(name, new TextWebSocketFrame(text));
+    }
+
+    /**
+     * Broadcast binary message, the buffer is owned by this method
+     *
+     * @param name group name
+     * @param data message data
+     * @return future of all writes
+     */
+    public ChannelGroupFuture broadcast(String name, ByteBuf data) {
+
+        return broadcast(name, new BinaryWebSocketFrame(data));
+    }
+
+    /**
+     * Broadcast frame to writable connections of the group, the frame is owned by this method, a missing group is
+     * not created
+     *
+     * @param name group name
+     * @param frame frame to send
+     * @return future of all writes
+     */
+    public ChannelGroupFuture broadcast(String name, WebSocketFrame frame) {
+
+        ChannelGroup group = groups.get(name);
+
+        return (group != null ? group : NONE).writeAndFlush(frame, WRITABLE);
+    }
+
+    public ChannelGroupFuture broadcastAll(String text) {
+
+        return all.writeAndFlush(new TextWebSocketFrame(text), WRITABLE);
+    }
+
+    /**
+     * Track an upgraded connection
+     *
+     * @param channel connection channel
+     */
+    public void register(Channel channel) {
+
+        all.add(channel);
+    }
+
+    /**
+     * Send going-away close frame to all connections and close them, called when server stops
+     */
+    public void close() {
+
+        all.writeAndFlush(new CloseWebSocketFrame(1001, "Server shutdown")).awaitUninterruptibly(1000);
+        all.close().awaitUninterruptibly(1000);
+        groups.clear();
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One WebSocket connection, it keeps the upgrade request's path, queries and headers
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class WebSocketSession {
+
+    private final Channel channel;
+
+    private final String path;
+
+    private final Map<String, List<String>> queries;
+
+    private final HttpHeaders headers;
+
+    private final WebSocketGroups groups;
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    public WebSocketSession(Channel channel, String path, Map<String, List<String>> queries, HttpHeaders headers, WebSocketGroups groups) {
+
+        this.channel = channel;
+        this.path = path;
+        this.queries = queries;
+        this.headers = headers;
+        this.groups = groups;
+    }
+
+    public String id() {
+
+        return channel.id().asShortText();
+    }
+
+    public String path() {
+
+        return path;
+    }
+
+    public Map<String, List<String>> getQueries() {
+
+        return queries;
+    }
+
+    public String query(String name) {
+
+        List<String> values = queries.get(name);
+
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    /**
+     * Headers of the upgrade request
+     *
+     * @return HttpHeaders
+     */
+    public HttpHeaders getHeaders() {
+
+        return headers;
+    }
+
+    public Channel channel() {
+
+        return channel;
+    }
+
+    public boolean isOpen() {
+
+        return channel.isActive();
+    }
+
+    /**
+     * Whether client is accepting data, a slow client could be skipped rather than queueing more frames
+     *
+     * @return boolean
+     */
+    public boolean isWritable() {
+
+        return channel.isWritable();
+    }
+
+    public Object attr(String key) {
+
+        return attributes.get(key);
+    }
+
+    public WebSocketSession attr(String key, Object value) {
+
+        if (value == null) {
+
+            attributes.remove(key);
+        } else {
+
+            attributes.put(key, value);
+        }
+
+        return this;
+    }
+
+    public ChannelFuture send(String text) {
+
+        return send(new TextWebSocketFrame(text));
+    }
+
+    /**
+     * Send binary message, the session takes ownership of the buffer
+     *
+     * @param data message data
+     * @return write future
+     */
+    public ChannelFuture send(ByteBuf data) {
+
+        return send(new BinaryWebSocketFrame(data));
+    }
+
+    public ChannelFuture send(WebSocketFrame frame) {
+
+        return channel.writeAndFlush(frame);
+    }
+
+    /**
+     * Join a named group, connection leaves all groups when it is closed
+     *
+     * @param name group name
+     * @return WebSocketSession self
+     */
+    public WebSocketSession join(String name) {
+
+        groups.group(name).add(channel);
+
+        return this;
+    }
+
+    public WebSocketSession leave(String name) {
+
+        groups.group(name).remove(channel);
+
+        return this;
+    }
+
+    public void close() {
+
+        close(1000, "");
+    }
+
+    /**
+     * Send close frame and close the connection after it is sent
+     *
+     * @param code close status code
+     * @param reason close reason
+     */
+    public void close(int code, String reason) {
+
+        if (channel.isActive()) {
+
+            channel.writeAndFlush(new CloseWebSocketFrame(code, reason)).addListener(future -> channel.close());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Gson based json serializer, the default one
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class GsonSerializer implements JsonSerializer {
+
+    private final Gson gson;
+
+    public GsonSerializer() {
+
+        this(GsonFactory.getGson());
+    }
+
+    public GsonSerializer(Gson gson) {
+
+        this.gson = gson;
+    }
+
+    @Override
+    public String getName() {
+
+        return "Gson";
+    }
+
+    @Override
+    public void write(Object data, OutputStream out) throws IOException {
+
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+        try {
+
+            gson.toJson(data, writer);
+        } catch (JsonParseException e) {
+
+            throw new IOException(e);
+        }
+
+        writer.flush();
+    }
+
+    @Override
+    public <T> T read(InputStream in, Type type) throws IOException {
+
+        try {
+
+            return gson.fromJson(new Utf8StreamReader(in), type);
+        } catch (JsonParseException e) {
+
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void prepare(Type type) {
+
+        gson.getAdapter(TypeToken.get(type));
+    }
+
+    @Override
+    public String toJson(Object data) {
+
+        return gson.toJson(data);
+    }
+}
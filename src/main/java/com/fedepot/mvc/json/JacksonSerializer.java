@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson based json serializer, jackson-databind is an optional dependency which should be added by application
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class JacksonSerializer implements JsonSerializer {
+
+    private final ObjectMapper mapper;
+
+    public JacksonSerializer() {
+
+        this(new ObjectMapper());
+    }
+
+    public JacksonSerializer(ObjectMapper mapper) {
+
+        this.mapper = mapper.copy()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    }
+
+    @Override
+    public String getName() {
+
+        return "Jackson";
+    }
+
+    @Override
+    public void write(Object data, OutputStream out) throws IOException {
+
+        mapper.writeValue(out, data);
+    }
+
+    @Override
+    public <T> T read(InputStream in, Type type) throws IOException {
+
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+
+            if (parser.nextToken() == null) {
+
+                return null;
+            }
+
+            return mapper.readValue(parser, mapper.constructType(type));
+        }
+    }
+
+    @Override
+    public void prepare(Type type) {
+
+        mapper.canDeserialize(mapper.constructType(type));
+    }
+
+    @Override
+    public String toJson(Object data) {
+
+        try {
+
+            return mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Json serializer, serialization streams straight into the output so no intermediate String is built
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public interface JsonSerializer {
+
+    String getName();
+
+    /**
+     * Serialize data as UTF-8 json into output stream
+     *
+     * @param data data to serialize
+     * @param out output stream, it is not closed by serializer
+     * @throws IOException write failed
+     */
+    void write(Object data, OutputStream out) throws IOException;
+
+    /**
+     * Deserialize UTF-8 json from input stream
+     *
+     * @param in input stream, it is not closed by serializer
+     * @param type target type
+     * @param <T> target type
+     * @return deserialized object, null for empty input
+     * @throws IOException read failed or json is malformed
+     */
+    <T> T read(InputStream in, Type type) throws IOException;
+
+    /**
+     * Prepare and cache what the serializer needs for a type before the first request uses it
+     *
+     * @param type type to prepare
+     */
+    default void prepare(Type type) { }
+
+    /**
+     * Serialize data as json string
+     *
+     * @param data data to serialize
+     * @return json string
+     */
+    String toJson(Object data);
+}
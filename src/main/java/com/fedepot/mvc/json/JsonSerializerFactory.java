@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.json;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Json serializer factory
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public class JsonSerializerFactory {
+
+    private static volatile JsonSerializer instance;
+
+    /**
+     * Set json serializer
+     *
+     * @param serializer json serializer instance
+     */
+    public static void setSerializer(JsonSerializer serializer) {
+
+        instance = serializer;
+
+        log.info("Json serializer is set to: {}", serializer.getName());
+    }
+
+    /**
+     * Get current json serializer
+     *
+     * @return selected json serializer instance
+     */
+    public static JsonSerializer getSerializer() {
+
+        if (instance == null) {
+
+            instance = new GsonSerializer();
+        }
+
+        return instance;
+    }
+}
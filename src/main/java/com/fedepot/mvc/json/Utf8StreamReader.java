@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 reader whose byte buffer is sized to the available input, cheaper than {@link java.io.InputStreamReader}
+ * which always allocates 8KB for small request bodies
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+final class Utf8StreamReader extends Reader {
+
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    private static final int MAX_BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+
+    private final ByteBuffer bytes;
+
+    private boolean eof = false;
+
+    Utf8StreamReader(InputStream in) throws IOException {
+
+        this.in = in;
+        this.bytes = ByteBuffer.allocate(Math.max(MIN_BUFFER_SIZE, Math.min(in.available(), MAX_BUFFER_SIZE)));
+        this.bytes.flip();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+
+        if (len == 0) {
+
+            return 0;
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+
+        while (true) {
+
+            CoderResult result = decoder.decode(bytes, out, eof);
+
+            if (result.isError()) {
+
+                result.throwException();
+            }
+
+            if (out.position() > off) {
+
+                return out.position() - off;
+            }
+
+            if (eof) {
+
+                decoder.flush(out);
+
+                return out.position() > off ? out.position() - off : -1;
+            }
+
+            fill();
+        }
+    }
+
+    private void fill() throws IOException {
+
+        bytes.compact();
+        int read = in.read(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+
+        if (read < 0) {
+
+            eof = true;
+        } else {
+
+            bytes.position(bytes.position() + read);
+        }
+
+        bytes.flip();
+    }
+
+    /**
+     * Underlying stream is owned by caller
+     */
+    @Override
+    public void close() { }
+}
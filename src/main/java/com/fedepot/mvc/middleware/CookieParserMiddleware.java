@@ -26,15 +26,10 @@ package com.fedepot.mvc.middleware;
 
 import com.fedepot.mvc.http.Request;
 import com.fedepot.mvc.http.Response;
-
-import io.netty.handler.codec.http.QueryStringDecoder;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import com.fedepot.util.HttpKit;
 
 /**
- * Parse cookie string to map object for request, this middleware was enabled as default to support session
+ * Parse cookie string to map object for request, cookies are also parsed on demand by {@link Request#getCookies()}
  *
  * @author Touchumind
  * @since 0.0.1
@@ -48,22 +43,7 @@ public class CookieParserMiddleware implements Middleware{
 
         if (cookie != null && !cookie.isEmpty()) {
 
-            Map<String, String> cookieMap = new HashMap<>();
-
-            QueryStringDecoder decoder = new QueryStringDecoder(cookie, false);
-            for (String key : decoder.parameters().keySet()) {
-                List<String> values = decoder.parameters().get(key);
-
-                if (values != null && values.get(0) != null) {
-
-                    cookieMap.put(key.trim(), values.get(0));
-                } else {
-
-                    cookieMap.put(key.trim(), "");
-                }
-            }
-
-            req.setCookies(cookieMap);
+            req.setCookies(HttpKit.parseCookies(cookie));
         }
     }
 }
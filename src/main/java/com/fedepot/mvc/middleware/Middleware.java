@@ -60,6 +60,18 @@ public interface Middleware extends Comparable<Middleware> {
 
     public void apply(Request req, Response res);
 
+    /**
+     * Called after the action produced its result and before the result is sent, in the reverse order of {@link #apply(Request, Response)}.
+     * For an asynchronous action it runs on the thread completing the action
+     *
+     * @param req request
+     * @param res response
+     * @param result action result, the completed value for asynchronous actions
+     */
+    default public void completed(Request req, Response res, Object result) {
+
+    }
+
     @Override
     default public int compareTo(Middleware other) {
 
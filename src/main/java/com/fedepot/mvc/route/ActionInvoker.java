@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.route;
+
+import com.fedepot.exception.RazorException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Direct invoker of controller action, bound to the exact action signature when routes are registered
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class ActionInvoker {
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Handle of (controller, args[]) -> result, void action returns null
+     */
+    private final MethodHandle handle;
+
+    ActionInvoker(Method action) throws IllegalAccessException {
+
+        action.setAccessible(true);
+
+        MethodHandle target = MethodHandles.lookup().unreflect(action);
+
+        // static action takes no receiver, the controller argument is ignored
+        if (Modifier.isStatic(action.getModifiers())) {
+
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+
+        handle = target.asSpreader(Object[].class, action.getParameterCount()).asType(INVOKER_TYPE);
+    }
+
+    /**
+     * Invoke action, exceptions thrown by the action are rethrown as is rather than wrapped
+     *
+     * @param controller controller instance
+     * @param args action arguments
+     * @return action result
+     * @throws Exception exception thrown by action
+     */
+    public Object invoke(Object controller, Object[] args) throws Exception {
+
+        try {
+
+            return (Object)handle.invokeExact(controller, args);
+        } catch (Exception | Error e) {
+
+            throw e;
+        } catch (Throwable t) {
+
+            throw new RazorException(t);
+        }
+    }
+}
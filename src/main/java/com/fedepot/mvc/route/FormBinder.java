@@ -0,0 +1,313 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.route;
+
+import com.fedepot.mvc.json.GsonFactory;
+
+import com.google.gson.annotations.SerializedName;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bind form params to a POJO directly, field setters and value converters are prepared once for each target class
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+final class FormBinder {
+
+    private static final Map<Class<?>, FormBinder> binders = new ConcurrentHashMap<>();
+
+    private static final Map<Class<?>, Function<String, Object>> converters = new HashMap<>();
+
+    static {
+
+        converters.put(String.class, value -> value);
+        converters.put(Integer.class, Integer::valueOf);
+        converters.put(int.class, Integer::valueOf);
+        converters.put(Long.class, Long::valueOf);
+        converters.put(long.class, Long::valueOf);
+        converters.put(Double.class, Double::valueOf);
+        converters.put(double.class, Double::valueOf);
+        converters.put(Float.class, Float::valueOf);
+        converters.put(float.class, Float::valueOf);
+        converters.put(Short.class, Short::valueOf);
+        converters.put(short.class, Short::valueOf);
+        converters.put(Byte.class, Byte::valueOf);
+        converters.put(byte.class, Byte::valueOf);
+        converters.put(Boolean.class, Boolean::valueOf);
+        converters.put(boolean.class, Boolean::valueOf);
+        converters.put(Character.class, value -> value.charAt(0));
+        converters.put(char.class, value -> value.charAt(0));
+        converters.put(BigDecimal.class, BigDecimal::new);
+        converters.put(BigInteger.class, BigInteger::new);
+    }
+
+    private final Constructor<?> constructor;
+
+    /**
+     * Field binders by form param name
+     */
+    private final Map<String, FieldBinder> fields = new HashMap<>();
+
+    private FormBinder(Class<?> type, Constructor<?> constructor) {
+
+        this.constructor = constructor;
+
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+
+            for (Field field : clazz.getDeclaredFields()) {
+
+                int modifiers = field.getModifiers();
+
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+
+                    continue;
+                }
+
+                field.setAccessible(true);
+                FieldBinder binder = new FieldBinder(field);
+
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+
+                if (serializedName == null) {
+
+                    fields.putIfAbsent(field.getName(), binder);
+                    continue;
+                }
+
+                fields.putIfAbsent(serializedName.value(), binder);
+
+                for (String alternate : serializedName.alternate()) {
+
+                    fields.putIfAbsent(alternate, binder);
+                }
+            }
+        }
+    }
+
+    /**
+     * Form binder of a class, classes without a no-args constructor are not supported
+     *
+     * @param type target class
+     * @return form binder, null if type has no no-args constructor
+     */
+    static FormBinder of(Class<?> type) {
+
+        FormBinder binder = binders.get(type);
+
+        if (binder != null) {
+
+            return binder;
+        }
+
+        Constructor<?> constructor = defaultConstructor(type);
+
+        if (constructor == null) {
+
+            log.debug("{} has no no-args constructor, its form params are bound through json conversion", type.getName());
+
+            return null;
+        }
+
+        return binders.computeIfAbsent(type, clazz -> new FormBinder(clazz, constructor));
+    }
+
+    /**
+     * Create target instance and bind form params to its fields, params without a matching field are ignored
+     *
+     * @param formParams form params
+     * @return target instance
+     * @throws Exception instantiation failed or param value could not be converted
+     */
+    Object bind(Map<String, List<String>> formParams) throws Exception {
+
+        Object target = constructor.newInstance();
+
+        for (Map.Entry<String, List<String>> entry : formParams.entrySet()) {
+
+            FieldBinder binder = fields.get(entry.getKey());
+
+            if (binder != null && entry.getValue() != null) {
+
+                binder.bind(target, entry.getValue());
+            }
+        }
+
+        return target;
+    }
+
+    private static Constructor<?> defaultConstructor(Class<?> type) {
+
+        try {
+
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+
+            return constructor;
+        } catch (NoSuchMethodException e) {
+
+            return null;
+        }
+    }
+
+    private static Function<String, Object> converterOf(Class<?> type) {
+
+        Function<String, Object> converter = converters.get(type);
+
+        if (converter != null) {
+
+            return converter;
+        }
+
+        if (type.isEnum()) {
+
+            return value -> enumValue(type, value);
+        }
+
+        // rare types still go through gson, once per value
+        return value -> GsonFactory.getGson().fromJson(GsonFactory.getGson().toJsonTree(value), type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object enumValue(Class<?> type, String value) {
+
+        return Enum.valueOf((Class<Enum>)type, value);
+    }
+
+    private static class FieldBinder {
+
+        private static final int SCALAR = 0;
+
+        private static final int ARRAY = 1;
+
+        private static final int LIST = 2;
+
+        private static final int SET = 3;
+
+        /**
+         * Other collection types, all values are converted by gson together
+         */
+        private static final int COLLECTION = 4;
+
+        private final Field field;
+
+        private final int kind;
+
+        /**
+         * Converter of single value or of array/collection elements
+         */
+        private final Function<String, Object> converter;
+
+        FieldBinder(Field field) {
+
+            this.field = field;
+
+            Class<?> fieldType = field.getType();
+
+            if (fieldType.isArray()) {
+
+                kind = ARRAY;
+                converter = converterOf(fieldType.getComponentType());
+            } else if (!Collection.class.isAssignableFrom(fieldType)) {
+
+                kind = SCALAR;
+                converter = converterOf(fieldType);
+            } else if (fieldType.isAssignableFrom(ArrayList.class)) {
+
+                kind = LIST;
+                converter = converterOf(elementType(field.getGenericType()));
+            } else if (fieldType.isAssignableFrom(LinkedHashSet.class)) {
+
+                kind = SET;
+                converter = converterOf(elementType(field.getGenericType()));
+            } else {
+
+                kind = COLLECTION;
+                converter = null;
+            }
+        }
+
+        void bind(Object target, List<String> values) throws IllegalAccessException {
+
+            switch (kind) {
+
+                case SCALAR:
+                    String value = values.isEmpty() ? "" : values.get(0);
+
+                    // empty value leaves a non-string field untouched
+                    if (!value.isEmpty() || field.getType() == String.class) {
+
+                        field.set(target, converter.apply(value));
+                    }
+                    break;
+                case ARRAY:
+                    Object array = Array.newInstance(field.getType().getComponentType(), values.size());
+
+                    for (int i = 0; i < values.size(); i++) {
+
+                        Array.set(array, i, converter.apply(values.get(i)));
+                    }
+
+                    field.set(target, array);
+                    break;
+                case LIST:
+                case SET:
+                    Collection<Object> elements = kind == SET ? new LinkedHashSet<>() : new ArrayList<>(values.size());
+
+                    for (String element : values) {
+
+                        elements.add(converter.apply(element));
+                    }
+
+                    field.set(target, elements);
+                    break;
+                default:
+                    field.set(target, GsonFactory.getGson().fromJson(GsonFactory.getGson().toJsonTree(values), field.getGenericType()));
+            }
+        }
+
+        private static Class<?> elementType(Type genericType) {
+
+            if (genericType instanceof ParameterizedType) {
+
+                Type argument = ((ParameterizedType)genericType).getActualTypeArguments()[0];
+
+                if (argument instanceof Class) {
+
+                    return (Class<?>)argument;
+                }
+            }
+
+            return String.class;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.route;
+
+import com.fedepot.exception.RazorException;
+import com.fedepot.mvc.annotation.FormFiles;
+import com.fedepot.mvc.annotation.FromBody;
+import com.fedepot.mvc.annotation.QueryParam;
+import com.fedepot.mvc.annotation.StreamingBody;
+import com.fedepot.mvc.http.ContentType;
+import com.fedepot.mvc.http.EventSink;
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.Request;
+import com.fedepot.mvc.json.GsonFactory;
+import com.fedepot.mvc.json.JsonSerializerFactory;
+
+import com.google.gson.Gson;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.handler.codec.DecoderException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fedepot.mvc.http.HttpHeaderNames.*;
+
+/**
+ * Build parameter binders for a controller action
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+final class ParameterBinders {
+
+    private static final ParameterBinder NULL_BINDER = request -> null;
+
+    private ParameterBinders() { }
+
+    /**
+     * Prepare binders of all parameters, the leading parameters take values from path, an {@link EventSink} parameter
+     * starts an event stream, others are resolved by their first annotation
+     *
+     * @param action controller action
+     * @param pathParamCount count of parameters in route path
+     * @return binders by parameter index
+     */
+    static ParameterBinder[] of(Method action, int pathParamCount) {
+
+        Parameter[] parameters = action.getParameters();
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
+
+        for (int i = 0; i < parameters.length; i++) {
+
+            if (i < pathParamCount) {
+
+                binders[i] = pathBinder(i, parameters[i].getType());
+                continue;
+            }
+
+            Annotation[] annotations = parameters[i].getAnnotations();
+
+            if (parameters[i].getType() == EventSink.class) {
+
+                // the action keeps the connection for Server-Sent Events
+                binders[i] = request -> HttpContext.response().eventStream();
+            } else if (annotations.length == 0) {
+
+                binders[i] = NULL_BINDER;
+            } else if (annotations[0].annotationType() == FormFiles.class) {
+
+                binders[i] = Request::files;
+            } else if (annotations[0].annotationType() == QueryParam.class) {
+
+                binders[i] = queryBinder(((QueryParam)annotations[0]).value(), parameters[i].getType());
+            } else if (annotations[0].annotationType() == FromBody.class) {
+
+                binders[i] = bodyBinder(parameters[i].getType());
+            } else if (annotations[0].annotationType() == StreamingBody.class) {
+
+                binders[i] = streamBinder(parameters[i].getType());
+            } else {
+
+                binders[i] = NULL_BINDER;
+            }
+        }
+
+        return binders;
+    }
+
+    private static ParameterBinder streamBinder(Class<?> type) {
+
+        if (type == ReadableByteChannel.class) {
+
+            return request -> request.bodyStream() != null ? Channels.newChannel(request.bodyStream()) : null;
+        }
+
+        if (type != InputStream.class) {
+
+            log.error("Parameter marked as streaming body should be InputStream or ReadableByteChannel, got {}", type.getName());
+
+            return NULL_BINDER;
+        }
+
+        return Request::bodyStream;
+    }
+
+    private static ParameterBinder pathBinder(int index, Class<?> type) {
+
+        boolean toLong = type == long.class || type == Long.class;
+
+        return request -> {
+
+            PathParameter[] routeParams = request.getPathParams();
+
+            if (routeParams == null || index >= routeParams.length) {
+
+                return null;
+            }
+
+            Object value = routeParams[index].getValue();
+
+            // int parameter of path could be applied to a long argument
+            if (toLong && value instanceof Integer) {
+
+                return ((Integer)value).longValue();
+            }
+
+            return value;
+        };
+    }
+
+    private static ParameterBinder queryBinder(String name, Class<?> type) {
+
+        if (type == String.class) {
+
+            return request -> {
+
+                List<String> queries = request.getQueries().get(name);
+
+                return queries == null ? null : (queries.size() > 0 ? queries.get(0) : "");
+            };
+        }
+
+        if (type == Integer.class || type == int.class) {
+
+            return request -> {
+
+                List<String> queries = request.getQueries().get(name);
+
+                return queries == null ? null : (queries.size() > 0 ? Integer.valueOf(queries.get(0)) : 0);
+            };
+        }
+
+        if (type == Long.class || type == long.class) {
+
+            return request -> {
+
+                List<String> queries = request.getQueries().get(name);
+
+                return queries == null ? null : (queries.size() > 0 ? Long.valueOf(queries.get(0)) : 0L);
+            };
+        }
+
+        return request -> request.getQueries().get(name);
+    }
+
+    private static ParameterBinder bodyBinder(Class<?> type) {
+
+        JsonSerializerFactory.getSerializer().prepare(type);
+
+        // plain classes with a no-args constructor get a direct form binder, maps and other types keep the json conversion
+        FormBinder formBinder = isPojo(type) ? FormBinder.of(type) : null;
+
+        return request -> {
+
+            String contentType = request.get(CONTENT_TYPE);
+
+            if (contentType != null && contentType.toLowerCase().startsWith(ContentType.JSON.getMimeType())) {
+
+                ByteBuf rawBody = request.getRawBody();
+                Object value;
+
+                if (rawBody == null) {
+
+                    return null;
+                }
+
+                try {
+
+                    value = JsonSerializerFactory.getSerializer().read(new ByteBufInputStream(rawBody.duplicate()), type);
+                } catch (IOException e) {
+
+                    throw new DecoderException("Malformed json body", e);
+                }
+
+                request.setBody(value);
+
+                return value;
+            }
+
+            Map<String, List<String>> formParams = request.getFormParams();
+
+            if (formParams == null) {
+
+                return null;
+            }
+
+            if (formBinder == null) {
+
+                return convertFormParams(formParams, type);
+            }
+
+            try {
+
+                return formBinder.bind(formParams);
+            } catch (RuntimeException e) {
+
+                throw new DecoderException("Malformed form body", e);
+            } catch (Exception e) {
+
+                throw new RazorException("Bind form params to " + type.getName() + " failed", e);
+            }
+        };
+    }
+
+    private static boolean isPojo(Class<?> type) {
+
+        return !type.isPrimitive() && !type.isArray() && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.");
+    }
+
+    private static Object convertFormParams(Map<String, List<String>> formParams, Class<?> type) {
+
+        Map<String, Object> formatFormParams = new HashMap<>();
+
+        for (String key : formParams.keySet()) {
+
+            List<String> valueList = formParams.get(key);
+            if (valueList != null && valueList.size() == 1) {
+
+                formatFormParams.put(key, valueList.get(0));
+            } else {
+
+                formatFormParams.put(key, valueList);
+            }
+        }
+
+        Gson gson = GsonFactory.getGson();
+
+        return gson.fromJson(gson.toJsonTree(formatFormParams), type);
+    }
+}
@@ -26,6 +26,7 @@ package com.fedepot.mvc.route;
 import com.fedepot.Razor;
 import com.fedepot.mvc.controller.APIController;
 import com.fedepot.mvc.controller.Controller;
+import com.fedepot.mvc.controller.WebSocketController;
 import com.fedepot.mvc.annotation.*;
 import com.fedepot.mvc.http.HttpMethod;
 
@@ -34,7 +35,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.reflections.Reflections;
 
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -56,15 +60,37 @@ public class RouteManager {
     private Class<?> appClass;
 
     /**
-     * Routers with fixed path
+     * Routers with fixed path, one table keyed by path for each http method, tables are immutable after registration
      */
-    private final Map<String, Router> routerMap = new HashMap<>();
+    private Map<String, Map<String, Router>> routerMap = new HashMap<>();
 
     /**
-     * Routers with regex type path
+     * Routers with fixed path which accept all http methods
+     */
+    private Map<String, Router> allMethodRouterMap = Collections.emptyMap();
+
+    /**
+     * Routers with parameters or universal match in path
+     */
+    private final RouteTrie routeTrie = new RouteTrie();
+
+    /**
+     * Routers with regex type path which is not supported by {@link RouteTrie}
      */
     private final Set<Router> routerSet = new HashSet<>();
 
+    private Router[] regexRouters = new Router[0];
+
+    /**
+     * WebSocket controllers by path
+     */
+    private Map<String, Class<?>> webSocketMap = new HashMap<>();
+
+    /**
+     * Whether any route reads request body as a stream
+     */
+    private boolean streamingRoutes = false;
+
     private RouteManager(Razor razor) {
 
         this.razor = razor;
@@ -97,6 +123,55 @@ public class RouteManager {
         Set<Class<? extends APIController>> apiControllers = reflections.getSubTypesOf(APIController.class);
         controllers.forEach(this::parseControllerRoutes);
         apiControllers.forEach(this::parseControllerRoutes);
+        reflections.getSubTypesOf(WebSocketController.class).forEach(this::parseWebSocketController);
+
+        freezeRoutes();
+    }
+
+    /**
+     * Make route tables immutable, lookups on them are safe without any lock
+     */
+    private void freezeRoutes() {
+
+        Map<String, Map<String, Router>> tables = new HashMap<>();
+        routerMap.forEach((httpMethod, table) -> tables.put(httpMethod, Collections.unmodifiableMap(new HashMap<>(table))));
+
+        routerMap = Collections.unmodifiableMap(tables);
+        allMethodRouterMap = routerMap.getOrDefault(HttpMethod.ALL, Collections.emptyMap());
+        regexRouters = routerSet.toArray(new Router[0]);
+        webSocketMap = Collections.unmodifiableMap(webSocketMap);
+    }
+
+    /**
+     * Register path of a WebSocket controller
+     *
+     * @param clazz {@link WebSocketController} class
+     */
+    private void parseWebSocketController(Class<? extends WebSocketController> clazz) {
+
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+
+            return;
+        }
+
+        WebSocket wsAnnotation = clazz.getAnnotation(WebSocket.class);
+
+        if (wsAnnotation == null || StringUtils.isEmpty(wsAnnotation.value())) {
+
+            log.warn("WebSocket controller {} has no @WebSocket path, it is ignored", clazz.getName());
+            return;
+        }
+
+        String path = wsAnnotation.value().startsWith("/") ? wsAnnotation.value() : "/".concat(wsAnnotation.value());
+        Class<?> exist = webSocketMap.putIfAbsent(path, clazz);
+
+        if (exist != null) {
+
+            log.error("WebSocket path {} of {} is already taken by {}, it is ignored", path, clazz.getName(), exist.getName());
+            return;
+        }
+
+        razor.getControllerProvider().register(clazz);
     }
 
     /**
@@ -158,44 +233,116 @@ public class RouteManager {
 
     private void addRoute(Router router) {
 
+        try {
+
+            router.compile();
+        } catch (IllegalAccessException e) {
+
+            log.error("Action {} of {} is not accessible, route is ignored", router.getAction().getName(), router.getTargetType().getName(), e);
+            return;
+        } catch (WrongMethodTypeException e) {
+
+            log.error("Action {} of {} could not be bound, route is ignored", router.getAction().getName(), router.getTargetType().getName(), e);
+            return;
+        }
+
         router.collectMiddlewares(razor);
+        razor.getControllerProvider().register(router.getTargetType());
+        razor.getDispatcher().register(router);
+        streamingRoutes |= router.isStreaming();
 
         if (router.isGeneric()) {
-            routerSet.add(router);
+            if (!routeTrie.insert(router)) {
+                routerSet.add(router);
+            }
         } else {
-            routerMap.put(router.getHashKey(), router);
+            routerMap.computeIfAbsent(router.getHttpMethod(), k -> new HashMap<>()).put(router.getFullPath(), router);
         }
     }
 
+    public boolean hasStreamingRoutes() {
+
+        return streamingRoutes;
+    }
+
+    public boolean hasWebSockets() {
+
+        return !webSocketMap.isEmpty();
+    }
+
     /**
-     * Find route with request method and path
+     * Find WebSocket controller of a path
+     *
+     * @param path request path
+     * @return controller class, null for not found
+     */
+    public Class<?> findWebSocket(String path) {
+
+        return webSocketMap.get(path);
+    }
+
+    /**
+     * Paths of routes without parameters which accept GET requests
+     *
+     * @return route paths
+     */
+    public Set<String> fixedGetPaths() {
+
+        Set<String> paths = new HashSet<>(allMethodRouterMap.keySet());
+        paths.addAll(routerMap.getOrDefault(HttpMethod.GET, Collections.emptyMap()).keySet());
+
+        return paths;
+    }
+
+    /**
+     * Find route with request method and path, path parameters are extracted at the same time
      *
      * @param path path to request
      * @param httpMethod http method
-     * @return Router instance
+     * @return RouteMatch instance, null for not found
      */
-    public Router findRoute(String path, String httpMethod) {
+    public RouteMatch match(String path, String httpMethod) {
 
-        Router router = routerMap.get(path.concat("::").concat(httpMethod));
-        if (router != null) {
-            return router;
+        Map<String, Router> table = routerMap.get(httpMethod);
+        Router router = table != null ? table.get(path) : null;
+
+        if (router == null) {
+            router = allMethodRouterMap.get(path);
         }
 
-        router = routerMap.get(path.concat("::").concat(HttpMethod.ALL));
         if (router != null) {
-            return router;
+            return new RouteMatch(router, null);
+        }
+
+        RouteMatch match = routeTrie.match(path, httpMethod);
+        if (match != null) {
+            return match;
         }
 
-        for (Router router1 : routerSet) {
-            String routerHttpMethod = router1.getHttpMethod();
-            if ((routerHttpMethod.equals(HttpMethod.ALL) || StringUtils.equals(routerHttpMethod, httpMethod)) && router1.match(path)) {
-                return router1;
+        for (Router regexRouter : regexRouters) {
+            String routerHttpMethod = regexRouter.getHttpMethod();
+            if ((routerHttpMethod.equals(HttpMethod.ALL) || StringUtils.equals(routerHttpMethod, httpMethod)) && regexRouter.match(path)) {
+                return new RouteMatch(regexRouter, regexRouter.getRouteMatcher().getParams(path));
             }
         }
 
         return null;
     }
 
+    /**
+     * Find route with request method and path
+     *
+     * @param path path to request
+     * @param httpMethod http method
+     * @return Router instance
+     */
+    public Router findRoute(String path, String httpMethod) {
+
+        RouteMatch match = match(path, httpMethod);
+
+        return match != null ? match.getRouter() : null;
+    }
+
     public Router findRoute(String path) {
 
         return findRoute(path, HttpMethod.GET);
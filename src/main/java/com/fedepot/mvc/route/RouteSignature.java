@@ -24,27 +24,14 @@
 package com.fedepot.mvc.route;
 
 import com.fedepot.exception.RazorException;
-import com.fedepot.mvc.annotation.FormFiles;
-import com.fedepot.mvc.annotation.FromBody;
-import com.fedepot.mvc.annotation.QueryParam;
-import com.fedepot.mvc.http.ContentType;
 import com.fedepot.mvc.http.HttpMethod;
 import com.fedepot.mvc.http.Request;
 import com.fedepot.mvc.http.Response;
-import com.fedepot.mvc.json.GsonFactory;
 
-import io.netty.util.CharsetUtil;
 import lombok.Builder;
 import lombok.Getter;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
-import static com.fedepot.mvc.http.HttpHeaderNames.*;
 
 /**
  * Signature for route matching of one request
@@ -55,6 +42,8 @@ import static com.fedepot.mvc.http.HttpHeaderNames.*;
 @Builder
 public class RouteSignature {
 
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
     @Getter
     private Router router;
 
@@ -103,99 +92,19 @@ public class RouteSignature {
             throw new RazorException("Null route action error");
         }
 
-        int actionParamCount = action.getParameterCount();
-        if (actionParamCount == 0) {
+        ParameterBinder[] binders = router.getBinders();
+        if (binders.length == 0) {
 
-            parameters = new Object[0];
+            parameters = NO_PARAMETERS;
 
             return;
         }
 
-        PathParameter[] routeParams = request.getPathParams();
-        Parameter[] actionParams = action.getParameters();
-        Object[] paramValues = new Object[actionParamCount];
-
-        int i = 0;
-        for (Parameter parameter : actionParams) {
-
-            if (routeParams != null && i < routeParams.length) {
-
-                paramValues[i] = routeParams[i].getValue();
-            } else {
-
-                Annotation[] annotations = parameter.getAnnotations();
-
-                if (annotations.length > 0) {
-
-                    if (annotations[0].annotationType() == FormFiles.class) {
-
-                        paramValues[i] = request.files();
-                    } else if (annotations[0].annotationType() == QueryParam.class) {
-
-                        List<String> queries = request.getQueries().get(((QueryParam)annotations[0]).value());
-
-                        if (queries == null) {
-
-                            paramValues[i] = null;
-                        } else {
-
-                            if (parameter.getType() == String.class) {
-
-                                paramValues[i] = queries.size() > 0 ? queries.get(0) : "";
-                            } else if (parameter.getType() == Integer.class || parameter.getType() == int.class) {
-
-                                paramValues[i] = queries.size() > 0 ? Integer.valueOf(queries.get(0)) : 0;
-                            } else if (parameter.getType() == Long.class || parameter.getType() == long.class) {
-
-                                paramValues[i] = queries.size() > 0 ? Long.valueOf(queries.get(0)) : 0;
-                            } else {
-
-                                paramValues[i] = queries;
-                            }
-                        }
-                    } else if (annotations[0].annotationType() == FromBody.class) {
-
-                        if (request.get(CONTENT_TYPE).toLowerCase().equals(ContentType.JSON.getMimeType())) {
-
-                            String rawBody = request.getRawBody().toString(CharsetUtil.UTF_8);
-                            Object value = GsonFactory.getGson().fromJson(rawBody, parameter.getType());
-
-                            paramValues[i] = value;
-                            request.setBody(value);
-                        } else {
-
-                            if (request.getFormParams() != null) {
-                                Map<String, List<String>> formParams = request.getFormParams();
-                                Map<String, Object> formatFormParams = new HashMap<>();
-
-                                for (String key : formParams.keySet()) {
-
-                                    List<String> valueList = formParams.get(key);
-                                    if (valueList != null && valueList.size() == 1) {
-
-                                        formatFormParams.put(key, valueList.get(0));
-                                    } else {
-
-                                        formatFormParams.put(key, valueList);
-                                    }
-                                }
-
-                                String json = GsonFactory.getGson().toJson(formatFormParams);
-                                Object value = GsonFactory.getGson().fromJson(json, parameter.getType());
-                                paramValues[i] = value;
-                            } else {
-
-                                paramValues[i] = null;
-                            }
-                        }
-                    }
-                } else {
+        Object[] paramValues = new Object[binders.length];
 
-                    paramValues[i] = null;
-                }
-            }
+        for (int i = 0; i < binders.length; i++) {
 
-            i++;
+            paramValues[i] = binders[i].bind(request);
         }
 
         parameters = paramValues;
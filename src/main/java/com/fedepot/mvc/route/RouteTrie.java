@@ -0,0 +1,500 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.mvc.route;
+
+import com.fedepot.mvc.http.HttpMethod;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Segment trie for routes with path parameters or universal match, it matches a path and extracts parameters in one pass without regex
+ *
+ * Precedence of children on each level: static segment, int parameter, long parameter, string parameter, universal match
+ *
+ * Supported segments are `static`, `prefix{type:name}suffix` with only one parameter and a trailing `*`,
+ * other routes should be matched by {@link Router#match(String)} instead
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+class RouteTrie {
+
+    private static final int STATIC = 0;
+
+    private static final int INT = 1;
+
+    private static final int LONG = 2;
+
+    private static final int STRING = 3;
+
+    private final Node root = new Node(STATIC, "", "");
+
+    /**
+     * Max parameters count of one route, used for sizing the values buffer of one match
+     */
+    private int maxParams = 0;
+
+    private boolean empty = true;
+
+    /**
+     * Add a router to trie
+     *
+     * @param router router with generic path
+     * @return false if the route path is not supported by trie
+     */
+    boolean insert(Router router) {
+
+        String fullPath = router.getFullPath();
+        String[] segments = fullPath.substring(1).split("/", -1);
+
+        Node node = root;
+        int params = 0;
+
+        for (int i = 0; i < segments.length; i++) {
+
+            String segment = segments[i];
+
+            if ("*".equals(segment)) {
+
+                if (i != segments.length - 1) {
+
+                    return false;
+                }
+
+                if (node.wildcard == null) {
+
+                    node.wildcard = new Node(STATIC, "", "");
+                }
+
+                node = node.wildcard;
+                continue;
+            }
+
+            if (segment.indexOf('*') > -1) {
+
+                return false;
+            }
+
+            int open = segment.indexOf('{');
+
+            if (open < 0) {
+
+                node = node.staticChild(segment);
+                continue;
+            }
+
+            int close = segment.indexOf('}', open);
+
+            if (close < 0 || segment.indexOf('{', open + 1) > -1 || segment.indexOf('}', close + 1) > -1) {
+
+                return false;
+            }
+
+            String prefix = segment.substring(0, open);
+            String suffix = segment.substring(close + 1);
+            String spec = segment.substring(open + 1, close);
+            int colon = spec.indexOf(':');
+            String type = colon < 0 ? "" : spec.substring(0, colon).toLowerCase();
+
+            int kind;
+            if ("int".equals(type)) {
+
+                kind = INT;
+            } else if ("long".equals(type)) {
+
+                kind = LONG;
+            } else {
+
+                kind = STRING;
+            }
+
+            node = node.paramChild(kind, prefix, suffix);
+            params++;
+        }
+
+        if (params != router.getRouteMatcher().getParamNames().length) {
+
+            return false;
+        }
+
+        String httpMethod = router.getHttpMethod();
+        if (node.routers.containsKey(httpMethod)) {
+
+            log.warn("Route {} with method {} is registered repeatedly", fullPath, httpMethod);
+        }
+
+        node.routers.put(httpMethod, router);
+        maxParams = Math.max(maxParams, params);
+        empty = false;
+
+        return true;
+    }
+
+    /**
+     * Find router and extract path parameters
+     *
+     * @param path request path
+     * @param httpMethod http method
+     * @return match result, null for not found
+     */
+    RouteMatch match(String path, String httpMethod) {
+
+        if (empty || path.isEmpty() || path.charAt(0) != '/') {
+
+            return null;
+        }
+
+        return match(root, path, 0, null, 0, httpMethod);
+    }
+
+    /**
+     * Depth-first matching, values buffer is allocated only when a parameter node is reached, so a missed lookup allocates nothing
+     */
+    private RouteMatch match(Node node, String path, int pos, Object[] values, int depth, String httpMethod) {
+
+        int length = path.length();
+
+        if (pos == length) {
+
+            return node.result(httpMethod, values, depth);
+        }
+
+        int start = pos + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+
+            end = length;
+        }
+
+        RouteMatch result;
+
+        if (node.statics != null) {
+
+            Node child = node.statics.get(path, start, end);
+
+            if (child != null && (result = match(child, path, end, values, depth, httpMethod)) != null) {
+
+                return result;
+            }
+        }
+
+        if (node.params != null) {
+
+            for (Node child : node.params) {
+
+                Object value = child.capture(path, start, end);
+
+                if (value != null) {
+
+                    if (values == null) {
+
+                        values = new Object[maxParams];
+                    }
+
+                    values[depth] = value;
+
+                    if ((result = match(child, path, end, values, depth + 1, httpMethod)) != null) {
+
+                        return result;
+                    }
+                }
+            }
+        }
+
+        if (node.wildcard != null && isUniversalTail(path, start)) {
+
+            return node.wildcard.result(httpMethod, values, depth);
+        }
+
+        return null;
+    }
+
+    /**
+     * Universal match accepts `[0-9a-zA-Z-_./]` chars, and could be empty
+     */
+    private static boolean isUniversalTail(String path, int start) {
+
+        for (int i = start; i < path.length(); i++) {
+
+            char ch = path.charAt(i);
+
+            if (!isWordChar(ch) && ch != '.' && ch != '/') {
+
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isWordChar(char ch) {
+
+        return (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || ch == '-' || ch == '_';
+    }
+
+    private static class Node {
+
+        private final int kind;
+
+        /**
+         * Static text around parameter in the same segment, e.g `{int:id}.html`
+         */
+        private final String prefix;
+
+        private final String suffix;
+
+        private SegmentTable statics;
+
+        /**
+         * Parameter children, ordered by precedence
+         */
+        private List<Node> params;
+
+        private Node wildcard;
+
+        /**
+         * Routers end with this node, keyed by http method
+         */
+        private final Map<String, Router> routers = new HashMap<>();
+
+        Node(int kind, String prefix, String suffix) {
+
+            this.kind = kind;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        Node staticChild(String segment) {
+
+            if (statics == null) {
+
+                statics = new SegmentTable();
+            }
+
+            Node child = statics.get(segment, 0, segment.length());
+
+            if (child == null) {
+
+                child = new Node(STATIC, "", "");
+                statics.put(segment, child);
+            }
+
+            return child;
+        }
+
+        Node paramChild(int kind, String prefix, String suffix) {
+
+            if (params == null) {
+
+                params = new ArrayList<>();
+            }
+
+            for (Node child : params) {
+
+                if (child.kind == kind && child.prefix.equals(prefix) && child.suffix.equals(suffix)) {
+
+                    return child;
+                }
+            }
+
+            Node child = new Node(kind, prefix, suffix);
+            params.add(child);
+
+            // lower kind first, and the one with more static text first for same kind
+            params.sort((a, b) -> a.kind != b.kind ? a.kind - b.kind : (b.prefix.length() + b.suffix.length()) - (a.prefix.length() + a.suffix.length()));
+
+            return child;
+        }
+
+        /**
+         * Capture parameter value in segment [start, end) of path
+         *
+         * @return parameter value, null if not matched
+         */
+        Object capture(String path, int start, int end) {
+
+            int from = start + prefix.length();
+            int to = end - suffix.length();
+
+            if (to <= from || !path.startsWith(prefix, start) || !path.startsWith(suffix, to)) {
+
+                return null;
+            }
+
+            if (kind == STRING) {
+
+                for (int i = from; i < to; i++) {
+
+                    if (!isWordChar(path.charAt(i))) {
+
+                        return null;
+                    }
+                }
+
+                return path.substring(from, to);
+            }
+
+            long max = kind == INT ? Integer.MAX_VALUE : Long.MAX_VALUE;
+            long value = 0;
+
+            for (int i = from; i < to; i++) {
+
+                int digit = path.charAt(i) - '0';
+
+                if (digit < 0 || digit > 9 || value > (max - digit) / 10) {
+
+                    return null;
+                }
+
+                value = value * 10 + digit;
+            }
+
+            if (kind == INT) {
+
+                return (int)value;
+            }
+
+            return value;
+        }
+
+        RouteMatch result(String httpMethod, Object[] values, int depth) {
+
+            Router router = routers.get(httpMethod);
+
+            if (router == null) {
+
+                router = routers.get(HttpMethod.ALL);
+            }
+
+            if (router == null) {
+
+                return null;
+            }
+
+            if (depth == 0) {
+
+                return new RouteMatch(router, null);
+            }
+
+            String[] names = router.getRouteMatcher().getParamNames();
+            PathParameter[] pathParams = new PathParameter[depth];
+
+            for (int i = 0; i < depth; i++) {
+
+                pathParams[i] = new PathParameter(names[i], values[i]);
+            }
+
+            return new RouteMatch(router, pathParams);
+        }
+    }
+
+    /**
+     * Open addressing table of static segments, looks up a segment by its range in path, so no substring is created
+     */
+    private static class SegmentTable {
+
+        private String[] keys = new String[8];
+
+        private Node[] nodes = new Node[8];
+
+        private int size = 0;
+
+        Node get(String path, int start, int end) {
+
+            int mask = keys.length - 1;
+            int length = end - start;
+
+            for (int i = hash(path, start, end) & mask; keys[i] != null; i = (i + 1) & mask) {
+
+                String key = keys[i];
+
+                if (key.length() == length && key.regionMatches(0, path, start, length)) {
+
+                    return nodes[i];
+                }
+            }
+
+            return null;
+        }
+
+        void put(String key, Node node) {
+
+            if ((size + 1) * 2 > keys.length) {
+
+                resize();
+            }
+
+            int mask = keys.length - 1;
+            int i = key.hashCode() & mask;
+
+            while (keys[i] != null) {
+
+                i = (i + 1) & mask;
+            }
+
+            keys[i] = key;
+            nodes[i] = node;
+            size++;
+        }
+
+        private void resize() {
+
+            String[] oldKeys = keys;
+            Node[] oldNodes = nodes;
+
+            keys = new String[oldKeys.length * 2];
+            nodes = new Node[oldNodes.length * 2];
+            size = 0;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+
+                if (oldKeys[i] != null) {
+
+                    put(oldKeys[i], oldNodes[i]);
+                }
+            }
+        }
+
+        /**
+         * Same as {@link String#hashCode()} of the substring
+         */
+        private static int hash(String path, int start, int end) {
+
+            int h = 0;
+
+            for (int i = start; i < end; i++) {
+
+                h = 31 * h + path.charAt(i);
+            }
+
+            return h;
+        }
+    }
+}
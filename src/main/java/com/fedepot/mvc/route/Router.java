@@ -24,6 +24,8 @@
 package com.fedepot.mvc.route;
 
 import com.fedepot.Razor;
+import com.fedepot.mvc.annotation.Dispatch;
+import com.fedepot.mvc.annotation.StreamingBody;
 import com.fedepot.mvc.middleware.Middleware;
 import lombok.Getter;
 
@@ -58,6 +60,30 @@ public class Router {
      */
     private Method action;
 
+    /**
+     * Return type of action
+     */
+    private Class<?> returnType;
+
+    /**
+     * Direct invoker of action
+     */
+    private ActionInvoker invoker;
+
+    /**
+     * Binders of action parameters, by parameter index
+     */
+    private ParameterBinder[] binders;
+
+    /**
+     * Dispatch rule of action or controller, null for the default
+     */
+    private Dispatch dispatch;
+
+    /**
+     * Whether action reads request body as a stream, the body is not aggregated for such route
+     */
+    private boolean streaming;
 
     /**
      * Middlewares which will be applied to this route
@@ -73,12 +99,32 @@ public class Router {
 
     }
 
+    /**
+     * Prepare invoker and parameter binders of action, so no more reflection is needed when handling requests
+     *
+     * @throws IllegalAccessException action is not accessible
+     */
+    void compile() throws IllegalAccessException {
+
+        returnType = action.getReturnType();
+        invoker = new ActionInvoker(action);
+        binders = ParameterBinders.of(action, routeMatcher.getParamNames().length);
+
+        streaming = Arrays.stream(action.getParameters()).anyMatch(parameter -> parameter.getAnnotation(StreamingBody.class) != null);
+        dispatch = action.getAnnotation(Dispatch.class);
+
+        if (dispatch == null) {
+
+            dispatch = targetType.getAnnotation(Dispatch.class);
+        }
+    }
+
     boolean match (String url) {
 
         return routeMatcher.getPattern().matcher(url).matches();
     }
 
-    private String getFullPath() {
+    String getFullPath() {
 
         String routePrefix = routeMatcher.getRoutePrefix();
         String route = routeMatcher.getRoute();
@@ -96,16 +142,6 @@ public class Router {
         return routePrefix.concat("/").concat(route);
     }
 
-    /**
-     * Unique string for a router
-     *
-     * @return String
-     */
-    String getHashKey() {
-
-        return getFullPath().concat("::").concat(httpMethod.toUpperCase());
-    }
-
     /**
      * Router got a generic url match
      *
@@ -32,11 +32,13 @@ import org.beetl.core.resource.ClasspathResourceLoader;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
 
+import static com.fedepot.mvc.Constants.*;
+
 /**
- * Beetl template engine
+ * Beetl template engine, compiled templates are cached by the group template and only reloaded when modified in dev mode
  *
  * @author Touchumind
  * @since 0.0.1
@@ -44,29 +46,38 @@ import java.util.Map;
 @Slf4j
 public class BeetlTemplateEngine implements TemplateEngine{
 
-    private GroupTemplate groupTemplate;
+    private volatile GroupTemplate groupTemplate;
 
     private GroupTemplate getGroupTemplate() {
 
-        if (groupTemplate == null) {
-//            synchronized (BeetlTemplateEngine.class) {
-//
-//                if (groupTemplate == null) {
+        GroupTemplate gt = groupTemplate;
+
+        if (gt == null) {
+            synchronized (this) {
+
+                gt = groupTemplate;
+
+                if (gt == null) {
 
                     try {
 
                         ClasspathResourceLoader resourceLoader = new ClasspathResourceLoader();
                         Configuration cfg = Configuration.defaultConfiguration();
-                        groupTemplate = new GroupTemplate(resourceLoader, cfg);
+
+                        // loader reads it when group template is created, checking modification of every template on each render
+                        cfg.getResourceMap().put("autoCheck", String.valueOf(HttpContext.app().getEnv().getBool(ENV_KEY_DEV_MODE, DEFAULT_DEV_MODE)));
+
+                        gt = new GroupTemplate(resourceLoader, cfg);
+                        groupTemplate = gt;
                     } catch (IOException e) {
 
-                        log.error(e.toString());
+                        throw new IllegalStateException("Create beetl group template failed", e);
                     }
-//                }
-//            }
+                }
+            }
         }
 
-        return groupTemplate;
+        return gt;
     }
 
     @Override
@@ -75,18 +86,21 @@ public class BeetlTemplateEngine implements TemplateEngine{
         return "Beetl";
     }
 
+    @Override
+    public void preload(String templatePath) throws Exception {
+
+        // program of the template is compiled and cached by group template
+        getGroupTemplate().getTemplate(templatePath);
+    }
+
     @Override
     public String render(String templatePath, Map<String, Object> data) throws Exception {
 
-        GroupTemplate gt = getGroupTemplate();
-        // set template global shared vars
-        Map<String, Object> sharedVars = new HashMap<>();
-        sharedVars.put("REQUEST", HttpContext.request());
+        // a new template instance for each render, request vars are bound to it rather than shared by the group template
+        Template template = getGroupTemplate().getTemplate(templatePath);
+        template.binding("REQUEST", HttpContext.request());
         Session session = HttpContext.request().session();
-        sharedVars.put("SESSION", session != null ? session.attributes() : new HashMap<String, Object>());
-        gt.setSharedVars(sharedVars);
-
-        Template template = gt.getTemplate(templatePath);
+        template.binding("SESSION", session != null ? session.attributes() : Collections.emptyMap());
         template.binding(data);
 
         return template.render();
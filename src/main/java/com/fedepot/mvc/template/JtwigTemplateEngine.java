@@ -23,32 +23,95 @@
 
 package com.fedepot.mvc.template;
 
+import com.fedepot.mvc.http.HttpContext;
 import org.jtwig.JtwigModel;
 import org.jtwig.JtwigTemplate;
 
+import java.io.File;
+import java.net.URL;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.fedepot.mvc.Constants.*;
 
 /**
- * Jtwig template engine
+ * Jtwig template engine, templates are cached by path and only reloaded when modified in dev mode
  *
  * @author Touchumind
  * @since 0.0.1
  */
 public class JtwigTemplateEngine implements TemplateEngine{
 
+    private final Map<String, CachedTemplate> templates = new ConcurrentHashMap<>();
+
+    private Boolean devMode;
+
     @Override
     public String getName() {
 
         return "Jtwig";
     }
 
+    @Override
+    public void preload(String templatePath) throws Exception {
+
+        getTemplate(templatePath);
+    }
+
     @Override
     public String render(String templatePath, Map<String, Object> data) throws Exception {
 
-        // TODO template cache when startup
-        JtwigTemplate template = JtwigTemplate.classpathTemplate(templatePath);
         JtwigModel model = JtwigModel.newModel(data);
 
-        return template.render(model);
+        return getTemplate(templatePath).render(model);
+    }
+
+    private JtwigTemplate getTemplate(String templatePath) {
+
+        CachedTemplate cached = templates.computeIfAbsent(templatePath, CachedTemplate::new);
+
+        if (isDevMode() && cached.isModified()) {
+
+            cached = new CachedTemplate(templatePath);
+            templates.put(templatePath, cached);
+        }
+
+        return cached.template;
+    }
+
+    private boolean isDevMode() {
+
+        if (devMode == null) {
+
+            devMode = HttpContext.app().getEnv().getBool(ENV_KEY_DEV_MODE, DEFAULT_DEV_MODE);
+        }
+
+        return devMode;
+    }
+
+    private static class CachedTemplate {
+
+        private final JtwigTemplate template;
+
+        /**
+         * Template file, null if template is not a plain file, e.g in a jar
+         */
+        private final File file;
+
+        private final long lastModified;
+
+        CachedTemplate(String templatePath) {
+
+            URL url = Thread.currentThread().getContextClassLoader().getResource(templatePath);
+
+            this.file = url != null && "file".equals(url.getProtocol()) ? new File(url.getPath()) : null;
+            this.lastModified = file != null ? file.lastModified() : 0;
+            this.template = JtwigTemplate.classpathTemplate(templatePath);
+        }
+
+        boolean isModified() {
+
+            return file != null && file.lastModified() != lastModified;
+        }
     }
 }
@@ -44,4 +44,14 @@ public interface TemplateEngine {
      * @throws Exception exception when failed
      */
     String render(String templatePath, Map<String, Object> data) throws Exception;
+
+    /**
+     * Load and compile a template ahead of the first rendering, engines without template cache could ignore it
+     *
+     * @param templatePath full path of template file relative to classpath
+     * @throws Exception exception when failed
+     */
+    default void preload(String templatePath) throws Exception {
+
+    }
 }
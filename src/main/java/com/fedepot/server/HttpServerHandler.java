@@ -29,23 +29,29 @@ import com.fedepot.exception.RazorException;
 import com.fedepot.ioc.IContainer;
 import com.fedepot.mvc.controller.APIController;
 import com.fedepot.mvc.controller.Controller;
+import com.fedepot.mvc.controller.ControllerProvider;
 import com.fedepot.mvc.http.*;
-import com.fedepot.mvc.middleware.CookieParserMiddleware;
+import com.fedepot.mvc.middleware.Middleware;
+import com.fedepot.mvc.route.RouteManager;
 import com.fedepot.mvc.route.RouteSignature;
 import com.fedepot.mvc.route.Router;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.DecoderException;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.QueryStringDecoder;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Method;
-import java.util.concurrent.*;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 import static com.fedepot.mvc.http.HttpHeaderNames.CONTENT_TYPE;
 import static io.netty.buffer.Unpooled.copiedBuffer;
@@ -69,30 +75,18 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
 
     private ExceptionHandler exceptionHandler;
 
-    private final static ExecutorService workerThreadService = newBlockingExecutorUseCallerRun(Runtime.getRuntime().availableProcessors() * 2);
+    private RequestDispatcher dispatcher;
 
-    private static ExecutorService newBlockingExecutorUseCallerRun(int size) {
-
-        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Razor-BlockingExecutor-pool-%d").build();
-
-        return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), threadFactory, (r, executor) -> {
-
-            try {
-
-                executor.getQueue().put(r);
-            } catch (InterruptedException e) {
-
-                throw new RuntimeException(e);
-            }
-        });
-    }
+    private RouteManager routeManager;
 
     HttpServerHandler(Razor razor) {
 
         this.razor = razor;
         this.staticFileHandler = new StaticFileHandler(razor);
-        this.sessionHandler = razor.getSessionManager() != null ? new SessionHandler(razor) : null;
+        this.sessionHandler = razor.getSessionHandler();
         this.exceptionHandler = razor.getExceptionHandler();
+        this.dispatcher = razor.getDispatcher();
+        this.routeManager = RouteManager.getInstance(razor);
     }
 
     @Override
@@ -101,10 +95,14 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
         if (msg instanceof FullHttpRequest) {
 
             final FullHttpRequest fullHttpRequest = (FullHttpRequest) msg;
-            workerThreadService.execute(() -> {
 
-                handleMessage(ctx, fullHttpRequest);
-            });
+            // upgrade is completed on event loop, frames of the connection never reach the dispatcher
+            if (routeManager.hasWebSockets() && upgradeWebSocket(ctx, fullHttpRequest)) {
+
+                return;
+            }
+
+            dispatcher.dispatch(ctx, fullHttpRequest, () -> handleMessage(ctx, fullHttpRequest));
         } else {
 
             super.channelRead(ctx, msg);
@@ -138,16 +136,75 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
         log.error(cause.getMessage());
     }
 
-    private void handleMessage(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest) {
+    /**
+     * Upgrade request to a WebSocket connection if its path belongs to a WebSocket controller
+     *
+     * @param ctx channel context
+     * @param fullHttpRequest http request
+     * @return true if request is handled as an upgrade request
+     */
+    private boolean upgradeWebSocket(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest) {
+
+        if (!fullHttpRequest.headers().containsValue(HttpHeaderNames.UPGRADE, HttpHeaderValues.WEBSOCKET, true)) {
+
+            return false;
+        }
+
+        Class<?> controllerClass = routeManager.findWebSocket(new QueryStringDecoder(fullHttpRequest.uri()).path());
+
+        if (controllerClass == null) {
+
+            return false;
+        }
+
+        try {
+
+            WebSocketFrameHandler.upgrade(razor, ctx, fullHttpRequest, controllerClass);
+        } catch (RuntimeException e) {
+
+            log.error("WebSocket upgrade failed", e);
+            ctx.close();
+        } finally {
+
+            fullHttpRequest.release();
+        }
+
+        return true;
+    }
+
+    void handleMessage(ChannelHandlerContext ctx, FullHttpRequest fullHttpRequest) {
 
         // TODO
         // HEAD request support
 
-        Request request = Request.build(ctx, fullHttpRequest, sessionHandler);
+        Request request;
+
+        try {
+
+            request = Request.build(ctx, fullHttpRequest, sessionHandler);
+        } catch (RuntimeException e) {
+
+            // request is owned by this handler, release it when it could not be parsed
+            fullHttpRequest.release();
+
+            if (fullHttpRequest instanceof StreamingHttpRequest) {
+
+                ((StreamingHttpRequest) fullHttpRequest).getBody().close();
+            }
+
+            log.error("Parse request failed", e);
+            ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.BAD_REQUEST)).addListener(ChannelFutureListener.CLOSE);
+
+            return;
+        }
+
         Response response = Response.build(ctx);
 
         HttpContext.set(new HttpContext(request, response));
 
+        // response of an asynchronous action is completed by its continuation
+        boolean pending = false;
+
         try {
 
             if (request.isStatic()) {
@@ -156,14 +213,6 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
                 return;
             }
 
-            // prepare cookies for session
-            new CookieParserMiddleware().apply(request, response);
-
-            // check session
-            if (!request.method().equals(HttpMethod.OPTIONS)) {
-                request.session();
-            }
-
             // TODO complete RouteSignature
             RouteSignature routeSignature = RouteSignature.builder().request(request).response(response).build();
             Router router = request.router();
@@ -171,7 +220,7 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
             if (router != null) {
 
                 routeSignature.setRouter(router);
-                this.handleRoute(ctx, routeSignature);
+                pending = this.handleRoute(ctx, routeSignature);
             } else {
 
                 response.notFound();
@@ -179,31 +228,58 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
 
         } catch (Exception e) {
 
-            if (!response.flushed()) {
+            handleException(response, e);
+        } finally {
 
-                response.interanlError();
-            }
+            if (!pending) {
 
-            if (this.exceptionHandler != null) {
+                request.commitSession();
 
-                exceptionHandler.handle(e, razor);
-            } else {
+                if (!response.flushed()) {
+
+                    response.end();
+                }
 
-                log.error("Handle inbound message failed", e);
+                request.release();
             }
 
-        } finally {
+            // a pending request has its context restored by the continuation
+            HttpContext.remove();
+        }
+    }
 
-            if (!response.flushed()) {
+    private void handleException(Response response, Exception e) {
 
-                response.end();
+        if (!response.flushed()) {
+
+            // body is decoded when the action reads it, a malformed body is still a bad request
+            if (e instanceof DecoderException) {
+
+                response.sendStatus(400);
+            } else {
+
+                response.interanlError();
             }
+        }
 
-            HttpContext.remove();
+        if (this.exceptionHandler != null) {
+
+            exceptionHandler.handle(e, razor);
+        } else {
+
+            log.error("Handle inbound message failed", e);
         }
     }
 
-    private void handleRoute(ChannelHandlerContext ctx, RouteSignature signature) throws Exception {
+    /**
+     * Execute action of the route
+     *
+     * @param ctx channel context
+     * @param signature route signature
+     * @return true if action returned a {@link CompletionStage} which is not yet handled
+     * @throws Exception exception from middlewares or action
+     */
+    private boolean handleRoute(ChannelHandlerContext ctx, RouteSignature signature) throws Exception {
 
         Request request = signature.request();
         Response response = signature.response();
@@ -222,10 +298,9 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
                 }
             }
 
-            return;
+            return false;
         }
 
-        IContainer ioc = razor.getIoc();
         Class<?> controllerClass = signature.getRouter().getTargetType();
         Class<?> superClass = controllerClass.getSuperclass();
 
@@ -234,51 +309,132 @@ public class HttpServerHandler extends ChannelInboundHandlerAdapter {
             throw new RazorException(controllerClass.getName() + " is not a controller or api controller");
         }
 
-        Object controller = ioc.resolve(controllerClass);
+        ControllerProvider controllerProvider = razor.getControllerProvider();
+        Object controller = controllerProvider.acquire(controllerClass);
 
         if (controller == null) {
 
             response.interanlError();
-            return;
+            return false;
         }
 
-        Method action = signature.getRouter().getAction();
+        Router router = signature.getRouter();
+        boolean pending = false;
 
         try {
 
-            Object result;
-            if (action.getParameterTypes().length == 0) {
+            Object result = router.getInvoker().invoke(controller, signature.getParameters());
 
-                result = action.invoke(controller);
-            } else {
+            if (result instanceof CompletionStage) {
+
+                // free current worker thread, response is written by the thread completing the stage
+                HttpContext context = HttpContext.get();
+                pending = true;
+                ((CompletionStage<?>) result).whenComplete((value, error) -> completeRoute(context, signature, controller, value, error));
 
-                Object[] args = signature.getParameters();
-                result = action.invoke(controller, args);
+                return true;
             }
 
-            Class<?> returnType = action.getReturnType();
+            writeResult(signature, result, router.getReturnType());
 
-            if (response.flushed()) {
+            return false;
+        } catch (Exception e) {
 
-                return;
+            log.error(e.getMessage());
+            throw e;
+        } finally {
+
+            if (!pending) {
+
+                controllerProvider.release(controllerClass, controller);
+            }
+        }
+    }
+
+    /**
+     * Continuation of an asynchronous action, http context is restored on the completing thread
+     *
+     * @param context http context of the request
+     * @param signature route signature
+     * @param controller controller instance
+     * @param value completed value
+     * @param error completed exception
+     */
+    private void completeRoute(HttpContext context, RouteSignature signature, Object controller, Object value, Throwable error) {
+
+        // completing thread may be serving another request, its own context is restored when done
+        HttpContext previous = HttpContext.get();
+        HttpContext.set(context);
+        Response response = signature.response();
+
+        try {
+
+            if (error == null) {
+
+                writeResult(signature, value, value == null ? Void.TYPE : value.getClass());
+            } else {
+
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                handleException(response, cause instanceof Exception ? (Exception) cause : new RazorException(cause));
             }
+        } catch (Exception e) {
+
+            handleException(response, e);
+        } finally {
 
-            if (returnType == Void.TYPE) {
+            razor.getControllerProvider().release(signature.getRouter().getTargetType(), controller);
+            signature.request().commitSession();
 
-                result = "";
+            if (!response.flushed()) {
+
+                response.end();
             }
 
-            if (response.get(CONTENT_TYPE) == null) {
+            signature.request().release();
+
+            if (previous != null) {
 
-                response.header(CONTENT_TYPE, ContentType.TEXT.getMimeTypeWithCharset());
+                HttpContext.set(previous);
+            } else {
+
+                HttpContext.remove();
             }
+        }
+    }
 
-            response.end(ActionResult.build(result, returnType).getBytes());
-        } catch (Exception e) {
+    /**
+     * Let middlewares see the action result, then serialize and send it unless the response has been flushed
+     *
+     * @param signature route signature
+     * @param result action result
+     * @param returnType type used for serialization
+     */
+    private void writeResult(RouteSignature signature, Object result, Class<?> returnType) {
 
-            log.error(e.getMessage());
-            throw e;
+        Response response = signature.response();
+        List<Middleware> middlewares = signature.getRouter().getMiddlewares();
+
+        for (int i = middlewares.size() - 1; i >= 0; i--) {
+
+            middlewares.get(i).completed(signature.request(), response, result);
+        }
+
+        if (response.flushed()) {
+
+            return;
+        }
+
+        if (returnType == Void.TYPE) {
+
+            result = "";
         }
+
+        if (response.get(CONTENT_TYPE) == null) {
+
+            response.header(CONTENT_TYPE, ContentType.TEXT.getMimeTypeWithCharset());
+        }
+
+        response.end(ActionResult.build(result, returnType).getContent(response.alloc()));
     }
 
     /**
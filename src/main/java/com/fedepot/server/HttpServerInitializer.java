@@ -24,6 +24,7 @@
 package com.fedepot.server;
 
 import com.fedepot.Razor;
+import com.fedepot.mvc.route.RouteManager;
 
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
@@ -46,9 +47,15 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
     private Razor razor;
 
+    /**
+     * Request handler shared by all channels
+     */
+    private final HttpServerHandler requestHandler;
+
     HttpServerInitializer(Razor razor) {
 
         this.razor = razor;
+        this.requestHandler = new HttpServerHandler(razor);
     }
 
     @Override
@@ -67,9 +74,15 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
         }
 
         pl.addLast("continue", new HttpServerExpectContinueHandler());
-        pl.addLast("aggregator", new HttpObjectAggregator(512*1024));
+
+        if (RouteManager.getInstance(razor).hasStreamingRoutes()) {
+
+            pl.addLast("streaming", new StreamingBodyHandler(razor));
+        }
+
+        pl.addLast("aggregator", new HttpObjectAggregator(razor.getEnv().getInt(ENV_KEY_MAX_CONTENT_LENGTH, DEFAULT_MAX_CONTENT_LENGTH)));
         pl.addLast("chunk", new ChunkedWriteHandler());
 
-        pl.addLast("request", new HttpServerHandler(razor));
+        pl.addLast("request", requestHandler);
     }
 }
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.fedepot.mvc.http.Request;
+import com.fedepot.mvc.http.Response;
+import com.fedepot.mvc.http.Session;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Session of a request without a valid session cookie, reads see an empty read-only session,
+ * the real session is created and its cookie is set on first write or when its id is required
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+class LazySession implements Session {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SessionHandler sessionHandler;
+
+    private final transient Request request;
+
+    private final transient Response response;
+
+    private Session session;
+
+    LazySession(SessionHandler sessionHandler, Request request, Response response) {
+
+        this.sessionHandler = sessionHandler;
+        this.request = request;
+        this.response = response;
+    }
+
+    /**
+     * The real session
+     *
+     * @return session, null if not created
+     */
+    Session target() {
+
+        return session;
+    }
+
+    private Session materialize() {
+
+        if (session == null) {
+
+            session = sessionHandler.createSession(request, response);
+        }
+
+        return session;
+    }
+
+    @Override
+    public String id() {
+
+        return materialize().id();
+    }
+
+    @Override
+    public long createAt() {
+
+        return session != null ? session.createAt() : -1;
+    }
+
+    @Override
+    public long expireAt() {
+
+        return session != null ? session.expireAt() : -1;
+    }
+
+    @Override
+    public Map<String, Object> attributes() {
+
+        return session != null ? session.attributes() : Collections.emptyMap();
+    }
+
+    @Override
+    public <T> T attribute(String name) {
+
+        return session != null ? session.attribute(name) : null;
+    }
+
+    @Override
+    public void addAttribute(String name, Object value) {
+
+        materialize().addAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+
+        if (session != null) {
+
+            session.removeAttribute(name);
+        }
+    }
+
+    @Override
+    public void clearAttributes() {
+
+        if (session != null) {
+
+            session.clearAttributes();
+        }
+    }
+
+    @Override
+    public boolean isDirty() {
+
+        return session != null && session.isDirty();
+    }
+
+    @Override
+    public void markClean() {
+
+        if (session != null) {
+
+            session.markClean();
+        }
+    }
+}
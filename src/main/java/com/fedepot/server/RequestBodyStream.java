@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Request body chunks fed by the event loop and read by the action thread. Reading from the channel is paused when buffered
+ * bytes reach the high water mark and resumed when they drop to the low water mark, so memory stays bounded whatever the body size
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class RequestBodyStream extends InputStream {
+
+    private final Channel channel;
+
+    private final int lowWaterMark;
+
+    private final int highWaterMark;
+
+    private final ArrayDeque<ByteBuf> chunks = new ArrayDeque<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition readable = lock.newCondition();
+
+    private int buffered = 0;
+
+    private boolean paused = false;
+
+    private boolean ended = false;
+
+    private boolean closed = false;
+
+    private IOException failure;
+
+    RequestBodyStream(Channel channel, int lowWaterMark, int highWaterMark) {
+
+        this.channel = channel;
+        this.lowWaterMark = lowWaterMark;
+        this.highWaterMark = highWaterMark;
+    }
+
+    /**
+     * Append a chunk, the stream takes ownership of the buffer
+     *
+     * @param chunk body content
+     */
+    void offer(ByteBuf chunk) {
+
+        lock.lock();
+
+        try {
+
+            if (closed || failure != null || !chunk.isReadable()) {
+
+                chunk.release();
+                return;
+            }
+
+            chunks.add(chunk);
+            buffered += chunk.readableBytes();
+
+            if (!paused && buffered >= highWaterMark) {
+
+                paused = true;
+                channel.config().setAutoRead(false);
+            }
+
+            readable.signalAll();
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark the last chunk has arrived
+     */
+    void end() {
+
+        lock.lock();
+
+        try {
+
+            ended = true;
+            readable.signalAll();
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Abort the stream, e.g the connection is closed before the body completes, buffered chunks are released
+     *
+     * @param e cause
+     */
+    void fail(IOException e) {
+
+        lock.lock();
+
+        try {
+
+            failure = e;
+            chunks.forEach(ByteBuf::release);
+            chunks.clear();
+            buffered = 0;
+            readable.signalAll();
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+
+        return n < 0 ? -1 : one[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        if (len == 0) {
+
+            return 0;
+        }
+
+        lock.lock();
+
+        try {
+
+            ByteBuf head;
+
+            while ((head = chunks.peek()) == null) {
+
+                if (closed) {
+
+                    throw new IOException("Request body stream closed");
+                }
+
+                if (failure != null) {
+
+                    throw failure;
+                }
+
+                if (ended) {
+
+                    return -1;
+                }
+
+                try {
+
+                    readable.await();
+                } catch (InterruptedException e) {
+
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting request body");
+                }
+            }
+
+            int n = Math.min(len, head.readableBytes());
+            head.readBytes(b, off, n);
+
+            if (!head.isReadable()) {
+
+                chunks.poll();
+                head.release();
+            }
+
+            buffered -= n;
+
+            if (paused && buffered <= lowWaterMark) {
+
+                paused = false;
+                channel.config().setAutoRead(true);
+            }
+
+            return n;
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+
+        lock.lock();
+
+        try {
+
+            return buffered;
+        } finally {
+
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Release buffered chunks, chunks arriving later are discarded and reading from the channel is resumed
+     */
+    @Override
+    public void close() {
+
+        lock.lock();
+
+        try {
+
+            if (closed) {
+
+                return;
+            }
+
+            closed = true;
+            chunks.forEach(ByteBuf::release);
+            chunks.clear();
+            buffered = 0;
+
+            if (paused) {
+
+                paused = false;
+                channel.config().setAutoRead(true);
+            }
+
+            readable.signalAll();
+        } finally {
+
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+import com.fedepot.env.Env;
+import com.fedepot.mvc.annotation.Dispatch;
+import com.fedepot.mvc.route.RouteManager;
+import com.fedepot.mvc.route.Router;
+import com.fedepot.util.UrlKit;
+
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.fedepot.mvc.Constants.*;
+import static com.fedepot.mvc.http.HttpHeaderNames.CONNECTION;
+import static com.fedepot.mvc.http.HttpHeaderNames.CONTENT_LENGTH;
+import static com.fedepot.mvc.http.HttpHeaderNames.RETRY_AFTER;
+
+/**
+ * Decide which thread handles a request: the event loop itself, the default worker pool or a dedicated pool declared by {@link Dispatch}
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public class RequestDispatcher {
+
+    private final Razor razor;
+
+    private final boolean inline;
+
+    private final OverloadPolicy overloadPolicy;
+
+    private final int retryAfter;
+
+    private final int threads;
+
+    private final int queueSize;
+
+    @Getter
+    private final WorkerPool defaultPool;
+
+    private final Map<String, WorkerPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Whether any route declares its own dispatch rule, route lookup on the event loop is skipped if not
+     */
+    private volatile boolean hasRules = false;
+
+    public RequestDispatcher(Razor razor) {
+
+        Env env = razor.getEnv();
+
+        this.razor = razor;
+        this.inline = env.getBool(ENV_KEY_DISPATCH_INLINE, DEFAULT_DISPATCH_INLINE);
+        this.overloadPolicy = overloadPolicy(env);
+        this.retryAfter = env.getInt(ENV_KEY_RETRY_AFTER, DEFAULT_RETRY_AFTER);
+        this.threads = env.getInt(ENV_KEY_WORKER_THREADS, DEFAULT_WORKER_THREADS);
+        this.queueSize = env.getInt(ENV_KEY_WORKER_QUEUE, DEFAULT_WORKER_QUEUE);
+        this.defaultPool = newDefaultPool(env);
+    }
+
+    private static OverloadPolicy overloadPolicy(Env env) {
+
+        try {
+
+            return OverloadPolicy.valueOf(env.get(ENV_KEY_OVERLOAD_POLICY, DEFAULT_OVERLOAD_POLICY).toUpperCase());
+        } catch (IllegalArgumentException e) {
+
+            log.error("Unknown overload policy {}, use {} instead", env.get(ENV_KEY_OVERLOAD_POLICY, DEFAULT_OVERLOAD_POLICY), DEFAULT_OVERLOAD_POLICY);
+            return OverloadPolicy.valueOf(DEFAULT_OVERLOAD_POLICY);
+        }
+    }
+
+    private WorkerPool newDefaultPool(Env env) {
+
+        if (env.getBool(ENV_KEY_VIRTUAL_THREADS, DEFAULT_VIRTUAL_THREADS)) {
+
+            WorkerPool pool = WorkerPool.virtual("Virtual", env.getInt(ENV_KEY_VIRTUAL_MAX_CONCURRENCY, DEFAULT_VIRTUAL_MAX_CONCURRENCY));
+
+            if (pool != null) {
+
+                log.info("Requests are handled on virtual threads");
+
+                return pool;
+            }
+
+            log.warn("Virtual threads are not supported by current JVM, use worker threads pool instead");
+        }
+
+        return new WorkerPool("Worker", threads, queueSize);
+    }
+
+    /**
+     * Prepare the dedicated pool declared by a route, called when routes are registered
+     *
+     * @param router router
+     */
+    public void register(Router router) {
+
+        Dispatch rule = router.getDispatch();
+
+        if (rule == null) {
+
+            return;
+        }
+
+        hasRules = true;
+
+        if (!rule.inline() && !rule.value().isEmpty()) {
+
+            pools.computeIfAbsent(rule.value(), name -> new WorkerPool(name, rule.threads() > 0 ? rule.threads() : threads, rule.queue() > 0 ? rule.queue() : queueSize));
+        }
+    }
+
+    /**
+     * Run the handling task of a request, never blocks the calling event loop
+     *
+     * @param ctx channel context
+     * @param request full http request
+     * @param task handling task
+     */
+    void dispatch(ChannelHandlerContext ctx, FullHttpRequest request, Runnable task) {
+
+        Dispatch rule = hasRules ? ruleOf(request) : null;
+
+        // reading a streaming body waits for the event loop, it must never run on the event loop
+        boolean streaming = request instanceof StreamingHttpRequest;
+
+        if (!streaming && (rule != null ? rule.inline() : inline)) {
+
+            task.run();
+            return;
+        }
+
+        WorkerPool pool = rule == null || rule.value().isEmpty() ? defaultPool : pools.get(rule.value());
+
+        if (!pool.execute(task)) {
+
+            overload(ctx, request, pool);
+        }
+    }
+
+    private Dispatch ruleOf(FullHttpRequest request) {
+
+        String path = UrlKit.purgeUrlQueries(request.uri());
+
+        if (UrlKit.isStaticFile(razor.getStatics(), path)) {
+
+            return null;
+        }
+
+        Router router = RouteManager.getInstance(razor).findRoute(path, request.method().name().toUpperCase());
+
+        return router != null ? router.getDispatch() : null;
+    }
+
+    private void overload(ChannelHandlerContext ctx, FullHttpRequest request, WorkerPool pool) {
+
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        request.release();
+
+        if (request instanceof StreamingHttpRequest) {
+
+            // discard the body still arriving and resume reading, so the connection could serve next request
+            ((StreamingHttpRequest) request).getBody().close();
+        }
+
+        log.debug("{} pool is full, {} request", pool.getName(), overloadPolicy == OverloadPolicy.DROP ? "drop" : "reject");
+
+        if (overloadPolicy == OverloadPolicy.DROP) {
+
+            ctx.close();
+            return;
+        }
+
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.SERVICE_UNAVAILABLE);
+        response.headers().set(RETRY_AFTER, retryAfter);
+        response.headers().set(CONTENT_LENGTH, 0);
+
+        if (keepAlive) {
+
+            response.headers().set(CONNECTION, "keep-alive");
+            ctx.writeAndFlush(response);
+        } else {
+
+            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Dedicated pool by name
+     *
+     * @param name pool name declared by {@link Dispatch}
+     * @return worker pool, null if not declared
+     */
+    public WorkerPool pool(String name) {
+
+        return pools.get(name);
+    }
+
+    public Collection<WorkerPool> pools() {
+
+        return Collections.unmodifiableCollection(pools.values());
+    }
+
+    public void shutdown() {
+
+        defaultPool.shutdown();
+        pools.values().forEach(WorkerPool::shutdown);
+    }
+}
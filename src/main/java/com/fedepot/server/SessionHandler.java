@@ -28,18 +28,21 @@ import com.fedepot.env.Env;
 import com.fedepot.mvc.http.*;
 
 import com.groupon.uuid.UUID;
+import lombok.extern.slf4j.Slf4j;
 
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 import static com.fedepot.mvc.Constants.*;
 
 /**
- * Session handler
+ * Session handler, a changed session is stored once at the end of request, or later by a write-behind queue
  *
  * @author Touchumind
  * @since 0.0.1
  */
+@Slf4j
 public class SessionHandler {
 
     /**
@@ -54,50 +57,75 @@ public class SessionHandler {
 
     private SessionManager sessionManager;
 
+    /**
+     * Write-behind queue, null for storing sessions at the end of request
+     */
+    private SessionWriter writer;
+
+    private final LongAdder reads = new LongAdder();
+
+    private final LongAdder writes = new LongAdder();
 
-    SessionHandler(Razor razor) {
+
+    public SessionHandler(Razor razor) {
 
         Env env = razor.getEnv();
 
         this.sessionKey = env.get(ENV_KEY_SESSION_KEY, DEFAULT_SESSION_KEY);
         this.timeout = env.getInt(ENV_KEY_SESSION_TIMEOUT, DEFAULT_SESSION_TIMEOUT);
         this.sessionManager = razor.getSessionManager();
+
+        if (env.getBool(ENV_KEY_SESSION_WRITE_BEHIND, DEFAULT_SESSION_WRITE_BEHIND)) {
+
+            this.writer = new SessionWriter(this::store, env.getInt(ENV_KEY_SESSION_WRITE_BEHIND_INTERVAL, DEFAULT_SESSION_WRITE_BEHIND_INTERVAL));
+        }
     }
 
+    /**
+     * Get session of request, a request without a valid session cookie gets a {@link LazySession}
+     * which is only stored and sent to client once something is written to it
+     *
+     * @param request request
+     * @return session
+     */
     public Session getSession(Request request) {
 
-        Session session = null;
-
         Optional<String> sessionId = request.cookie(sessionKey);
 
         Response response = HttpContext.response();
 
         if (sessionId.isPresent()) {
 
-            session = sessionManager.get(sessionId.get());
-        }
+            Session session = writer != null ? writer.pending(sessionId.get()) : null;
+
+            if (session == null) {
+
+                reads.increment();
+                session = sessionManager.get(sessionId.get());
+            }
+
+            if (session != null) {
 
-        if (session != null) {
+                if (session.expireAt() >= Instant.now().getEpochSecond()) {
 
-            if (session.expireAt() < Instant.now().getEpochSecond()) {
+                    return session;
+                }
 
                 removeSession(session, response);
             }
-
-            return session;
         }
 
-        return createSession(request, response);
+        return new LazySession(this, request, response);
     }
 
-    private Session createSession(Request request, Response response) {
+    Session createSession(Request request, Response response) {
 
         String sessionId = new UUID().toString();
         long now = Instant.now().getEpochSecond();
         long expires = now + timeout;
 
+        // stored when the request is committed
         Session session = new HttpSession(sessionId, now, expires);
-        sessionManager.add(session);
 
         Cookie cookie = Cookie.builder().name(sessionKey).value(sessionId).httpOnly(true).maxAge(timeout).build();
         request.cookie(cookie);
@@ -106,11 +134,96 @@ public class SessionHandler {
         return session;
     }
 
+    /**
+     * Store session of request if it has been changed, called once at the end of request
+     *
+     * @param session session of request
+     */
+    public void commit(Session session) {
+
+        if (session instanceof LazySession) {
+
+            session = ((LazySession) session).target();
+        }
+
+        if (session == null || !session.isDirty()) {
+
+            return;
+        }
+
+        if (writer != null) {
+
+            writer.offer(session);
+            return;
+        }
+
+        try {
+
+            session.markClean();
+            store(session);
+        } catch (Exception e) {
+
+            log.error("Store session {} failed", session.id(), e);
+        }
+    }
+
+    private void store(Session session) {
+
+        writes.increment();
+        sessionManager.add(session);
+    }
+
     private void removeSession(Session session, Response response) {
 
-        session.attributes().clear();
+        if (writer != null) {
+
+            writer.cancel(session.id());
+        }
+
+        session.clearAttributes();
         sessionManager.remove(session.id());
 
-        response.cookie(Cookie.builder().name(session.id()).maxAge(-1).build());
+        response.cookie(Cookie.builder().name(sessionKey).maxAge(-1).build());
+    }
+
+    /**
+     * Flush pending sessions when app stops
+     */
+    public void shutdown() {
+
+        if (writer != null) {
+
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Sessions read from session manager
+     *
+     * @return count
+     */
+    public long reads() {
+
+        return reads.sum();
+    }
+
+    /**
+     * Sessions written to session manager
+     *
+     * @return count
+     */
+    public long writes() {
+
+        return writes.sum();
+    }
+
+    /**
+     * Session changes merged into a pending write instead of being written again
+     *
+     * @return count
+     */
+    public long coalescedWrites() {
+
+        return writer != null ? writer.coalesced() : 0;
     }
 }
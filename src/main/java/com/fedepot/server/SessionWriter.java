@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.fedepot.mvc.http.Session;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind queue of changed sessions, several changes of one session before a flush are stored only once
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+class SessionWriter {
+
+    /**
+     * Sessions waiting to be stored keyed by session id, a session stays here until it is stored without changes in between
+     */
+    private final Map<String, Session> pending = new ConcurrentHashMap<>();
+
+    private final Consumer<Session> store;
+
+    private final ScheduledExecutorService executor;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    SessionWriter(Consumer<Session> store, long intervalMillis) {
+
+        this.store = store;
+        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("Razor-session-writer-%d").setDaemon(true).build());
+        this.executor.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue a changed session
+     *
+     * @param session session
+     */
+    void offer(Session session) {
+
+        if (pending.put(session.id(), session) != null) {
+
+            coalesced.increment();
+        }
+    }
+
+    /**
+     * Session which is waiting to be stored, it is newer than the stored one
+     *
+     * @param id session id
+     * @return session, null if none
+     */
+    Session pending(String id) {
+
+        return pending.get(id);
+    }
+
+    void cancel(String id) {
+
+        pending.remove(id);
+    }
+
+    long coalesced() {
+
+        return coalesced.sum();
+    }
+
+    void flush() {
+
+        for (Session session : pending.values()) {
+
+            try {
+
+                session.markClean();
+                store.accept(session);
+            } catch (Exception e) {
+
+                log.error("Store session {} failed", session.id(), e);
+                continue;
+            }
+
+            // changed again while storing, keep it for next flush
+            if (!session.isDirty()) {
+
+                pending.remove(session.id(), session);
+            }
+        }
+    }
+
+    /**
+     * Stop the background writer and store all pending sessions
+     */
+    void shutdown() {
+
+        executor.shutdown();
+
+        try {
+
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.route.RouteManager;
+import com.fedepot.mvc.route.Router;
+import com.fedepot.util.UrlKit;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.LastHttpContent;
+
+import java.io.IOException;
+
+import static com.fedepot.mvc.Constants.*;
+
+/**
+ * Pass requests of streaming routes to the request handler as soon as headers arrive, bypassing the aggregator, and feed
+ * the following body chunks to the request body stream. Other requests go through the aggregator untouched
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class StreamingBodyHandler extends ChannelInboundHandlerAdapter {
+
+    private final Razor razor;
+
+    private final int lowWaterMark;
+
+    private final int highWaterMark;
+
+    /**
+     * Body of the streaming request in progress on this channel
+     */
+    private RequestBodyStream body;
+
+    StreamingBodyHandler(Razor razor) {
+
+        this.razor = razor;
+        this.lowWaterMark = razor.getEnv().getInt(ENV_KEY_STREAMING_LOW_WATER_MARK, DEFAULT_STREAMING_LOW_WATER_MARK);
+        this.highWaterMark = razor.getEnv().getInt(ENV_KEY_STREAMING_HIGH_WATER_MARK, DEFAULT_STREAMING_HIGH_WATER_MARK);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+
+        if (msg instanceof HttpRequest && !(msg instanceof FullHttpRequest) && isStreaming((HttpRequest) msg)) {
+
+            body = new RequestBodyStream(ctx.channel(), lowWaterMark, highWaterMark);
+
+            // skip the aggregator, handlers after it receive the request before its body
+            ctx.pipeline().context("aggregator").fireChannelRead(new StreamingHttpRequest((HttpRequest) msg, body));
+            return;
+        }
+
+        if (body != null && msg instanceof HttpContent) {
+
+            // body stream takes ownership of the content buffer
+            body.offer(((HttpContent) msg).content());
+
+            if (msg instanceof LastHttpContent) {
+
+                body.end();
+                body = null;
+            }
+
+            return;
+        }
+
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+
+        if (body != null) {
+
+            body.fail(new IOException("Connection closed before request body completed"));
+            body = null;
+        }
+
+        super.channelInactive(ctx);
+    }
+
+    private boolean isStreaming(HttpRequest request) {
+
+        String path = UrlKit.purgeUrlQueries(request.uri());
+        Router router = RouteManager.getInstance(razor).findRoute(path, request.method().name().toUpperCase());
+
+        return router != null && router.isStreaming();
+    }
+}
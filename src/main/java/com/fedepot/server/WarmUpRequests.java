@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+
+import static io.netty.handler.codec.http.HttpHeaderNames.HOST;
+
+/**
+ * Send synthetic requests through the request handler before the server is listening, responses are discarded
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+public final class WarmUpRequests {
+
+    private WarmUpRequests() {
+
+    }
+
+    /**
+     * Fire GET requests to each path in the calling thread
+     *
+     * @param razor Razor instance
+     * @param paths request paths
+     * @param times requests for each path
+     * @return count of requests handled
+     */
+    public static int fire(Razor razor, Collection<String> paths, int times) {
+
+        HttpServerHandler handler = new HttpServerHandler(razor);
+        int count = 0;
+
+        for (String path : paths) {
+
+            for (int i = 0; i < times; i++) {
+
+                // a channel for each request, handler may close it after responding
+                EmbeddedChannel channel = new EmbeddedChannel(handler);
+                ChannelHandlerContext ctx = channel.pipeline().firstContext();
+
+                FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+                request.headers().set(HOST, "localhost");
+
+                try {
+
+                    handler.handleMessage(ctx, request);
+                    count++;
+                } catch (Exception e) {
+
+                    log.warn("Warm-up request {} failed: {}", path, e.getMessage());
+                } finally {
+
+                    channel.finishAndReleaseAll();
+                }
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.controller.WebSocketController;
+import com.fedepot.mvc.http.WebSocketSession;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.websocketx.*;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.fedepot.mvc.Constants.*;
+
+/**
+ * Handle frames of one upgraded WebSocket connection on its event loop, it replaces the http request handler in
+ * pipeline after handshake
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+@Slf4j
+class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocketFrame> {
+
+    private final Razor razor;
+
+    private final WebSocketServerHandshaker handshaker;
+
+    private final Class<?> controllerClass;
+
+    private final WebSocketController controller;
+
+    private final WebSocketSession session;
+
+    private boolean closed = false;
+
+    private WebSocketFrameHandler(Razor razor, WebSocketServerHandshaker handshaker, Class<?> controllerClass, WebSocketController controller, WebSocketSession session) {
+
+        this.razor = razor;
+        this.handshaker = handshaker;
+        this.controllerClass = controllerClass;
+        this.controller = controller;
+        this.session = session;
+    }
+
+    /**
+     * Complete handshake for an upgrade request and switch the channel to WebSocket frames
+     *
+     * @param razor Razor instance
+     * @param ctx context of the http request handler
+     * @param request upgrade request, released by caller
+     * @param controllerClass controller of the request path
+     */
+    static void upgrade(Razor razor, ChannelHandlerContext ctx, FullHttpRequest request, Class<?> controllerClass) {
+
+        QueryStringDecoder decoder = new QueryStringDecoder(request.uri());
+        boolean ssl = razor.getEnv().getBool(ENV_KEY_SSL, DEFAULT_SSL_ENABLE);
+        String location = (ssl ? "wss://" : "ws://") + request.headers().get(HttpHeaderNames.HOST) + decoder.path();
+        int maxFrameSize = razor.getEnv().getInt(ENV_KEY_MAX_CONTENT_LENGTH, DEFAULT_MAX_CONTENT_LENGTH);
+
+        WebSocketServerHandshaker handshaker = new WebSocketServerHandshakerFactory(location, null, true, maxFrameSize).newHandshaker(request);
+
+        if (handshaker == null) {
+
+            WebSocketServerHandshakerFactory.sendUnsupportedVersionResponse(ctx.channel());
+            return;
+        }
+
+        Object controller = razor.getControllerProvider().acquire(controllerClass);
+
+        if (controller == null) {
+
+            ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.INTERNAL_SERVER_ERROR)).addListener(ChannelFutureListener.CLOSE);
+            return;
+        }
+
+        WebSocketSession session = new WebSocketSession(ctx.channel(), decoder.path(), decoder.parameters(), new DefaultHttpHeaders().set(request.headers()), razor.getWebSocketGroups());
+        WebSocketFrameHandler handler = new WebSocketFrameHandler(razor, handshaker, controllerClass, (WebSocketController) controller, session);
+
+        // handshaker swaps http codec for frame codec and removes the aggregator and the compressor
+        ChannelFuture future = handshaker.handshake(ctx.channel(), request);
+        ChannelPipeline pipeline = ctx.pipeline();
+
+        if (pipeline.get(WebSocketFrameAggregator.class) == null) {
+
+            pipeline.addAfter("wsdecoder", "wsaggregator", new WebSocketFrameAggregator(maxFrameSize));
+        }
+
+        pipeline.replace(ctx.name(), "websocket", handler);
+
+        future.addListener(result -> {
+
+            if (result.isSuccess()) {
+
+                razor.getWebSocketGroups().register(session.channel());
+                handler.onOpen();
+            } else {
+
+                handler.onError(result.cause());
+                ctx.channel().close();
+            }
+        });
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) throws Exception {
+
+        try {
+
+            if (frame instanceof TextWebSocketFrame) {
+
+                controller.onMessage(session, ((TextWebSocketFrame) frame).text());
+            } else if (frame instanceof BinaryWebSocketFrame) {
+
+                controller.onBinary(session, frame.content());
+            } else if (frame instanceof PingWebSocketFrame) {
+
+                ctx.writeAndFlush(new PongWebSocketFrame(frame.content().retain()));
+            } else if (frame instanceof CloseWebSocketFrame) {
+
+                CloseWebSocketFrame closeFrame = (CloseWebSocketFrame) frame;
+                onClose(closeFrame.statusCode(), closeFrame.reasonText());
+                handshaker.close(ctx.channel(), closeFrame.retain());
+            }
+        } catch (Exception e) {
+
+            onError(e);
+            session.close(1011, "Internal error");
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+
+        onClose(1006, "");
+
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+
+        onError(cause);
+
+        if (cause instanceof CorruptedFrameException) {
+
+            session.close(1002, "Protocol error");
+        } else {
+
+            ctx.close();
+        }
+    }
+
+    private void onOpen() {
+
+        try {
+
+            controller.onOpen(session);
+        } catch (Exception e) {
+
+            onError(e);
+            session.close(1011, "Internal error");
+        }
+    }
+
+    private void onError(Throwable cause) {
+
+        try {
+
+            controller.onError(session, cause);
+        } catch (Exception e) {
+
+            log.error("WebSocket error callback failed", e);
+        }
+    }
+
+    /**
+     * Notify controller once and give it back to the provider
+     */
+    private void onClose(int code, String reason) {
+
+        if (closed) {
+
+            return;
+        }
+
+        closed = true;
+
+        try {
+
+            controller.onClose(session, code, reason);
+        } catch (Exception e) {
+
+            onError(e);
+        } finally {
+
+            razor.getControllerProvider().release(controllerClass, controller);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package com.fedepot.server;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.Getter;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Worker threads for requests, tasks beyond the capacity are rejected rather than blocking the event loop. A pool is either
+ * fixed size threads with a bounded queue, or a virtual thread per task with bounded concurrency when the JVM supports it
+ *
+ * @author Touchumind
+ * @since 0.0.11
+ */
+public class WorkerPool {
+
+    @Getter
+    private final String name;
+
+    private final ExecutorService executor;
+
+    /**
+     * Permits of concurrent tasks for virtual threads, null for fixed threads pool which is bounded by its queue
+     */
+    private final Semaphore permits;
+
+    private final LongAdder started = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+
+    WorkerPool(String name, int threads, int queueSize) {
+
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("Razor-" + name + "-pool-%d").build();
+
+        this.name = name;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.permits = null;
+    }
+
+    private WorkerPool(String name, ExecutorService executor, int maxConcurrency) {
+
+        this.name = name;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * Pool starting a virtual thread for each task
+     *
+     * @param name pool name
+     * @param maxConcurrency max tasks running at the same time
+     * @return worker pool, null if virtual threads are not supported by the JVM
+     */
+    static WorkerPool virtual(String name, int maxConcurrency) {
+
+        try {
+
+            // looked up reflectively so the framework still builds and runs on Java 8
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+
+            return new WorkerPool(name, (ExecutorService) factory.invoke(null), maxConcurrency);
+        } catch (ReflectiveOperationException e) {
+
+            return null;
+        }
+    }
+
+    public boolean isVirtual() {
+
+        return permits != null;
+    }
+
+    /**
+     * Queue a task without blocking
+     *
+     * @param task task to run
+     * @return false if the queue is full
+     */
+    boolean execute(Runnable task) {
+
+        long queuedAt = System.nanoTime();
+
+        if (permits != null && !permits.tryAcquire()) {
+
+            rejected.increment();
+
+            return false;
+        }
+
+        try {
+
+            executor.execute(() -> {
+
+                long waited = System.nanoTime() - queuedAt;
+                started.increment();
+                waitNanos.add(waited);
+                maxWaitNanos.accumulate(waited);
+
+                try {
+
+                    task.run();
+                } finally {
+
+                    if (permits != null) {
+
+                        permits.release();
+                    }
+                }
+            });
+
+            return true;
+        } catch (RejectedExecutionException e) {
+
+            if (permits != null) {
+
+                permits.release();
+            }
+
+            rejected.increment();
+
+            return false;
+        }
+    }
+
+    void shutdown() {
+
+        executor.shutdown();
+    }
+
+    /**
+     * @return tasks waiting in the queue, always 0 for virtual threads which start immediately
+     */
+    public int queueDepth() {
+
+        return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+    }
+
+    /**
+     * @return tasks picked up by worker threads
+     */
+    public long started() {
+
+        return started.sum();
+    }
+
+    /**
+     * @return tasks rejected because the queue is full
+     */
+    public long rejected() {
+
+        return rejected.sum();
+    }
+
+    /**
+     * @return average time tasks waited in the queue, in nanoseconds
+     */
+    public long averageWaitNanos() {
+
+        long count = started.sum();
+
+        return count == 0 ? 0 : waitNanos.sum() / count;
+    }
+
+    /**
+     * @return longest time a task waited in the queue, in nanoseconds
+     */
+    public long maxWaitNanos() {
+
+        return maxWaitNanos.get();
+    }
+}
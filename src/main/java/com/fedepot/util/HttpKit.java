@@ -25,6 +25,9 @@ package com.fedepot.util;
 
 import io.netty.handler.codec.http.HttpHeaders;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static com.fedepot.mvc.http.HttpHeaderNames.*;
 
 
@@ -77,4 +80,45 @@ public class HttpKit {
 
         return "127.0.0.1";
     }
+
+    /**
+     * Parse cookie header to key-value pairs, values are kept as sent since cookies are written without encoding
+     *
+     * Pairs are separated by semicolons, surrounding whitespace and double quotes of a value are removed, the first
+     * of duplicate names wins as browsers send the cookie of the most specific path first.
+     *
+     * @param cookie raw cookie header
+     * @return cookie map, empty for none cookie
+     */
+    public static Map<String, String> parseCookies(String cookie) {
+
+        Map<String, String> cookieMap = new HashMap<>();
+
+        if (cookie == null || cookie.isEmpty()) {
+
+            return cookieMap;
+        }
+
+        for (String pair : cookie.split(";")) {
+
+            int eq = pair.indexOf('=');
+            String name = (eq < 0 ? pair : pair.substring(0, eq)).trim();
+
+            if (name.isEmpty()) {
+
+                continue;
+            }
+
+            String value = eq < 0 ? "" : pair.substring(eq + 1).trim();
+
+            if (value.length() > 1 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+
+                value = value.substring(1, value.length() - 1);
+            }
+
+            cookieMap.putIfAbsent(name, value);
+        }
+
+        return cookieMap;
+    }
 }
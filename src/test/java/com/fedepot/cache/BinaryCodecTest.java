@@ -0,0 +1,140 @@
+package com.fedepot.cache;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class BinaryCodecTest {
+
+    private static Object roundTrip(Object value) {
+
+        ByteBuf buf = Unpooled.buffer();
+
+        try {
+
+            BinaryCodec.encode(value, buf);
+            Object decoded = BinaryCodec.decode(buf);
+
+            // nothing is left behind for a following value
+            assertEquals(buf.writerIndex(), buf.readerIndex());
+
+            return decoded;
+        } finally {
+
+            buf.release();
+        }
+    }
+
+    @Test
+    public void scalarsKeepValueAndType() {
+
+        assertNull(roundTrip(null));
+        assertEquals("", roundTrip(""));
+        assertEquals("razor 你好 😀", roundTrip("razor 你好 😀"));
+        assertEquals(Long.MIN_VALUE, roundTrip(Long.MIN_VALUE));
+        assertEquals(Integer.MAX_VALUE, roundTrip(Integer.MAX_VALUE));
+        assertEquals(-0.5d, roundTrip(-0.5d));
+        assertEquals(Boolean.TRUE, roundTrip(true));
+        assertEquals(Boolean.FALSE, roundTrip(false));
+    }
+
+    @Test
+    public void bytesOfEveryLengthPrefixSize() {
+
+        // lengths around the one, two and three byte boundaries of the var int prefix
+        for (int length : new int[]{0, 1, 127, 128, 16383, 16384, 100000}) {
+
+            byte[] bytes = new byte[length];
+            Arrays.fill(bytes, (byte) length);
+
+            assertArrayEquals(bytes, (byte[]) roundTrip(bytes));
+        }
+    }
+
+    @Test
+    public void otherSerializableValuesUseJavaSerialization() {
+
+        List<Object> list = new ArrayList<>(Arrays.asList("a", 1, 2L));
+        Date date = new Date(1500000000000L);
+
+        assertEquals(list, roundTrip(list));
+        assertEquals(date, roundTrip(date));
+
+        // types without their own tag are serialized too
+        assertEquals((short) 7, roundTrip((short) 7));
+        assertEquals(1.5f, roundTrip(1.5f));
+    }
+
+    @Test
+    public void valuesAreReadInWriteOrder() {
+
+        ByteBuf buf = Unpooled.buffer();
+
+        try {
+
+            BinaryCodec.encode("first", buf);
+            BinaryCodec.encode(2L, buf);
+            BinaryCodec.encode(new byte[]{3}, buf);
+            BinaryCodec.encode(null, buf);
+
+            assertEquals("first", BinaryCodec.decode(buf));
+            assertEquals(2L, BinaryCodec.decode(buf));
+            assertArrayEquals(new byte[]{3}, (byte[]) BinaryCodec.decode(buf));
+            assertNull(BinaryCodec.decode(buf));
+            assertFalse(buf.isReadable());
+        } finally {
+
+            buf.release();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonSerializableValueIsRejected() {
+
+        roundTrip(new Object());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownTagIsRejected() {
+
+        ByteBuf buf = Unpooled.buffer().writeByte(42);
+
+        try {
+
+            BinaryCodec.decode(buf);
+        } finally {
+
+            buf.release();
+        }
+    }
+}
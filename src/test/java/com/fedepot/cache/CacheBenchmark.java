@@ -0,0 +1,110 @@
+package com.fedepot.cache;
+
+import com.fedepot.Razor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Throughput of get, put and incr of {@link MemoryCache} and {@link Ehcache} over a fixed key set, main method runs
+ * it with 1, 8 and 32 threads
+ *
+ * Run with the main method, test classpath is required, add `-p provider=memory` to the jmh command line to skip a provider
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheBenchmark {
+
+    private static final String GROUP = "bench";
+
+    private static final int KEYS = 1024;
+
+    @Param({CacheFactory.PROVIDER_MEMORY, CacheFactory.PROVIDER_EHCACHE})
+    public String provider;
+
+    private Cache cache;
+
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+
+        cache = CacheFactory.newInstance(Razor.self().getEnv(), GROUP, provider);
+        keys = new String[KEYS];
+
+        for (int i = 0; i < KEYS; i++) {
+
+            keys[i] = "key" + i;
+            cache.add(keys[i], "value" + i, 0, GROUP);
+            cache.add("counter" + i, 0L, 0, GROUP);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        cache.clear(GROUP);
+    }
+
+    private String key() {
+
+        return keys[ThreadLocalRandom.current().nextInt(KEYS)];
+    }
+
+    @Benchmark
+    public Object get() {
+
+        return cache.get(key(), GROUP);
+    }
+
+    @Benchmark
+    public void put() {
+
+        cache.add(key(), "value", 0, GROUP);
+    }
+
+    @Benchmark
+    public long incr() {
+
+        return cache.incr("counter" + ThreadLocalRandom.current().nextInt(KEYS), GROUP, 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        for (int threads : new int[]{1, 8, 32}) {
+
+            new Runner(new OptionsBuilder().include(CacheBenchmark.class.getSimpleName()).threads(threads).build()).run();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.fedepot.cache;
+
+import com.fedepot.Razor;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class CacheBulkTest {
+
+    private static List<Cache> caches(String group) {
+
+        List<Cache> caches = new ArrayList<>();
+        caches.add(MemoryCache.newInstance(Razor.self().getEnv(), group));
+        caches.add(OffHeapCache.newInstance(Razor.self().getEnv(), group));
+
+        return caches;
+    }
+
+    private static Map<String, Object> values(int count) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+
+        for (int i = 0; i < count; i++) {
+
+            values.put("key" + i, "value" + i);
+        }
+
+        return values;
+    }
+
+    @Test
+    public void getAllReturnsOnlyPresentKeys() {
+
+        for (Cache cache : caches("bulk")) {
+
+            cache.putAll(values(10), 60, "bulk");
+
+            Map<String, Object> found = cache.getAll(Arrays.asList("key1", "key5", "missing"), "bulk");
+
+            assertEquals(cache.getClass().getSimpleName(), 2, found.size());
+            assertEquals("value1", found.get("key1"));
+            assertEquals("value5", found.get("key5"));
+            assertFalse(found.containsKey("missing"));
+            cache.clear("bulk");
+        }
+    }
+
+    @Test
+    public void putAllIsVisibleToSingleReads() {
+
+        for (Cache cache : caches("bulk-put")) {
+
+            cache.putAll(values(100), 60, "bulk-put");
+
+            for (int i = 0; i < 100; i++) {
+
+                assertEquals("value" + i, cache.get("key" + i, "bulk-put").orElse(null));
+            }
+
+            cache.clear("bulk-put");
+        }
+    }
+
+    @Test
+    public void deleteAllRemovesOnlyListedKeys() {
+
+        for (Cache cache : caches("bulk-delete")) {
+
+            cache.putAll(values(10), 60, "bulk-delete");
+            cache.deleteAll(Arrays.asList("key0", "key1", "missing"), "bulk-delete");
+
+            assertTrue(cache.getAll(Arrays.asList("key0", "key1"), "bulk-delete").isEmpty());
+            assertEquals(8, cache.getAll(values(10).keySet(), "bulk-delete").size());
+            cache.clear("bulk-delete");
+        }
+    }
+
+    @Test
+    public void bulkOperationsKeepGroupsApart() {
+
+        for (Cache cache : caches("bulk-a")) {
+
+            caches("bulk-b");
+            cache.putAll(values(3), 60, "bulk-a");
+
+            assertTrue(cache.getAll(values(3).keySet(), "bulk-b").isEmpty());
+
+            cache.deleteAll(values(3).keySet(), "bulk-b");
+            assertEquals(3, cache.getAll(values(3).keySet(), "bulk-a").size());
+            cache.clear("bulk-a");
+        }
+    }
+
+    @Test
+    public void defaultMethodsUseDefaultGroup() {
+
+        for (Cache cache : caches(Cache.DEFAULT_GROUP)) {
+
+            cache.putAll(Collections.singletonMap("bulk-default", "value"), 60);
+
+            assertEquals("value", cache.get("bulk-default", Cache.DEFAULT_GROUP).orElse(null));
+            assertEquals("value", cache.getAll(Collections.singleton("bulk-default")).get("bulk-default"));
+
+            cache.deleteAll(Collections.singleton("bulk-default"));
+            assertFalse(cache.get("bulk-default").isPresent());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.fedepot.cache;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class CacheRegionTest {
+
+    @Test
+    public void readEntriesArePromotedAndSurviveOneTimeWrites() {
+
+        CacheRegion region = new CacheRegion(10);
+
+        for (int i = 0; i < 10; i++) {
+
+            region.put("key" + i, i, 0);
+        }
+
+        // reads are replayed from a lossy buffer about once every buffer length, read often enough to be replayed
+        for (int round = 0; round < 10000; round++) {
+
+            for (int i = 0; i < 5; i++) {
+
+                assertNotNull(region.get("key" + i));
+            }
+        }
+
+        for (int i = 10; i < 20; i++) {
+
+            region.put("key" + i, i, 0);
+        }
+
+        assertEquals(10, region.size());
+        assertEquals(10, region.evictions());
+
+        for (int i = 0; i < 5; i++) {
+
+            assertEquals(i, region.get("key" + i));
+        }
+
+        for (int i = 5; i < 10; i++) {
+
+            assertNull(region.get("key" + i));
+        }
+    }
+
+    @Test
+    public void unreadEntriesAreEvictedOldestFirst() {
+
+        CacheRegion region = new CacheRegion(3);
+
+        for (int i = 0; i < 5; i++) {
+
+            region.put("key" + i, i, 0);
+        }
+
+        assertNull(region.get("key0"));
+        assertNull(region.get("key1"));
+        assertEquals(2, region.get("key2"));
+        assertEquals(4, region.get("key4"));
+    }
+
+    @Test
+    public void weightIsBoundedAndEveryRemovalIsNotifiedOnce() {
+
+        AtomicInteger removed = new AtomicInteger();
+        CacheRegion region = new CacheRegion(100, value -> 10, value -> removed.incrementAndGet());
+
+        for (int i = 0; i < 20; i++) {
+
+            region.put("key" + i, i, 0);
+            assertTrue(region.weight() <= region.maxWeight());
+        }
+
+        assertEquals(100, region.weight());
+        assertEquals(10, region.evictions());
+        assertEquals(10, removed.get());
+
+        // replace, remove and clear notify the old values
+        region.put("key19", "new", 0);
+        assertEquals(11, removed.get());
+
+        region.remove("key19");
+        region.remove("key19");
+        assertEquals(12, removed.get());
+
+        region.clear();
+        assertEquals(21, removed.get());
+        assertEquals(0, region.weight());
+        assertEquals(0, region.size());
+    }
+
+    @Test
+    public void expiredEntryIsRemovedOnRead() throws Exception {
+
+        AtomicInteger removed = new AtomicInteger();
+        CacheRegion region = new CacheRegion(10, value -> 1, value -> removed.incrementAndGet());
+
+        region.put("short", "value", 1);
+        region.put("forever", "value", 0);
+        assertEquals("value", region.get("short"));
+
+        Thread.sleep(1100);
+
+        assertNull(region.get("short"));
+        assertEquals("value", region.get("forever"));
+        assertEquals(1, region.size());
+        assertEquals(1, region.weight());
+        assertEquals(1, removed.get());
+    }
+
+    @Test
+    public void expiredCounterIsCreatedAgain() throws Exception {
+
+        CacheRegion region = new CacheRegion(10);
+
+        assertEquals(-1, region.add("counter", 1, false, 1));
+        assertEquals(5, region.add("counter", 5, true, 1));
+        assertEquals(6, region.add("counter", 1, true, 1));
+
+        Thread.sleep(1100);
+
+        assertEquals(-1, region.add("counter", 1, false, 1));
+        assertEquals(2, region.add("counter", 2, true, 1));
+    }
+
+    @Test
+    public void concurrentIncrementsAreNotLost() throws Exception {
+
+        int threads = 16;
+        int increments = 10000;
+        CacheRegion region = new CacheRegion(10);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+
+            // the key is absent at first, so threads also race to create it
+            for (int i = 0; i < threads; i++) {
+
+                futures.add(executor.submit(() -> {
+
+                    barrier.await();
+
+                    for (int j = 0; j < increments; j++) {
+
+                        region.add("counter", 1, true, 0);
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+
+            executor.shutdownNow();
+        }
+
+        assertEquals((long) threads * increments, ((Number) region.get("counter")).longValue());
+        assertEquals(1, region.size());
+    }
+}
@@ -0,0 +1,151 @@
+package com.fedepot.cache;
+
+import com.fedepot.Razor;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class IncrOrCreateTest {
+
+    private static final int THREADS = 16;
+
+    private static final int INCREMENTS = 5000;
+
+    private static Cache ehcache(String group) {
+
+        try {
+
+            return Ehcache.newInstance(group);
+        } catch (Throwable e) {
+
+            // ehcache could not start without its optional runtime dependencies
+            Assume.assumeNoException(e);
+
+            return null;
+        }
+    }
+
+    /**
+     * All threads start together on an absent key, so they race to create it as well as to add to it
+     */
+    private static void assertNoLostUpdates(Cache cache, String group) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+
+            for (int i = 0; i < THREADS; i++) {
+
+                int by = i % 2 == 0 ? 1 : 2;
+
+                futures.add(executor.submit(() -> {
+
+                    barrier.await();
+
+                    for (int j = 0; j < INCREMENTS; j++) {
+
+                        cache.incrOrCreate("counter", group, by, 60);
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+
+            executor.shutdownNow();
+        }
+
+        long expected = (long) (THREADS / 2) * INCREMENTS * 3;
+
+        assertEquals(cache.getClass().getSimpleName(), expected, ((Number) cache.get("counter", group).orElse(0)).longValue());
+        assertEquals(expected + 1, cache.incr("counter", group, 1));
+
+        cache.delete("counter", group);
+    }
+
+    private static void assertCreatedAgainAfterExpiry(Cache cache, String group) throws Exception {
+
+        assertEquals(-1, cache.incr("ttl", group, 1));
+        assertEquals(3, cache.incrOrCreate("ttl", group, 3, 1));
+        assertEquals(4, cache.incrOrCreate("ttl", group, 1, 1));
+
+        Thread.sleep(1100);
+
+        assertFalse(cache.get("ttl", group).isPresent());
+        assertEquals(-1, cache.incr("ttl", group, 1));
+        assertEquals(2, cache.incrOrCreate("ttl", group, 2, 1));
+
+        cache.delete("ttl", group);
+    }
+
+    @Test
+    public void memoryCacheKeepsExactSum() throws Exception {
+
+        assertNoLostUpdates(MemoryCache.newInstance(Razor.self().getEnv(), "incr"), "incr");
+    }
+
+    @Test
+    public void offHeapCacheKeepsExactSum() throws Exception {
+
+        assertNoLostUpdates(OffHeapCache.newInstance(Razor.self().getEnv(), "incr"), "incr");
+    }
+
+    @Test
+    public void ehcacheKeepsExactSum() throws Exception {
+
+        assertNoLostUpdates(ehcache("incr"), "incr");
+    }
+
+    @Test
+    public void memoryCacheCreatesExpiredCounterAgain() throws Exception {
+
+        assertCreatedAgainAfterExpiry(MemoryCache.newInstance(Razor.self().getEnv(), "incr-ttl"), "incr-ttl");
+    }
+
+    @Test
+    public void offHeapCacheCreatesExpiredCounterAgain() throws Exception {
+
+        assertCreatedAgainAfterExpiry(OffHeapCache.newInstance(Razor.self().getEnv(), "incr-ttl"), "incr-ttl");
+    }
+
+    @Test
+    public void ehcacheCreatesExpiredCounterAgain() throws Exception {
+
+        assertCreatedAgainAfterExpiry(ehcache("incr-ttl"), "incr-ttl");
+    }
+}
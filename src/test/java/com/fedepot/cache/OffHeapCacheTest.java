@@ -0,0 +1,213 @@
+package com.fedepot.cache;
+
+import com.fedepot.env.Env;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static com.fedepot.mvc.Constants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class OffHeapCacheTest {
+
+    private static final String CAPPED = "offheap-capped";
+
+    private static final int CAPACITY = 16 * 1024;
+
+    private static ResourceLeakDetector.Level level;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+
+        level = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+
+        // cache is shared by the JVM and keeps the env of its first user, capacity of a group is read from it when the
+        // group is first used
+        Field field = OffHeapCache.class.getDeclaredField("env");
+        field.setAccessible(true);
+        ((Env) field.get(cache(Cache.DEFAULT_GROUP))).set(ENV_KEY_CACHE_OFFHEAP_CAPACITY + "." + CAPPED, CAPACITY);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+
+        ResourceLeakDetector.setLevel(level);
+    }
+
+    private static OffHeapCache cache(String group) {
+
+        return OffHeapCache.newInstance(Env.defaults(), group);
+    }
+
+    /**
+     * Direct memory held by buffers of the cache, all groups included
+     */
+    private static long usedDirectMemory() throws Exception {
+
+        Field field = OffHeapCache.class.getDeclaredField("ALLOCATOR");
+        field.setAccessible(true);
+
+        return ((UnpooledByteBufAllocator) field.get(null)).metric().usedDirectMemory();
+    }
+
+    private static String value(int length, int seed) {
+
+        StringBuilder builder = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+
+            builder.append((char) ('a' + (seed + i) % 26));
+        }
+
+        return builder.toString();
+    }
+
+    @Test
+    public void occupancyIsBoundedByCapacity() throws Exception {
+
+        OffHeapCache cache = cache(CAPPED);
+        long baseline = usedDirectMemory();
+
+        assertEquals(CAPACITY, cache.capacity(CAPPED));
+
+        for (int i = 0; i < 100; i++) {
+
+            cache.add("key" + i, value(1024, i), 0, CAPPED);
+            assertTrue(cache.occupancy(CAPPED) <= CAPACITY);
+        }
+
+        // each value takes a tag, a length and its bytes
+        assertEquals(cache.size(CAPPED) * 1029L, cache.occupancy(CAPPED));
+        assertEquals(100 - cache.size(CAPPED), cache.evictions(CAPPED));
+        assertEquals(value(1024, 99), cache.get("key99", CAPPED).orElse(null));
+        assertFalse(cache.get("key0", CAPPED).isPresent());
+
+        cache.clear(CAPPED);
+
+        assertEquals(0, cache.occupancy(CAPPED));
+        assertEquals(0, cache.size(CAPPED));
+        assertTrue(usedDirectMemory() <= baseline);
+    }
+
+    @Test
+    public void replacedAndDeletedValuesAreFreed() throws Exception {
+
+        OffHeapCache cache = cache("offheap-free");
+        cache.clear("offheap-free");
+        long baseline = usedDirectMemory();
+
+        cache.add("key", value(4096, 0), 0, "offheap-free");
+        cache.add("key", value(4096, 1), 0, "offheap-free");
+        cache.add("number", 1L, 0, "offheap-free");
+
+        assertEquals(value(4096, 1), cache.get("key", "offheap-free").orElse(null));
+
+        cache.delete("key", "offheap-free");
+        cache.delete("number", "offheap-free");
+
+        assertEquals(0, cache.occupancy("offheap-free"));
+        assertEquals(baseline, usedDirectMemory());
+    }
+
+    @Test
+    public void concurrentReadsAndDeletesNeverSeeFreedBuffers() throws Exception {
+
+        String group = "offheap-race";
+        OffHeapCache cache = cache(group);
+        cache.clear(group);
+        long baseline = usedDirectMemory();
+
+        int threads = 12;
+        int keys = 32;
+        long deadline = System.currentTimeMillis() + 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try {
+
+            for (int i = 0; i < threads; i++) {
+
+                int role = i % 3;
+
+                futures.add(executor.submit(() -> {
+
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int hits = 0;
+
+                    while (System.currentTimeMillis() < deadline) {
+
+                        String key = "key" + random.nextInt(keys);
+
+                        if (role == 0) {
+
+                            cache.add(key, value(256, key.hashCode()), 0, group);
+                        } else if (role == 1) {
+
+                            // a value is either gone or intact, never a buffer freed under the reader
+                            Object value = cache.get(key, group).orElse(null);
+
+                            if (value != null) {
+
+                                assertEquals(value(256, key.hashCode()), value);
+                                hits++;
+                            }
+                        } else {
+
+                            cache.delete(key, group);
+                        }
+                    }
+
+                    return hits;
+                }));
+            }
+
+            int hits = 0;
+
+            for (Future<Integer> future : futures) {
+
+                hits += future.get(30, TimeUnit.SECONDS);
+            }
+
+            assertTrue(hits > 0);
+        } finally {
+
+            executor.shutdownNow();
+        }
+
+        cache.clear(group);
+
+        assertEquals(0, cache.occupancy(group));
+        assertEquals(baseline, usedDirectMemory());
+    }
+}
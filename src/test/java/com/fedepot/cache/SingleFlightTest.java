@@ -0,0 +1,184 @@
+package com.fedepot.cache;
+
+import com.fedepot.Razor;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class SingleFlightTest {
+
+    private static final int THREADS = 32;
+
+    private static List<Cache> caches(String group) {
+
+        List<Cache> caches = new ArrayList<>();
+        caches.add(MemoryCache.newInstance(Razor.self().getEnv(), group));
+        caches.add(OffHeapCache.newInstance(Razor.self().getEnv(), group));
+
+        return caches;
+    }
+
+    private static List<Object> race(int threads, Callable<Object> task) throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        List<Future<Object>> futures = new ArrayList<>();
+
+        try {
+
+            for (int i = 0; i < threads; i++) {
+
+                futures.add(executor.submit(() -> {
+
+                    barrier.await();
+
+                    return task.call();
+                }));
+            }
+
+            List<Object> results = new ArrayList<>();
+
+            for (Future<Object> future : futures) {
+
+                try {
+
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+
+                    results.add(e.getCause());
+                }
+            }
+
+            return results;
+        } finally {
+
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentMissesRunLoaderOnce() throws Exception {
+
+        for (Cache cache : caches("flight")) {
+
+            AtomicInteger loads = new AtomicInteger();
+
+            List<Object> results = race(THREADS, () -> cache.computeIfAbsent("key", "flight", 60, () -> {
+
+                loads.incrementAndGet();
+                sleep(100);
+
+                return "loaded";
+            }));
+
+            assertEquals(cache.getClass().getSimpleName(), 1, loads.get());
+            results.forEach(result -> assertEquals("loaded", result));
+            assertEquals("loaded", cache.get("key", "flight").orElse(null));
+
+            // cached value is returned without loading
+            assertEquals("loaded", cache.computeIfAbsent("key", "flight", 60, () -> "again"));
+            cache.clear("flight");
+        }
+    }
+
+    @Test
+    public void loaderFailureIsSharedAndNotCached() throws Exception {
+
+        for (Cache cache : caches("flight-fail")) {
+
+            AtomicInteger loads = new AtomicInteger();
+
+            List<Object> results = race(THREADS, () -> cache.computeIfAbsent("key", "flight-fail", 60, () -> {
+
+                loads.incrementAndGet();
+                sleep(100);
+
+                throw new IllegalStateException("load failed");
+            }));
+
+            assertEquals(1, loads.get());
+            results.forEach(result -> assertTrue(String.valueOf(result), result instanceof IllegalStateException));
+            assertFalse(cache.get("key", "flight-fail").isPresent());
+
+            // flight is over, next miss loads again
+            assertEquals("second", cache.computeIfAbsent("key", "flight-fail", 60, () -> "second"));
+            cache.clear("flight-fail");
+        }
+    }
+
+    @Test
+    public void nullValueIsReturnedButNotCached() {
+
+        for (Cache cache : caches("flight-null")) {
+
+            assertNull(cache.computeIfAbsent("key", "flight-null", 60, () -> null));
+            assertFalse(cache.get("key", "flight-null").isPresent());
+            assertEquals("value", cache.computeIfAbsent("key", "flight-null", 60, () -> "value"));
+            cache.clear("flight-null");
+        }
+    }
+
+    @Test
+    public void flightsOfDifferentKeysRunInParallel() throws Exception {
+
+        SingleFlight flights = new SingleFlight();
+        CountDownLatch both = new CountDownLatch(2);
+        AtomicInteger index = new AtomicInteger();
+
+        // each loader waits for the other, they would dead lock if flights of different keys were serialized
+        List<Object> results = race(2, () -> flights.run("key" + index.incrementAndGet(), () -> {
+
+            both.countDown();
+
+            try {
+
+                return both.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+
+                throw new IllegalStateException(e);
+            }
+        }));
+
+        assertEquals(true, results.get(0));
+        assertEquals(true, results.get(1));
+    }
+
+    private static void sleep(long millis) {
+
+        try {
+
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.fedepot.mvc.http;
+
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class EventSinkTest {
+
+    /**
+     * Allocator keeping every buffer it creates, so tests could check they are released
+     */
+    private static class RecordingAllocator extends AbstractByteBufAllocator {
+
+        private final List<ByteBuf> buffers = new ArrayList<>();
+
+        private ByteBuf record(ByteBuf buf) {
+
+            buffers.add(buf);
+
+            return buf;
+        }
+
+        @Override
+        protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+
+            return record(UnpooledByteBufAllocator.DEFAULT.heapBuffer(initialCapacity, maxCapacity));
+        }
+
+        @Override
+        protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+
+            return record(UnpooledByteBufAllocator.DEFAULT.directBuffer(initialCapacity, maxCapacity));
+        }
+
+        @Override
+        public boolean isDirectBufferPooled() {
+
+            return false;
+        }
+    }
+
+    private final RecordingAllocator allocator = new RecordingAllocator();
+
+    private final List<EmbeddedChannel> channels = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+
+        channels.forEach(EmbeddedChannel::finishAndReleaseAll);
+    }
+
+    private EmbeddedChannel channel() {
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        channel.config().setAllocator(allocator);
+        channels.add(channel);
+
+        return channel;
+    }
+
+    /**
+     * Start an event stream on channel, the response head is checked and discarded
+     */
+    private static EventSink sink(EmbeddedChannel channel) {
+
+        EventSink sink = Response.build(channel.pipeline().firstContext()).eventStream();
+
+        HttpResponse head = channel.readOutbound();
+        assertTrue(head.headers().get(HttpHeaderNames.CONTENT_TYPE).startsWith("text/event-stream"));
+        assertEquals("no-cache", head.headers().get(HttpHeaderNames.CACHE_CONTROL));
+        assertEquals("chunked", head.headers().get(HttpHeaderNames.TRANSFER_ENCODING));
+
+        return sink;
+    }
+
+    /**
+     * Read all sent chunks as text, chunks are released
+     */
+    private static List<String> received(EmbeddedChannel channel) {
+
+        List<String> chunks = new ArrayList<>();
+
+        for (Object msg; (msg = channel.readOutbound()) != null; ) {
+
+            if (msg == LastHttpContent.EMPTY_LAST_CONTENT) {
+
+                chunks.add("<last>");
+            } else {
+
+                chunks.add(((HttpContent)msg).content().toString(StandardCharsets.UTF_8));
+            }
+
+            ReferenceCountUtil.release(msg);
+        }
+
+        return chunks;
+    }
+
+    private String encode(ServerSentEvent event) {
+
+        ByteBuf buf = event.encode(allocator);
+        String text = buf.toString(StandardCharsets.UTF_8);
+        buf.release();
+
+        return text;
+    }
+
+    private static void setWritable(EmbeddedChannel channel, boolean writable) {
+
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, writable);
+    }
+
+    @Test
+    public void multiLineDataIsSplitIntoDataFields() {
+
+        assertEquals("data: a\ndata: b\ndata: c\ndata: d\n\n", encode(ServerSentEvent.of("a\nb\r\nc\rd")));
+        assertEquals("data: x\ndata: \n\n", encode(ServerSentEvent.of("x\n")));
+        assertEquals("data: \ndata: \ndata: \n\n", encode(ServerSentEvent.of("\r\n\n")));
+        assertEquals("data: \n\n", encode(ServerSentEvent.of("")));
+        assertEquals("data: 你好\n\n", encode(ServerSentEvent.of("你好")));
+    }
+
+    @Test
+    public void fieldsAreKeptOnOneLine() {
+
+        ServerSentEvent event = ServerSentEvent.builder().id("1\n2").event("up\r\ndate").retry(3000L).data("x").build();
+
+        assertEquals("id: 1 2\nevent: up  date\nretry: 3000\ndata: x\n\n", encode(event));
+        assertEquals("\n", encode(ServerSentEvent.builder().build()));
+
+        ByteBuf comment = ServerSentEvent.encodeComment(allocator, "ping\nnow");
+        assertEquals(": ping now\n\n", comment.toString(StandardCharsets.UTF_8));
+        comment.release();
+    }
+
+    @Test
+    public void eventsAreSentAsChunks() {
+
+        EmbeddedChannel channel = channel();
+        EventSink sink = sink(channel);
+
+        assertTrue(sink.send("hello"));
+        assertTrue(sink.send("update", "a\nb"));
+        assertTrue(sink.comment("ping"));
+
+        List<String> chunks = received(channel);
+        assertEquals("data: hello\n\n", chunks.get(0));
+        assertEquals("event: update\ndata: a\ndata: b\n\n", chunks.get(1));
+        assertEquals(": ping\n\n", chunks.get(2));
+        assertEquals(0, sink.dropped());
+    }
+
+    @Test
+    public void eventsAreDroppedWhileChannelIsNotWritable() throws Exception {
+
+        EmbeddedChannel channel = channel();
+        EventSink sink = sink(channel).maxStall(10000);
+
+        setWritable(channel, false);
+        assertFalse(sink.send("lost"));
+        assertFalse(sink.comment("lost"));
+        assertEquals(2, sink.dropped());
+        assertTrue(received(channel).isEmpty());
+
+        // client catches up, stall is reset
+        setWritable(channel, true);
+        assertTrue(sink.send("back"));
+        assertEquals(1, received(channel).size());
+        assertTrue(channel.isOpen());
+
+        allocator.buffers.forEach(buf -> assertEquals(0, buf.refCnt()));
+    }
+
+    @Test
+    public void stalledClientIsClosedAfterMaxStall() throws Exception {
+
+        EmbeddedChannel channel = channel();
+        AtomicInteger closes = new AtomicInteger();
+        EventSink sink = sink(channel).maxStall(50).onClose(closes::incrementAndGet);
+
+        setWritable(channel, false);
+        assertFalse(sink.send("first"));
+        Thread.sleep(100);
+        assertTrue(channel.isOpen());
+
+        assertFalse(sink.send("second"));
+        channel.runPendingTasks();
+
+        assertFalse(channel.isOpen());
+        assertTrue(sink.isClosed());
+        assertEquals(1, closes.get());
+        assertEquals(2, sink.dropped());
+        assertFalse(sink.send("closed"));
+        assertEquals(2, sink.dropped());
+
+        allocator.buffers.forEach(buf -> assertEquals(0, buf.refCnt()));
+    }
+
+    @Test
+    public void closeEndsStreamOnce() {
+
+        EmbeddedChannel channel = channel();
+        AtomicInteger closes = new AtomicInteger();
+        EventSink sink = sink(channel).onClose(closes::incrementAndGet);
+
+        sink.close();
+        sink.close();
+
+        assertTrue(sink.isClosed());
+        assertEquals(1, closes.get());
+        assertFalse(sink.send("late"));
+
+        List<String> chunks = received(channel);
+        assertEquals(1, chunks.size());
+        assertEquals("<last>", chunks.get(0));
+
+        // keep-alive connection is reused by the next request
+        assertTrue(channel.isOpen());
+
+        // listener added after close runs at once
+        sink.onClose(closes::incrementAndGet);
+        assertEquals(2, closes.get());
+    }
+
+    @Test
+    public void clientDisconnectClosesSink() {
+
+        EmbeddedChannel channel = channel();
+        AtomicInteger closes = new AtomicInteger();
+        EventSink sink = sink(channel).onClose(closes::incrementAndGet);
+
+        channel.close();
+
+        assertTrue(sink.isClosed());
+        assertEquals(1, closes.get());
+        assertFalse(sink.send("gone"));
+    }
+
+    @Test
+    public void broadcastSharesOneBufferAndReleasesIt() {
+
+        SseBroadcaster broadcaster = new SseBroadcaster(allocator);
+        assertEquals(0, broadcaster.broadcast("nobody"));
+        assertTrue(allocator.buffers.isEmpty());
+
+        EmbeddedChannel fast1 = channel();
+        EmbeddedChannel fast2 = channel();
+        EmbeddedChannel slow = channel();
+        broadcaster.subscribe(sink(fast1));
+        broadcaster.subscribe(sink(fast2));
+        EventSink slowSink = broadcaster.subscribe(sink(slow));
+        setWritable(slow, false);
+
+        assertEquals(2, broadcaster.broadcast("tick", "1\n2"));
+        assertEquals(1, slowSink.dropped());
+
+        // encoded once, retained by the two chunks waiting in outbound
+        assertEquals(1, allocator.buffers.size());
+        ByteBuf shared = allocator.buffers.get(0);
+        assertEquals(2, shared.refCnt());
+
+        assertEquals("event: tick\ndata: 1\ndata: 2\n\n", received(fast1).get(0));
+        assertEquals(1, shared.refCnt());
+        assertEquals("event: tick\ndata: 1\ndata: 2\n\n", received(fast2).get(0));
+        assertEquals(0, shared.refCnt());
+        assertTrue(received(slow).isEmpty());
+    }
+
+    @Test
+    public void closedSubscribersAreRemoved() {
+
+        SseBroadcaster broadcaster = new SseBroadcaster(allocator);
+        EmbeddedChannel first = channel();
+        EmbeddedChannel second = channel();
+        EventSink firstSink = broadcaster.subscribe(sink(first));
+        EventSink secondSink = broadcaster.subscribe(sink(second));
+
+        first.close();
+        assertEquals(1, broadcaster.size());
+        assertEquals(1, broadcaster.broadcast("only second"));
+        received(second);
+
+        broadcaster.close();
+        assertEquals(0, broadcaster.size());
+        assertTrue(firstSink.isClosed());
+        assertTrue(secondSink.isClosed());
+        assertEquals("<last>", received(second).get(0));
+        allocator.buffers.forEach(buf -> assertEquals(0, buf.refCnt()));
+    }
+}
@@ -0,0 +1,115 @@
+package com.fedepot.mvc.route;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Cost of calling an action through {@link ActionInvoker} compared with {@link Method#invoke}, for an instance action
+ * with boxed arguments and a static action
+ *
+ * Run with the main method, test classpath is required
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ActionInvokerBenchmark {
+
+    public static class Actions {
+
+        public String greet(String name, int times) {
+
+            return times > 1 ? name + times : name;
+        }
+
+        public static String version() {
+
+            return "static";
+        }
+    }
+
+    private Actions controller;
+
+    private Object[] args;
+
+    private Object[] noArgs;
+
+    private Method greet;
+
+    private Method version;
+
+    private ActionInvoker greetInvoker;
+
+    private ActionInvoker versionInvoker;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        controller = new Actions();
+        args = new Object[]{"razor", 2};
+        noArgs = new Object[0];
+        greet = Actions.class.getMethod("greet", String.class, int.class);
+        version = Actions.class.getMethod("version");
+        greetInvoker = new ActionInvoker(greet);
+        versionInvoker = new ActionInvoker(version);
+    }
+
+    @Benchmark
+    public Object reflectInstance() throws Exception {
+
+        return greet.invoke(controller, args);
+    }
+
+    @Benchmark
+    public Object invokerInstance() throws Exception {
+
+        return greetInvoker.invoke(controller, args);
+    }
+
+    @Benchmark
+    public Object reflectStatic() throws Exception {
+
+        return version.invoke(null, noArgs);
+    }
+
+    @Benchmark
+    public Object invokerStatic() throws Exception {
+
+        return versionInvoker.invoke(controller, noArgs);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(ActionInvokerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
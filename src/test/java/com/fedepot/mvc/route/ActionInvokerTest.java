@@ -0,0 +1,109 @@
+package com.fedepot.mvc.route;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class ActionInvokerTest {
+
+    public static class Actions {
+
+        private final String prefix = "hello ";
+
+        public String greet(String name) {
+
+            return prefix + name;
+        }
+
+        public int add(int a, long b) {
+
+            return (int) (a + b);
+        }
+
+        public static String version() {
+
+            return "static";
+        }
+
+        public static int twice(int value) {
+
+            return value * 2;
+        }
+
+        public void nothing() { }
+
+        public String fail() throws IOException {
+
+            throw new IOException("checked");
+        }
+
+        private String hidden() {
+
+            return "hidden";
+        }
+    }
+
+    private static ActionInvoker invoker(String name, Class<?>... types) throws Exception {
+
+        return new ActionInvoker(Actions.class.getDeclaredMethod(name, types));
+    }
+
+    @Test
+    public void invokesInstanceAction() throws Exception {
+
+        assertEquals("hello razor", invoker("greet", String.class).invoke(new Actions(), new Object[]{"razor"}));
+        assertEquals(3, invoker("add", int.class, long.class).invoke(new Actions(), new Object[]{1, 2L}));
+        assertEquals("hidden", invoker("hidden").invoke(new Actions(), new Object[0]));
+    }
+
+    @Test
+    public void invokesStaticActionIgnoringController() throws Exception {
+
+        assertEquals("static", invoker("version").invoke(new Actions(), new Object[0]));
+        assertEquals("static", invoker("version").invoke(null, new Object[0]));
+        assertEquals(42, invoker("twice", int.class).invoke(null, new Object[]{21}));
+    }
+
+    @Test
+    public void voidActionReturnsNull() throws Exception {
+
+        assertNull(invoker("nothing").invoke(new Actions(), new Object[0]));
+    }
+
+    @Test(expected = IOException.class)
+    public void rethrowsActionExceptionUnwrapped() throws Exception {
+
+        invoker("fail").invoke(new Actions(), new Object[0]);
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void rejectsControllerOfWrongType() throws Exception {
+
+        invoker("greet", String.class).invoke("not a controller", new Object[]{"razor"});
+    }
+}
@@ -0,0 +1,151 @@
+package com.fedepot.mvc.route;
+
+import com.fedepot.mvc.json.GsonFactory;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Cost of binding form params of a 20 fields object with {@link FormBinder} compared with the json conversion,
+ * which is still used for types without a no-args constructor
+ *
+ * Run with the main method, test classpath is required
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormBinderBenchmark {
+
+    public static class Order {
+
+        public String id;
+
+        public String customer;
+
+        public String email;
+
+        public String phone;
+
+        public String street;
+
+        public String city;
+
+        public String country;
+
+        public String zip;
+
+        public String note;
+
+        public String coupon;
+
+        public int quantity;
+
+        public int priority;
+
+        public long createdAt;
+
+        public long updatedAt;
+
+        public double price;
+
+        public double discount;
+
+        public boolean paid;
+
+        public boolean shipped;
+
+        public List<String> tags;
+
+        public List<Integer> items;
+    }
+
+    private Map<String, List<String>> formParams;
+
+    private FormBinder binder;
+
+    private Gson gson;
+
+    @Setup
+    public void setUp() {
+
+        formParams = new HashMap<>();
+
+        for (String name : Arrays.asList("id", "customer", "email", "phone", "street", "city", "country", "zip", "note", "coupon")) {
+
+            formParams.put(name, Collections.singletonList(name + "-value"));
+        }
+
+        formParams.put("quantity", Collections.singletonList("3"));
+        formParams.put("priority", Collections.singletonList("1"));
+        formParams.put("createdAt", Collections.singletonList("1500000000000"));
+        formParams.put("updatedAt", Collections.singletonList("1500000001000"));
+        formParams.put("price", Collections.singletonList("19.99"));
+        formParams.put("discount", Collections.singletonList("0.1"));
+        formParams.put("paid", Collections.singletonList("true"));
+        formParams.put("shipped", Collections.singletonList("false"));
+        formParams.put("tags", Arrays.asList("new", "gift"));
+        formParams.put("items", Arrays.asList("11", "12", "13"));
+
+        binder = FormBinder.of(Order.class);
+        gson = GsonFactory.getGson();
+    }
+
+    @Benchmark
+    public Object formBinder() throws Exception {
+
+        return binder.bind(formParams);
+    }
+
+    /**
+     * Same conversion as the fallback of {@link ParameterBinders}
+     */
+    @Benchmark
+    public Object jsonConversion() {
+
+        Map<String, Object> values = new HashMap<>();
+
+        for (Map.Entry<String, List<String>> entry : formParams.entrySet()) {
+
+            List<String> valueList = entry.getValue();
+            values.put(entry.getKey(), valueList != null && valueList.size() == 1 ? valueList.get(0) : valueList);
+        }
+
+        return gson.fromJson(gson.toJsonTree(values), Order.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(FormBinderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
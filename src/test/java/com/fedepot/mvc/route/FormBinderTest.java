@@ -0,0 +1,218 @@
+package com.fedepot.mvc.route;
+
+import com.google.gson.annotations.SerializedName;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class FormBinderTest {
+
+    public enum Color { RED, GREEN }
+
+    public static class Base {
+
+        public String owner;
+    }
+
+    public static class Form extends Base {
+
+        public static String shared = "shared";
+
+        @SerializedName(value = "user_name", alternate = {"userName", "login"})
+        public String name;
+
+        public int age = 18;
+
+        public long count;
+
+        public Integer boxed;
+
+        public boolean active;
+
+        public double score;
+
+        public char initial;
+
+        public BigDecimal price;
+
+        public String note = "none";
+
+        public transient String secret;
+
+        public List<Integer> ids;
+
+        public Set<String> tags;
+
+        public Collection<Color> palette;
+
+        public String[] names;
+
+        public int[] numbers;
+
+        public Color color;
+
+        public List<Color> colors;
+    }
+
+    public static class NoDefaultConstructor {
+
+        public String name;
+
+        public NoDefaultConstructor(String name) {
+
+            this.name = name;
+        }
+    }
+
+    private static Map<String, List<String>> params(String... pairs) {
+
+        Map<String, List<String>> params = new LinkedHashMap<>();
+
+        for (int i = 0; i < pairs.length; i += 2) {
+
+            params.computeIfAbsent(pairs[i], key -> new ArrayList<>()).add(pairs[i + 1]);
+        }
+
+        return params;
+    }
+
+    private static Form bind(String... pairs) throws Exception {
+
+        return (Form)FormBinder.of(Form.class).bind(params(pairs));
+    }
+
+    @Test
+    public void bindsScalarFields() throws Exception {
+
+        Form form = bind("owner", "razor", "age", "30", "count", "3000000000", "boxed", "7", "active", "true",
+                "score", "1.5", "initial", "xyz", "price", "9.99", "unknown", "ignored");
+
+        assertEquals("razor", form.owner);
+        assertEquals(30, form.age);
+        assertEquals(3000000000L, form.count);
+        assertEquals(Integer.valueOf(7), form.boxed);
+        assertTrue(form.active);
+        assertEquals(1.5, form.score, 0);
+        assertEquals('x', form.initial);
+        assertEquals(new BigDecimal("9.99"), form.price);
+    }
+
+    @Test
+    public void bindsSerializedNameAndAlternates() throws Exception {
+
+        assertEquals("a", bind("user_name", "a").name);
+        assertEquals("b", bind("userName", "b").name);
+        assertEquals("c", bind("login", "c").name);
+
+        // the field name is replaced by the serialized name
+        assertNull(bind("name", "d").name);
+    }
+
+    @Test
+    public void skipsStaticAndTransientFields() throws Exception {
+
+        Form form = bind("shared", "changed", "secret", "leaked");
+
+        assertEquals("shared", Form.shared);
+        assertNull(form.secret);
+    }
+
+    @Test
+    public void bindsCollectionsAndArrays() throws Exception {
+
+        Form form = bind("ids", "1", "ids", "2", "tags", "b", "tags", "a", "tags", "b", "palette", "GREEN",
+                "names", "x", "names", "y", "numbers", "3", "numbers", "4");
+
+        assertEquals(Arrays.asList(1, 2), form.ids);
+        assertEquals(ArrayList.class, form.ids.getClass());
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(form.tags));
+        assertEquals(Collections.singletonList(Color.GREEN), new ArrayList<>(form.palette));
+        assertArrayEquals(new String[]{"x", "y"}, form.names);
+        assertArrayEquals(new int[]{3, 4}, form.numbers);
+
+        Form single = bind("ids", "5");
+        assertEquals(Collections.singletonList(5), single.ids);
+    }
+
+    @Test
+    public void bindsEnums() throws Exception {
+
+        Form form = bind("color", "RED", "colors", "GREEN", "colors", "RED");
+
+        assertEquals(Color.RED, form.color);
+        assertEquals(Arrays.asList(Color.GREEN, Color.RED), form.colors);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownEnumConstant() throws Exception {
+
+        bind("color", "BLUE");
+    }
+
+    @Test
+    public void emptyValueLeavesNonStringFieldUntouched() throws Exception {
+
+        Form form = bind("age", "", "count", "", "boxed", "", "active", "", "initial", "", "color", "", "note", "");
+
+        assertEquals(18, form.age);
+        assertEquals(0, form.count);
+        assertNull(form.boxed);
+        assertFalse(form.active);
+        assertEquals('\0', form.initial);
+        assertNull(form.color);
+        assertEquals("", form.note);
+
+        Map<String, List<String>> params = new HashMap<>();
+        params.put("age", Collections.emptyList());
+        params.put("note", null);
+        Form noValues = (Form)FormBinder.of(Form.class).bind(params);
+
+        assertEquals(18, noValues.age);
+        assertEquals("none", noValues.note);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsMalformedNumber() throws Exception {
+
+        bind("age", "ten");
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void rejectsMalformedNumberInList() throws Exception {
+
+        bind("ids", "1", "ids", "two");
+    }
+
+    @Test
+    public void bindersAreCachedAndNeedNoArgsConstructor() {
+
+        assertSame(FormBinder.of(Form.class), FormBinder.of(Form.class));
+        assertNull(FormBinder.of(NoDefaultConstructor.class));
+    }
+}
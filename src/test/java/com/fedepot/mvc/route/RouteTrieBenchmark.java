@@ -0,0 +1,120 @@
+package com.fedepot.mvc.route;
+
+import com.fedepot.mvc.http.HttpMethod;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Cost of matching a parameterized path with {@link RouteTrie} compared with scanning the regex of every route,
+ * which is how such routes were matched before the trie
+ *
+ * Run with the main method, test classpath is required
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteTrieBenchmark {
+
+    @Param({"10", "100"})
+    private int routes;
+
+    private RouteTrie trie;
+
+    private Router[] regexRouters;
+
+    private String hit;
+
+    private String miss;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        Method action = Object.class.getMethod("toString");
+
+        trie = new RouteTrie();
+        regexRouters = new Router[routes];
+
+        for (int i = 0; i < routes; i++) {
+
+            regexRouters[i] = new Router(HttpMethod.GET, Object.class, action, new RouteMatcher("/api", "res" + i + "/{int:id}/items/{string:name}"));
+            trie.insert(regexRouters[i]);
+        }
+
+        // the route in the middle, a scan visits half of the routes
+        hit = "/api/res" + (routes / 2) + "/42/items/razor";
+        miss = "/api/res" + routes + "/42/items/razor";
+    }
+
+    private RouteMatch scan(String path) {
+
+        for (Router router : regexRouters) {
+
+            if (router.match(path)) {
+
+                return new RouteMatch(router, router.getRouteMatcher().getParams(path));
+            }
+        }
+
+        return null;
+    }
+
+    @Benchmark
+    public RouteMatch trieHit() {
+
+        return trie.match(hit, HttpMethod.GET);
+    }
+
+    @Benchmark
+    public RouteMatch regexHit() {
+
+        return scan(hit);
+    }
+
+    @Benchmark
+    public RouteMatch trieMiss() {
+
+        return trie.match(miss, HttpMethod.GET);
+    }
+
+    @Benchmark
+    public RouteMatch regexMiss() {
+
+        return scan(miss);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(RouteTrieBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,248 @@
+package com.fedepot.mvc.route;
+
+import com.fedepot.mvc.http.HttpMethod;
+import com.razor.test.app.TestApp;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class RouteTrieTest {
+
+    private static Router router(String httpMethod, String route) {
+
+        try {
+
+            Method action = Object.class.getMethod("toString");
+
+            return new Router(httpMethod, Object.class, action, new RouteMatcher("/", route));
+        } catch (NoSuchMethodException e) {
+
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RouteTrie trie(Router... routers) {
+
+        RouteTrie trie = new RouteTrie();
+
+        for (Router router : routers) {
+
+            assertTrue(router.getFullPath(), trie.insert(router));
+        }
+
+        return trie;
+    }
+
+    /**
+     * Match with trie and check that the regex of the matched route agrees on the parameters
+     */
+    private static RouteMatch match(RouteTrie trie, String path, String httpMethod) {
+
+        RouteMatch match = trie.match(path, httpMethod);
+
+        if (match != null) {
+
+            Router router = match.getRouter();
+            assertTrue(path + " should match " + router.getFullPath(), router.match(path));
+            assertEquals(path, describe(router.getRouteMatcher().getParams(path)), describe(match.getParams()));
+        }
+
+        return match;
+    }
+
+    private static String describe(PathParameter[] params) {
+
+        if (params == null) {
+
+            return "[]";
+        }
+
+        return Arrays.toString(Arrays.stream(params).map(param -> param.getName() + "=" + param.getValue() + ":" + param.getValue().getClass().getSimpleName()).toArray());
+    }
+
+    @Test
+    public void staticBeforeIntBeforeLongBeforeStringBeforeWildcard() {
+
+        Router list = router(HttpMethod.GET, "p/list");
+        Router intId = router(HttpMethod.GET, "p/{int:id}");
+        Router longId = router(HttpMethod.GET, "p/{long:id}");
+        Router name = router(HttpMethod.GET, "p/{string:name}");
+        Router any = router(HttpMethod.GET, "p/*");
+        RouteTrie trie = trie(any, name, longId, intId, list);
+
+        assertSame(list, match(trie, "/p/list", HttpMethod.GET).getRouter());
+        assertSame(intId, match(trie, "/p/7", HttpMethod.GET).getRouter());
+        assertEquals(7, match(trie, "/p/7", HttpMethod.GET).getParams()[0].getValue());
+
+        // out of int range
+        assertSame(longId, match(trie, "/p/3000000000", HttpMethod.GET).getRouter());
+        assertEquals(3000000000L, match(trie, "/p/3000000000", HttpMethod.GET).getParams()[0].getValue());
+
+        // out of long range
+        assertSame(name, match(trie, "/p/99999999999999999999", HttpMethod.GET).getRouter());
+        assertSame(name, match(trie, "/p/li-st_1", HttpMethod.GET).getRouter());
+
+        // not a word or deeper, left for universal match
+        assertSame(any, match(trie, "/p/a.b", HttpMethod.GET).getRouter());
+        assertSame(any, match(trie, "/p/a/b/c.txt", HttpMethod.GET).getRouter());
+        assertNull(match(trie, "/p/a%20b", HttpMethod.GET));
+    }
+
+    @Test
+    public void backtracksToLowerPrecedenceBranch() {
+
+        Router edit = router(HttpMethod.GET, "c/new/edit");
+        Router view = router(HttpMethod.GET, "c/{string:name}/view");
+        Router intX = router(HttpMethod.GET, "b/{int:id}/x");
+        Router stringY = router(HttpMethod.GET, "b/{string:name}/y");
+        RouteTrie trie = trie(edit, view, intX, stringY);
+
+        assertSame(edit, match(trie, "/c/new/edit", HttpMethod.GET).getRouter());
+        assertSame(view, match(trie, "/c/new/view", HttpMethod.GET).getRouter());
+        assertSame(intX, match(trie, "/b/7/x", HttpMethod.GET).getRouter());
+
+        RouteMatch match = match(trie, "/b/7/y", HttpMethod.GET);
+        assertSame(stringY, match.getRouter());
+        assertEquals("7", match.getParams()[0].getValue());
+
+        assertNull(match(trie, "/b/7/z", HttpMethod.GET));
+    }
+
+    @Test
+    public void prefixAndSuffixInSegment() {
+
+        Router html = router(HttpMethod.GET, "f/{int:id}.html");
+        Router version = router(HttpMethod.GET, "f/v{int:n}");
+        Router name = router(HttpMethod.GET, "f/{string:name}");
+        RouteTrie trie = trie(name, html, version);
+
+        assertSame(html, match(trie, "/f/7.html", HttpMethod.GET).getRouter());
+        assertSame(version, match(trie, "/f/v2", HttpMethod.GET).getRouter());
+        assertSame(name, match(trie, "/f/vx", HttpMethod.GET).getRouter());
+        assertSame(name, match(trie, "/f/v", HttpMethod.GET).getRouter());
+        assertNull(match(trie, "/f/.html", HttpMethod.GET));
+        assertNull(match(trie, "/f/x.html", HttpMethod.GET));
+    }
+
+    @Test
+    public void methodRouteBeforeAllMethodRoute() {
+
+        Router get = router(HttpMethod.GET, "m/{int:id}");
+        Router all = router(HttpMethod.ALL, "m/{int:id}");
+        Router onlyGet = router(HttpMethod.GET, "n/{int:id}");
+        RouteTrie trie = trie(get, all, onlyGet);
+
+        assertSame(get, match(trie, "/m/1", HttpMethod.GET).getRouter());
+        assertSame(all, match(trie, "/m/1", HttpMethod.POST).getRouter());
+        assertSame(onlyGet, match(trie, "/n/1", HttpMethod.GET).getRouter());
+        assertNull(match(trie, "/n/1", HttpMethod.POST));
+    }
+
+    @Test
+    public void trailingSlash() {
+
+        Router item = router(HttpMethod.GET, "t/{int:id}");
+        Router any = router(HttpMethod.GET, "w/*");
+        RouteTrie trie = trie(item, any);
+
+        assertNotNull(match(trie, "/t/7", HttpMethod.GET));
+        assertNull(match(trie, "/t/7/", HttpMethod.GET));
+        assertNull(match(trie, "/t/", HttpMethod.GET));
+
+        // universal match could be empty, but its slash is required, same as the regex
+        assertSame(any, match(trie, "/w/", HttpMethod.GET).getRouter());
+        assertSame(any, match(trie, "/w/a/", HttpMethod.GET).getRouter());
+        assertNull(match(trie, "/w", HttpMethod.GET));
+        assertFalse(any.match("/w"));
+    }
+
+    @Test
+    public void unsupportedRoutesAreLeftForRegex() {
+
+        RouteTrie trie = new RouteTrie();
+
+        assertFalse(trie.insert(router(HttpMethod.GET, "x/{int:from}-{int:to}")));
+        assertFalse(trie.insert(router(HttpMethod.GET, "x/*/y")));
+        assertFalse(trie.insert(router(HttpMethod.GET, "x/a*b")));
+        assertNull(trie.match("/x/1-2", HttpMethod.GET));
+        assertNull(trie.match("/x/a/y", HttpMethod.GET));
+    }
+
+    @Test
+    public void emptyTrieAndIllegalPath() {
+
+        assertNull(new RouteTrie().match("/p/1", HttpMethod.GET));
+
+        RouteTrie trie = trie(router(HttpMethod.GET, "p/{int:id}"));
+        assertNull(trie.match("", HttpMethod.GET));
+        assertNull(trie.match("p/1", HttpMethod.GET));
+    }
+
+    @Test(timeout = 10000)
+    public void manyStaticSegmentsOnOneLevel() {
+
+        RouteTrie trie = new RouteTrie();
+        Router[] routers = new Router[100];
+
+        for (int i = 0; i < routers.length; i++) {
+
+            routers[i] = router(HttpMethod.GET, "s/k" + i + "/{int:id}");
+            assertTrue(trie.insert(routers[i]));
+        }
+
+        for (int i = 0; i < routers.length; i++) {
+
+            RouteMatch match = match(trie, "/s/k" + i + "/" + i, HttpMethod.GET);
+
+            assertSame(routers[i], match.getRouter());
+            assertEquals(i, match.getParams()[0].getValue());
+        }
+
+        assertNull(match(trie, "/s/k100/1", HttpMethod.GET));
+        assertNull(match(trie, "/s/k/1", HttpMethod.GET));
+    }
+
+    @Test
+    public void managerFallsBackToRegexRoutes() {
+
+        RouteManager manager = RouteManager.getInstance(TestApp.razor());
+
+        assertEquals("list", manager.findRoute("/items/list").getAction().getName());
+        assertEquals("item", manager.findRoute("/items/7").getAction().getName());
+        assertEquals("update", manager.findRoute("/items/7", HttpMethod.POST).getAction().getName());
+        assertEquals("meta", manager.findRoute("/items/7/meta", HttpMethod.PUT).getAction().getName());
+        assertEquals("deleteMeta", manager.findRoute("/items/7/meta", HttpMethod.DELETE).getAction().getName());
+        assertEquals("files", manager.findRoute("/files/a/b.txt").getAction().getName());
+        assertNull(manager.findRoute("/items/7", HttpMethod.PUT));
+
+        RouteMatch range = manager.match("/items/3-5", HttpMethod.GET);
+        assertEquals("range", range.getRouter().getAction().getName());
+        assertEquals("[from=3:Integer, to=5:Integer]", describe(range.getParams()));
+    }
+}
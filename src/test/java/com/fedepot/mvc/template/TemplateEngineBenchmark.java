@@ -0,0 +1,140 @@
+package com.fedepot.mvc.template;
+
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.Request;
+import com.razor.test.app.TestApp;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.fedepot.mvc.Constants.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Renders per second of a list template with compiled templates cached, i.e out of dev mode
+ *
+ * Run with the main method, test classpath is required
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TemplateEngineBenchmark {
+
+    public static class Item {
+
+        private final String name;
+
+        private final double price;
+
+        Item(String name, double price) {
+
+            this.name = name;
+            this.price = price;
+        }
+
+        public String getName() {
+
+            return name;
+        }
+
+        public double getPrice() {
+
+            return price;
+        }
+    }
+
+    @Param({"beetl", "jtwig"})
+    private String engineName;
+
+    private TemplateEngine engine;
+
+    private String templatePath;
+
+    private Map<String, Object> data;
+
+    private Request request;
+
+    @Setup
+    public void setUp() throws Exception {
+
+        // request and session are bound by beetl on each render, the context is thread local
+        request = Request.build(new EmbeddedChannel(new ChannelInboundHandlerAdapter()).pipeline().firstContext(),
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"), TestApp.razor().getSessionHandler());
+        HttpContext.set(new HttpContext(request, null));
+
+        if ("beetl".equals(engineName)) {
+
+            engine = new BeetlTemplateEngine();
+            templatePath = DEFAULT_TEMPLATE_ROOT_FOLDER + "/bench/list.btl";
+        } else {
+
+            engine = new JtwigTemplateEngine();
+            templatePath = DEFAULT_TEMPLATE_ROOT_FOLDER + "/bench/list.twig";
+        }
+
+        List<Item> items = new ArrayList<>();
+
+        for (int i = 0; i < 20; i++) {
+
+            items.add(new Item("item" + i, i * 1.5));
+        }
+
+        data = new HashMap<>();
+        data.put("title", "Items");
+        data.put("items", items);
+
+        engine.preload(templatePath);
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        HttpContext.remove();
+        request.release();
+    }
+
+    @Benchmark
+    public String render() throws Exception {
+
+        return engine.render(templatePath, data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+
+        new Runner(new OptionsBuilder().include(TemplateEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.fedepot.mvc.template;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.Request;
+import com.razor.test.app.TestApp;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.fedepot.mvc.Constants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class TemplateReloadTest {
+
+    private static final Map<String, Object> DATA = Collections.singletonMap("name", "razor");
+
+    private Razor razor;
+
+    private Request request;
+
+    private File template;
+
+    @Before
+    public void setUp() {
+
+        razor = TestApp.razor();
+        request = Request.build(new EmbeddedChannel(new ChannelInboundHandlerAdapter()).pipeline().firstContext(),
+                new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/"), razor.getSessionHandler());
+        HttpContext.set(new HttpContext(request, null));
+    }
+
+    @After
+    public void tearDown() {
+
+        razor.getEnv().set(ENV_KEY_DEV_MODE, DEFAULT_DEV_MODE);
+        HttpContext.remove();
+        request.release();
+
+        if (template != null) {
+
+            assertTrue(template.delete());
+        }
+    }
+
+    /**
+     * Create a template file in the template folder of test classpath, so it is found as a plain file
+     */
+    private String write(String name, String content) throws Exception {
+
+        File folder = new File(getClass().getClassLoader().getResource(DEFAULT_TEMPLATE_ROOT_FOLDER + "/home.htm").toURI()).getParentFile();
+        template = new File(folder, name);
+        Files.write(template.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+        return DEFAULT_TEMPLATE_ROOT_FOLDER + "/" + name;
+    }
+
+    /**
+     * Change template content, modification time is moved forward explicitly as file systems may store it in seconds
+     */
+    private void modify(String content) throws Exception {
+
+        long lastModified = template.lastModified();
+        Files.write(template.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        assertTrue(template.setLastModified(lastModified + 10000));
+    }
+
+    private String renderTwice(TemplateEngine engine, boolean devMode, String name, String before, String after) throws Exception {
+
+        razor.getEnv().set(ENV_KEY_DEV_MODE, devMode);
+        String path = write(name, before);
+
+        assertEquals("v1 razor", engine.render(path, DATA).trim());
+        modify(after);
+
+        return engine.render(path, DATA).trim();
+    }
+
+    @Test
+    public void beetlReloadsModifiedTemplateInDevMode() throws Exception {
+
+        assertEquals("v2 razor", renderTwice(new BeetlTemplateEngine(), true, "reload-dev.btl", "v1 ${name}", "v2 ${name}"));
+    }
+
+    @Test
+    public void beetlKeepsCompiledTemplateOutOfDevMode() throws Exception {
+
+        assertEquals("v1 razor", renderTwice(new BeetlTemplateEngine(), false, "reload-prod.btl", "v1 ${name}", "v2 ${name}"));
+    }
+
+    @Test
+    public void jtwigReloadsModifiedTemplateInDevMode() throws Exception {
+
+        assertEquals("v2 razor", renderTwice(new JtwigTemplateEngine(), true, "reload-dev.twig", "v1 {{ name }}", "v2 {{ name }}"));
+    }
+
+    @Test
+    public void jtwigKeepsCompiledTemplateOutOfDevMode() throws Exception {
+
+        assertEquals("v1 razor", renderTwice(new JtwigTemplateEngine(), false, "reload-prod.twig", "v1 {{ name }}", "v2 {{ name }}"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.fedepot.server;
+
+import com.fedepot.mvc.http.HttpContext;
+import com.razor.test.app.TestApp;
+import com.razor.test.app.controllers.AsyncController;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class AsyncContinuationTest {
+
+    private static FullHttpRequest get(String path) {
+
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+        request.headers().set("Host", "localhost");
+
+        return request;
+    }
+
+    private static String body(FullHttpResponse response) {
+
+        try {
+
+            assertEquals(HttpResponseStatus.OK, response.status());
+
+            return response.content().toString(StandardCharsets.UTF_8);
+        } finally {
+
+            response.release();
+        }
+    }
+
+    @Test
+    public void continuationKeepsContextOfCompletingRequest() {
+
+        HttpServerHandler handler = new HttpServerHandler(TestApp.razor());
+        AsyncController.pending = new CompletableFuture<>();
+
+        EmbeddedChannel waiting = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        EmbeddedChannel completing = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+
+        handler.handleMessage(waiting.pipeline().firstContext(), get("/async/wait"));
+        assertNull(waiting.readOutbound());
+        assertNull(HttpContext.get());
+
+        // the waiting action's continuation runs inside the completing action, on the same thread
+        handler.handleMessage(completing.pipeline().firstContext(), get("/async/complete"));
+
+        assertEquals("\"done\"", body(waiting.readOutbound()));
+        assertEquals("\"completed /async/complete\"", body(completing.readOutbound()));
+        assertNull(HttpContext.get());
+
+        waiting.finishAndReleaseAll();
+        completing.finishAndReleaseAll();
+    }
+
+    @Test
+    public void completedFutureDoesNotLeaveContext() {
+
+        HttpServerHandler handler = new HttpServerHandler(TestApp.razor());
+        AsyncController.pending = CompletableFuture.completedFuture("ready");
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        handler.handleMessage(channel.pipeline().firstContext(), get("/async/wait"));
+
+        assertEquals("\"ready\"", body(channel.readOutbound()));
+        assertNull(HttpContext.get());
+
+        channel.finishAndReleaseAll();
+    }
+}
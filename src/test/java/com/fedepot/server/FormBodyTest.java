@@ -0,0 +1,103 @@
+package com.fedepot.server;
+
+import com.razor.test.app.TestApp;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class FormBodyTest {
+
+    private static HttpServerHandler handler;
+
+    @BeforeClass
+    public static void setUp() {
+
+        handler = new HttpServerHandler(TestApp.razor());
+    }
+
+    private static FullHttpResponse post(String contentType, String body) {
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/form/profile", Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        request.headers().set(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
+
+        handler.handleMessage(channel.pipeline().firstContext(), request);
+
+        return channel.readOutbound();
+    }
+
+    @Test
+    public void formBodyIsBound() {
+
+        FullHttpResponse response = post("application/x-www-form-urlencoded", "login=razor&age=3&tags=a&tags=b");
+
+        assertEquals(HttpResponseStatus.OK, response.status());
+        assertEquals("\"razor 3 [a, b]\"", response.content().toString(StandardCharsets.UTF_8));
+        response.release();
+    }
+
+    @Test
+    public void emptyNumberKeepsDefault() {
+
+        FullHttpResponse response = post("application/x-www-form-urlencoded", "user_name=razor&age=");
+
+        assertEquals(HttpResponseStatus.OK, response.status());
+        assertEquals("\"razor 0 null\"", response.content().toString(StandardCharsets.UTF_8));
+        response.release();
+    }
+
+    @Test
+    public void malformedNumberIsBadRequest() {
+
+        FullHttpResponse response = post("application/x-www-form-urlencoded", "user_name=razor&age=ten");
+
+        assertEquals(HttpResponseStatus.BAD_REQUEST, response.status());
+        response.release();
+    }
+
+    @Test
+    public void malformedJsonIsBadRequest() {
+
+        FullHttpResponse json = post("application/json", "{\"user_name\":\"razor\",\"age\":3,\"tags\":[\"a\"]}");
+
+        assertEquals("\"razor 3 [a]\"", json.content().toString(StandardCharsets.UTF_8));
+        json.release();
+
+        FullHttpResponse response = post("application/json", "{\"age\":");
+
+        assertEquals(HttpResponseStatus.BAD_REQUEST, response.status());
+        response.release();
+    }
+}
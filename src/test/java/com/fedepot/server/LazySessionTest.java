@@ -0,0 +1,98 @@
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.http.Session;
+import com.razor.test.app.TestApp;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
+import io.netty.handler.codec.http.cookie.Cookie;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class LazySessionTest {
+
+    private static final int REQUESTS = 1000;
+
+    private static FullHttpResponse get(HttpServerHandler handler, String path) {
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, path);
+        request.headers().set(HttpHeaderNames.HOST, "localhost");
+
+        handler.handleMessage(channel.pipeline().firstContext(), request);
+
+        FullHttpResponse response = channel.readOutbound();
+        assertEquals(HttpResponseStatus.OK, response.status());
+
+        return response;
+    }
+
+    @Test
+    public void requestsNotChangingSessionStoreNothing() {
+
+        Razor razor = TestApp.razor();
+        HttpServerHandler handler = new HttpServerHandler(razor);
+        SessionHandler sessionHandler = razor.getSessionHandler();
+        long writes = sessionHandler.writes();
+
+        // neither skipping nor only reading the session creates one
+        for (int i = 0; i < REQUESTS; i++) {
+
+            FullHttpResponse response = get(handler, i % 2 == 0 ? "/session/none" : "/session/read");
+
+            assertFalse(response.headers().contains(HttpHeaderNames.SET_COOKIE));
+            response.release();
+        }
+
+        assertEquals(writes, sessionHandler.writes());
+    }
+
+    @Test
+    public void changedSessionIsStoredAndSentOnce() {
+
+        Razor razor = TestApp.razor();
+        HttpServerHandler handler = new HttpServerHandler(razor);
+        SessionHandler sessionHandler = razor.getSessionHandler();
+        long writes = sessionHandler.writes();
+
+        FullHttpResponse response = get(handler, "/session/write");
+
+        assertEquals("\"written\"", response.content().toString(StandardCharsets.UTF_8));
+        Cookie cookie = ClientCookieDecoder.STRICT.decode(response.headers().get(HttpHeaderNames.SET_COOKIE));
+        response.release();
+
+        assertEquals(writes + 1, sessionHandler.writes());
+
+        Session session = razor.getSessionManager().get(cookie.value());
+        assertNotNull(session);
+        assertEquals("razor", session.attribute("user"));
+    }
+}
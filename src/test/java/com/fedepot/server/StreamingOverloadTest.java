@@ -0,0 +1,161 @@
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+import com.razor.test.app.TestApp;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class StreamingOverloadTest {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static ByteBuf chunk() {
+
+        ByteBuf chunk = PooledByteBufAllocator.DEFAULT.directBuffer(CHUNK_SIZE);
+        chunk.writeZero(CHUNK_SIZE);
+
+        return chunk;
+    }
+
+    @Test
+    public void rejectedStreamingRequestKeepsConnectionReadable() {
+
+        Razor razor = TestApp.razor();
+        WorkerPool pool = razor.getDispatcher().getDefaultPool();
+        CountDownLatch blocker = new CountDownLatch(1);
+
+        try {
+
+            // occupy every worker thread and queue slot
+            while (pool.execute(() -> awaitQuietly(blocker))) {
+
+                assertTrue(pool.queueDepth() <= TestApp.WORKER_QUEUE);
+            }
+
+            EmbeddedChannel channel = new EmbeddedChannel();
+            channel.pipeline()
+                    .addLast("streaming", new StreamingBodyHandler(razor))
+                    .addLast("aggregator", new HttpObjectAggregator(1024 * 1024))
+                    .addLast("request", new HttpServerHandler(razor));
+
+            HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/stream/upload");
+            HttpUtil.setTransferEncodingChunked(request, true);
+            channel.writeInbound(request);
+
+            FullHttpResponse response = channel.readOutbound();
+            assertEquals(HttpResponseStatus.SERVICE_UNAVAILABLE, response.status());
+            response.release();
+
+            // body keeps arriving far beyond the high water mark of the stream
+            List<ByteBuf> chunks = new ArrayList<>();
+
+            for (int i = 0; i < 16; i++) {
+
+                ByteBuf chunk = chunk();
+                chunks.add(chunk);
+                channel.writeInbound(new DefaultHttpContent(chunk));
+            }
+
+            channel.writeInbound(LastHttpContent.EMPTY_LAST_CONTENT);
+
+            assertTrue(channel.isOpen());
+            assertTrue(channel.config().isAutoRead());
+
+            for (ByteBuf chunk : chunks) {
+
+                assertEquals(0, chunk.refCnt());
+            }
+
+            channel.finishAndReleaseAll();
+        } finally {
+
+            blocker.countDown();
+        }
+    }
+
+    @Test
+    public void failReleasesBufferedChunks() {
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        RequestBodyStream body = new RequestBodyStream(channel, CHUNK_SIZE, 2 * CHUNK_SIZE);
+
+        ByteBuf first = chunk();
+        ByteBuf second = chunk();
+        body.offer(first);
+        body.offer(second);
+        assertFalse(channel.config().isAutoRead());
+
+        body.fail(new IOException("Connection closed"));
+
+        assertEquals(0, first.refCnt());
+        assertEquals(0, second.refCnt());
+        assertEquals(0, body.available());
+
+        ByteBuf late = chunk();
+        body.offer(late);
+        assertEquals(0, late.refCnt());
+
+        try {
+
+            body.read(new byte[16], 0, 16);
+            fail("Reading a failed stream should throw");
+        } catch (IOException e) {
+
+            assertEquals("Connection closed", e.getMessage());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+
+            latch.await();
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.fedepot.server;
+
+import com.fedepot.mvc.http.WebSocketGroups;
+import com.razor.test.app.TestApp;
+import com.razor.test.app.controllers.EchoSocket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.group.ChannelGroupFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class WebSocketUpgradeTest {
+
+    private static final String KEY = "dGhlIHNhbXBsZSBub25jZQ==";
+
+    private static final String ACCEPT = "s3pPLMBiTxaQ9kYGzzhZRbK+xOo=";
+
+    private EmbeddedChannel server;
+
+    private EmbeddedChannel client;
+
+    private WebSocketGroups groups;
+
+    @Before
+    public void setUp() {
+
+        groups = TestApp.razor().getWebSocketGroups();
+        EchoSocket.events.clear();
+
+        server = new EmbeddedChannel(new HttpServerCodec(), new HttpObjectAggregator(65536), new HttpServerHandler(TestApp.razor()));
+
+        // client side codecs, frames from a client must be masked
+        client = new EmbeddedChannel(new WebSocket13FrameEncoder(true), new WebSocket13FrameDecoder(false, false, 65536));
+    }
+
+    @After
+    public void tearDown() {
+
+        server.finishAndReleaseAll();
+        client.finishAndReleaseAll();
+    }
+
+    private String handshake() {
+
+        String request = "GET /ws/echo?name=alice HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Key: " + KEY + "\r\n"
+                + "Sec-WebSocket-Version: 13\r\n\r\n";
+
+        server.writeInbound(Unpooled.copiedBuffer(request, StandardCharsets.US_ASCII));
+
+        StringBuilder response = new StringBuilder();
+        ByteBuf buf;
+
+        while ((buf = server.readOutbound()) != null) {
+
+            response.append(buf.toString(StandardCharsets.US_ASCII));
+            buf.release();
+        }
+
+        return response.toString();
+    }
+
+    private void send(WebSocketFrame frame) {
+
+        client.writeOutbound(frame);
+
+        ByteBuf buf;
+
+        while ((buf = client.readOutbound()) != null) {
+
+            server.writeInbound(buf);
+        }
+    }
+
+    private WebSocketFrame receive() {
+
+        ByteBuf buf;
+
+        while ((buf = server.readOutbound()) != null) {
+
+            client.writeInbound(buf);
+        }
+
+        return client.readInbound();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> groupMap() throws Exception {
+
+        Field field = WebSocketGroups.class.getDeclaredField("groups");
+        field.setAccessible(true);
+
+        return (Map<String, ?>) field.get(groups);
+    }
+
+    @Test
+    public void handshakeSwitchesPipelineToFrames() {
+
+        String response = handshake();
+
+        assertTrue(response, response.startsWith("HTTP/1.1 101"));
+        assertTrue(response, response.contains(ACCEPT));
+        assertNotNull(server.pipeline().get("websocket"));
+        assertNull(server.pipeline().get(HttpServerHandler.class));
+        assertEquals("open alice", EchoSocket.events.get(0));
+        assertEquals(1, groups.size(EchoSocket.GROUP));
+
+        send(new TextWebSocketFrame("hello 你好"));
+        TextWebSocketFrame echo = (TextWebSocketFrame) receive();
+        assertEquals("hello 你好", echo.text());
+        echo.release();
+
+        groups.broadcast(EchoSocket.GROUP, "everyone").syncUninterruptibly();
+        TextWebSocketFrame broadcast = (TextWebSocketFrame) receive();
+        assertEquals("everyone", broadcast.text());
+        broadcast.release();
+    }
+
+    @Test
+    public void pingIsAnsweredAndCloseIsEchoed() {
+
+        handshake();
+
+        send(new PingWebSocketFrame(Unpooled.copiedBuffer("beat", StandardCharsets.US_ASCII)));
+        PongWebSocketFrame pong = (PongWebSocketFrame) receive();
+        assertEquals("beat", pong.content().toString(StandardCharsets.US_ASCII));
+        pong.release();
+
+        send(new CloseWebSocketFrame(1000, "bye"));
+        CloseWebSocketFrame close = (CloseWebSocketFrame) receive();
+        assertEquals(1000, close.statusCode());
+        close.release();
+
+        server.runPendingTasks();
+        assertFalse(server.isOpen());
+
+        // controller is notified once, not again when the channel goes inactive
+        assertEquals(2, EchoSocket.events.size());
+        assertEquals("close 1000 bye", EchoSocket.events.get(1));
+        assertEquals(0, groups.size(EchoSocket.GROUP));
+    }
+
+    @Test
+    public void broadcastToMissingGroupDoesNotCreateIt() throws Exception {
+
+        TextWebSocketFrame frame = new TextWebSocketFrame("nobody");
+        ChannelGroupFuture future = groups.broadcast("missing", frame);
+
+        assertTrue(future.isSuccess());
+        assertEquals(0, frame.refCnt());
+        assertFalse(groupMap().containsKey("missing"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.fedepot.server;
+
+import com.fedepot.Razor;
+import com.razor.test.app.TestApp;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.fedepot.mvc.Constants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class WorkerPoolTest {
+
+    /**
+     * Whether the running JVM could start virtual threads, detected the same way as the pool does
+     */
+    private static final boolean SUPPORTED = supported();
+
+    private static boolean supported() {
+
+        try {
+
+            Thread.class.getMethod("isVirtual");
+
+            return true;
+        } catch (NoSuchMethodException e) {
+
+            return false;
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+
+        try {
+
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void virtualPoolOnlyWhenSupported() throws Exception {
+
+        WorkerPool pool = WorkerPool.virtual("Test", 4);
+
+        if (!SUPPORTED) {
+
+            assertNull(pool);
+            return;
+        }
+
+        assertNotNull(pool);
+        assertTrue(pool.isVirtual());
+
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(pool.execute(() -> {
+
+            worker.set(Thread.currentThread());
+            done.countDown();
+        }));
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(true, Thread.class.getMethod("isVirtual").invoke(worker.get()));
+        assertEquals(0, pool.queueDepth());
+        pool.shutdown();
+    }
+
+    @Test
+    public void virtualPoolBoundsConcurrency() throws Exception {
+
+        Assume.assumeTrue(SUPPORTED);
+
+        WorkerPool pool = WorkerPool.virtual("Test", 2);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertTrue(pool.execute(() -> awaitQuietly(blocker)));
+        assertTrue(pool.execute(() -> awaitQuietly(blocker)));
+        assertFalse(pool.execute(done::countDown));
+        assertEquals(1, pool.rejected());
+
+        blocker.countDown();
+
+        // permits are given back when tasks finish
+        long deadline = System.currentTimeMillis() + 10000;
+
+        while (!pool.execute(done::countDown) && System.currentTimeMillis() < deadline) {
+
+            Thread.sleep(10);
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    public void fixedPoolRejectsBeyondQueue() throws Exception {
+
+        WorkerPool pool = new WorkerPool("Test", 1, 1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        assertFalse(pool.isVirtual());
+        assertTrue(pool.execute(() -> {
+
+            running.countDown();
+            awaitQuietly(blocker);
+        }));
+        assertTrue(running.await(10, TimeUnit.SECONDS));
+        assertTrue(pool.execute(() -> { }));
+        assertEquals(1, pool.queueDepth());
+        assertFalse(pool.execute(() -> { }));
+        assertEquals(1, pool.rejected());
+
+        blocker.countDown();
+        pool.shutdown();
+    }
+
+    @Test
+    public void dispatcherFallsBackWhenVirtualUnavailable() {
+
+        Razor razor = TestApp.razor();
+        razor.getEnv().set(ENV_KEY_VIRTUAL_THREADS, true);
+
+        try {
+
+            RequestDispatcher dispatcher = new RequestDispatcher(razor);
+
+            assertEquals(SUPPORTED, dispatcher.getDefaultPool().isVirtual());
+            assertEquals(SUPPORTED ? "Virtual" : "Worker", dispatcher.getDefaultPool().getName());
+            dispatcher.shutdown();
+        } finally {
+
+            razor.getEnv().set(ENV_KEY_VIRTUAL_THREADS, false);
+        }
+    }
+}
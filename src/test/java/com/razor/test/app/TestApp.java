@@ -0,0 +1,82 @@
+package com.razor.test.app;
+
+import com.fedepot.Razor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+import static com.fedepot.mvc.Constants.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * App shared by tests which need registered routes, routes and http context are global so it is started only once for a JVM
+ */
+public final class TestApp {
+
+    /**
+     * Worker threads of the test app, small so tests could saturate the pool
+     */
+    public static final int WORKER_THREADS = 2;
+
+    public static final int WORKER_QUEUE = 2;
+
+    private static Razor razor;
+
+    private TestApp() {
+
+    }
+
+    public static synchronized Razor razor() {
+
+        if (razor == null) {
+
+            Razor app = Razor.self();
+            app.getEnv().set(ENV_KEY_WORKER_THREADS, WORKER_THREADS);
+            app.getEnv().set(ENV_KEY_WORKER_QUEUE, WORKER_QUEUE);
+            app.start(TestApp.class, "127.0.0.1", freePort(), new String[0]);
+
+            if (!app.ready()) {
+
+                throw new IllegalStateException("Test app failed to start");
+            }
+
+            razor = app;
+        }
+
+        return razor;
+    }
+
+    private static int freePort() {
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+
+            return socket.getLocalPort();
+        } catch (IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.razor.test.app.controllers;
+
+import com.fedepot.mvc.annotation.FromBody;
+import com.fedepot.mvc.annotation.HttpPost;
+import com.fedepot.mvc.annotation.Route;
+import com.fedepot.mvc.controller.Controller;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Actions which bind a form or json body to an object
+ */
+public class FormController extends Controller {
+
+    public static class Profile {
+
+        @SerializedName(value = "user_name", alternate = {"login"})
+        public String name;
+
+        public int age;
+
+        public List<String> tags;
+    }
+
+    @HttpPost
+    @Route("form/profile")
+    public String profile(@FromBody Profile profile) {
+
+        return profile.name + " " + profile.age + " " + profile.tags;
+    }
+}
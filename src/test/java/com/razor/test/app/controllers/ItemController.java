@@ -0,0 +1,90 @@
+package com.razor.test.app.controllers;
+
+import com.fedepot.mvc.annotation.HttpAll;
+import com.fedepot.mvc.annotation.HttpDelete;
+import com.fedepot.mvc.annotation.HttpPost;
+import com.fedepot.mvc.annotation.Route;
+import com.fedepot.mvc.controller.Controller;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Routes of each kind, static, parameters, universal match and routes which are only matched by regex
+ */
+public class ItemController extends Controller {
+
+    @Route("items/list")
+    public String list() {
+
+        return "list";
+    }
+
+    @Route("items/{int:id}")
+    public String item(int id) {
+
+        return "item " + id;
+    }
+
+    @HttpPost
+    @Route("items/{int:id}")
+    public String update(int id) {
+
+        return "update " + id;
+    }
+
+    @Route("items/{string:name}/tags")
+    public String tags(String name) {
+
+        return "tags " + name;
+    }
+
+    @HttpAll
+    @Route("items/{int:id}/meta")
+    public String meta(int id) {
+
+        return "meta " + id;
+    }
+
+    @HttpDelete
+    @Route("items/{int:id}/meta")
+    public String deleteMeta(int id) {
+
+        return "delete meta " + id;
+    }
+
+    /**
+     * Two parameters in one segment are not supported by the trie
+     */
+    @Route("items/{int:from}-{int:to}")
+    public String range(int from, int to) {
+
+        return "range " + from + "-" + to;
+    }
+
+    @Route("files/*")
+    public String files() {
+
+        return "files " + Request().path();
+    }
+}
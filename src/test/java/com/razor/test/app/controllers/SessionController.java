@@ -0,0 +1,55 @@
+package com.razor.test.app.controllers;
+
+import com.fedepot.mvc.annotation.Route;
+import com.fedepot.mvc.controller.Controller;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+/**
+ * Actions which skip, read or change the session
+ */
+public class SessionController extends Controller {
+
+    @Route("session/none")
+    public String none() {
+
+        return "none";
+    }
+
+    @Route("session/read")
+    public String read() {
+
+        Object user = Request().session().attribute("user");
+
+        return user != null ? user.toString() : "guest";
+    }
+
+    @Route("session/write")
+    public String write() {
+
+        Request().session().addAttribute("user", "razor");
+
+        return "written";
+    }
+}
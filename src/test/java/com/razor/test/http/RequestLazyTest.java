@@ -0,0 +1,202 @@
+package com.razor.test.http;
+
+import com.fedepot.mvc.http.Cookie;
+import com.fedepot.mvc.http.Request;
+import com.fedepot.mvc.route.PathParameter;
+import com.razor.test.app.TestApp;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class RequestLazyTest {
+
+    private static ChannelHandlerContext ctx;
+
+    @BeforeClass
+    public static void setUp() {
+
+        // routes and http context of the app are needed for route decoding
+        TestApp.razor();
+
+        ctx = new EmbeddedChannel(new ChannelInboundHandlerAdapter()).pipeline().firstContext();
+    }
+
+    private static Request request(HttpMethod method, String uri, String contentType, String body, String... headers) {
+
+        FullHttpRequest fullHttpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, method, uri, Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
+        fullHttpRequest.headers().set(HttpHeaderNames.HOST, "localhost:8088");
+
+        if (contentType != null) {
+
+            fullHttpRequest.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        }
+
+        for (int i = 0; i < headers.length; i += 2) {
+
+            fullHttpRequest.headers().set(headers[i], headers[i + 1]);
+        }
+
+        return Request.build(ctx, fullHttpRequest, null);
+    }
+
+    private static Request get(String uri, String... headers) {
+
+        return request(HttpMethod.GET, uri, null, "", headers);
+    }
+
+    private static Object field(Request request, String name) throws Exception {
+
+        Field field = Request.class.getDeclaredField(name);
+        field.setAccessible(true);
+
+        return field.get(request);
+    }
+
+    @Test
+    public void nothingIsDecodedBeforeFirstAccess() throws Exception {
+
+        Request request = request(HttpMethod.POST, "/items/7?page=2", "application/x-www-form-urlencoded", "name=razor", "Cookie", "a=1");
+
+        for (String name : Arrays.asList("queries", "cookies", "router", "pathParams", "formParams", "files", "hostname", "ip", "session")) {
+
+            assertNull(name, field(request, name));
+        }
+
+        assertEquals(false, field(request, "routeResolved"));
+        assertEquals(false, field(request, "bodyDecoded"));
+
+        // each part is decoded once and kept
+        Map<String, List<String>> queries = request.getQueries();
+        assertSame(queries, request.getQueries());
+
+        Map<String, String> cookies = request.getCookies();
+        assertSame(cookies, request.getCookies());
+
+        Map<String, List<String>> formParams = request.getFormParams();
+        assertSame(formParams, request.getFormParams());
+        assertEquals(Collections.singletonList("razor"), formParams.get("name"));
+
+        assertEquals("localhost", request.getHostname());
+        request.release();
+    }
+
+    @Test
+    public void queriesAreDecoded() {
+
+        Request request = get("/items/list?name=a%20b&tag=1&tag=2&flag");
+        Map<String, List<String>> queries = request.getQueries();
+
+        assertEquals("/items/list", request.path());
+        assertEquals(Collections.singletonList("a b"), queries.get("name"));
+        assertEquals(Arrays.asList("1", "2"), queries.get("tag"));
+        assertEquals(Collections.singletonList(""), queries.get("flag"));
+        assertTrue(get("/items/list").getQueries().isEmpty());
+        request.release();
+    }
+
+    @Test
+    public void routeAndPathParamsAreDecoded() {
+
+        Request item = get("/items/7");
+        PathParameter[] params = item.getPathParams();
+
+        assertTrue(item.matchRoute());
+        assertEquals("item", item.router().getAction().getName());
+        assertEquals(1, params.length);
+        assertEquals("id", params[0].getName());
+        assertEquals(7, params[0].getValue());
+
+        Request tags = get("/items/razor/tags");
+        assertEquals("tags", tags.router().getAction().getName());
+        assertEquals("razor", tags.getPathParams()[0].getValue());
+
+        Request missing = get("/items/7/unknown");
+        assertFalse(missing.matchRoute());
+        assertNull(missing.router());
+        assertNull(missing.getPathParams());
+
+        Arrays.asList(item, tags, missing).forEach(Request::release);
+    }
+
+    @Test
+    public void preflightIsRoutedByRequestedMethod() {
+
+        Request request = request(HttpMethod.OPTIONS, "/items/7", null, "", "Access-Control-Request-Method", "POST");
+
+        assertEquals("update", request.router().getAction().getName());
+        assertNull(request.getPathParams());
+        request.release();
+    }
+
+    @Test
+    public void bodyIsKeptRawAndFormIsDecodedOnDemand() throws Exception {
+
+        Request json = request(HttpMethod.POST, "/items/7", "application/json", "{\"name\":\"你好\"}");
+
+        assertEquals("{\"name\":\"你好\"}", json.getRawBody().toString(StandardCharsets.UTF_8));
+        assertEquals(false, field(json, "bodyDecoded"));
+        json.release();
+
+        // body of a GET request is never decoded
+        Request get = request(HttpMethod.GET, "/items/7", "application/x-www-form-urlencoded", "name=razor");
+        assertNull(get.getFormParams());
+        get.release();
+
+        // a released request does not decode its body any more
+        Request released = request(HttpMethod.POST, "/items/7", "application/x-www-form-urlencoded", "name=razor");
+        released.release();
+        assertNull(released.getFormParams());
+        assertNull(released.files());
+    }
+
+    @Test
+    public void cookiesAreParsedFromHeader() {
+
+        Request request = get("/items/7", "Cookie", "SESSION=\"abc\"; token=ab+c==; SESSION=other");
+
+        assertEquals("abc", request.cookie("SESSION").orElse(null));
+        assertEquals("ab+c==", request.cookie("token").orElse(null));
+        assertFalse(request.cookie("missing").isPresent());
+
+        // a cookie set during the request is visible to later reads
+        request.cookie(Cookie.builder().name("added").value("1").build());
+        assertEquals("1", request.cookie("added").orElse(null));
+        request.release();
+    }
+}
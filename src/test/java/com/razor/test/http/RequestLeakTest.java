@@ -0,0 +1,190 @@
+package com.razor.test.http;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.Request;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+public class RequestLeakTest {
+
+    private static final int ROUNDS = 500;
+
+    private static final String BOUNDARY = "RazorBoundary";
+
+    private static final List<String> leaks = new CopyOnWriteArrayList<>();
+
+    private static ResourceLeakDetector.Level level;
+
+    private static ChannelHandlerContext ctx;
+
+    /**
+     * Leak detector which records reports instead of only logging them
+     */
+    private static class RecordingLeakDetector<T> extends ResourceLeakDetector<T> {
+
+        RecordingLeakDetector(Class<?> resourceType, int samplingInterval) {
+
+            super(resourceType, samplingInterval);
+        }
+
+        @Override
+        protected void reportTracedLeak(String resourceType, String records) {
+
+            leaks.add(resourceType + records);
+            super.reportTracedLeak(resourceType, records);
+        }
+
+        @Override
+        protected void reportUntracedLeak(String resourceType) {
+
+            leaks.add(resourceType);
+            super.reportUntracedLeak(resourceType);
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+
+        level = ResourceLeakDetector.getLevel();
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+
+        // must be installed before buffer classes create their detector
+        ResourceLeakDetectorFactory.setResourceLeakDetectorFactory(new ResourceLeakDetectorFactory() {
+
+            @Override
+            @SuppressWarnings("deprecation")
+            public <T> ResourceLeakDetector<T> newResourceLeakDetector(Class<T> resource, int samplingInterval, long maxActive) {
+
+                return new RecordingLeakDetector<>(resource, samplingInterval);
+            }
+        });
+
+        HttpContext.init(Razor.self());
+
+        EmbeddedChannel channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        ctx = channel.pipeline().firstContext();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+
+        ResourceLeakDetector.setLevel(level);
+    }
+
+    private static FullHttpRequest post(String contentType, String body) {
+
+        ByteBuf content = PooledByteBufAllocator.DEFAULT.directBuffer();
+        content.writeCharSequence(body, StandardCharsets.UTF_8);
+
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/books", content);
+        request.headers().set("Host", "localhost").set("Content-Type", contentType);
+
+        return request;
+    }
+
+    @Test
+    public void releaseJsonRequest() {
+
+        for (int i = 0; i < ROUNDS; i++) {
+
+            FullHttpRequest fullHttpRequest = post("application/json", "{\"id\":" + i + ",\"name\":\"razor\"}");
+            Request request = Request.build(ctx, fullHttpRequest, null);
+
+            assertEquals("{\"id\":" + i + ",\"name\":\"razor\"}", request.getRawBody().toString(StandardCharsets.UTF_8));
+
+            request.release();
+            // releasing twice is harmless
+            request.release();
+
+            assertEquals(0, fullHttpRequest.refCnt());
+        }
+
+        assertNoLeaks();
+    }
+
+    @Test
+    public void releaseMultipartRequest() {
+
+        String body = "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"book.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "razor book\r\n"
+                + "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"name\"\r\n\r\n"
+                + "razor\r\n"
+                + "--" + BOUNDARY + "--\r\n";
+
+        for (int i = 0; i < ROUNDS; i++) {
+
+            FullHttpRequest fullHttpRequest = post("multipart/form-data; boundary=" + BOUNDARY, body);
+            Request request = Request.build(ctx, fullHttpRequest, null);
+
+            assertEquals("razor book", new String(request.files().get("file").getData(), StandardCharsets.UTF_8));
+            assertEquals("razor", request.getFormParams().get("name").get(0));
+
+            request.release();
+
+            assertEquals(0, fullHttpRequest.refCnt());
+        }
+
+        assertNoLeaks();
+    }
+
+    /**
+     * Leaks are reported when a leaked buffer has been collected and another buffer is tracked
+     */
+    private static void assertNoLeaks() {
+
+        for (int i = 0; i < 5; i++) {
+
+            System.gc();
+            System.runFinalization();
+            PooledByteBufAllocator.DEFAULT.directBuffer().release();
+        }
+
+        assertTrue("Leaked buffers: " + leaks, leaks.isEmpty());
+    }
+}
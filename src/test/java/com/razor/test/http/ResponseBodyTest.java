@@ -0,0 +1,314 @@
+package com.razor.test.http;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.http.ActionResult;
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.Request;
+import com.fedepot.mvc.http.Response;
+import com.fedepot.mvc.json.GsonSerializer;
+import com.fedepot.mvc.json.JacksonSerializer;
+import com.fedepot.mvc.json.JsonSerializer;
+import com.fedepot.mvc.json.JsonSerializerFactory;
+import com.razor.test.app.TestApp;
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class ResponseBodyTest {
+
+    private static final String TEXT = "héllo 你好 😀";
+
+    /**
+     * Allocator keeping every buffer it creates, so tests could check they are released
+     */
+    private static class RecordingAllocator extends AbstractByteBufAllocator {
+
+        private final List<ByteBuf> buffers = new ArrayList<>();
+
+        private ByteBuf record(ByteBuf buf) {
+
+            buffers.add(buf);
+
+            return buf;
+        }
+
+        @Override
+        protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+
+            return record(UnpooledByteBufAllocator.DEFAULT.heapBuffer(initialCapacity, maxCapacity));
+        }
+
+        @Override
+        protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+
+            return record(UnpooledByteBufAllocator.DEFAULT.directBuffer(initialCapacity, maxCapacity));
+        }
+
+        @Override
+        public boolean isDirectBufferPooled() {
+
+            return false;
+        }
+    }
+
+    /**
+     * Serializer which writes part of the output before failing
+     */
+    private static class FailingSerializer extends GsonSerializer {
+
+        private final boolean checked;
+
+        FailingSerializer(boolean checked) {
+
+            this.checked = checked;
+        }
+
+        @Override
+        public void write(Object data, OutputStream out) throws IOException {
+
+            out.write("{\"partial\":".getBytes(StandardCharsets.UTF_8));
+
+            if (checked) {
+
+                throw new IOException("broken");
+            }
+
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    private RecordingAllocator allocator;
+
+    private EmbeddedChannel channel;
+
+    private ChannelHandlerContext ctx;
+
+    @Before
+    public void setUp() {
+
+        allocator = new RecordingAllocator();
+        channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        channel.config().setAllocator(allocator);
+        ctx = channel.pipeline().firstContext();
+    }
+
+    @After
+    public void tearDown() {
+
+        JsonSerializerFactory.setSerializer(new GsonSerializer());
+        HttpContext.remove();
+        channel.finishAndReleaseAll();
+    }
+
+    private FullHttpResponse read() {
+
+        FullHttpResponse response = channel.readOutbound();
+        assertNotNull(response);
+
+        return response;
+    }
+
+    private static void assertContentLength(FullHttpResponse response, byte[] expected) {
+
+        assertEquals(Integer.toString(expected.length), response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+        assertEquals(expected.length, response.content().readableBytes());
+
+        byte[] content = new byte[expected.length];
+        response.content().getBytes(response.content().readerIndex(), content);
+        assertArrayEquals(expected, content);
+    }
+
+    @Test
+    public void contentLengthOfTextIsUtf8ByteCount() {
+
+        Response.build(ctx).end(TEXT);
+
+        FullHttpResponse response = read();
+        assertContentLength(response, TEXT.getBytes(StandardCharsets.UTF_8));
+        assertNotEquals(TEXT.length(), response.content().readableBytes());
+        response.release();
+    }
+
+    @Test
+    public void contentLengthOfJsonIsUtf8ByteCount() {
+
+        Response.build(ctx).json(Collections.singletonMap("text", TEXT));
+
+        FullHttpResponse response = read();
+        assertContentLength(response, ("{\"text\":\"" + TEXT + "\"}").getBytes(StandardCharsets.UTF_8));
+        assertTrue(response.headers().get(HttpHeaderNames.CONTENT_TYPE).startsWith("application/json"));
+        response.release();
+    }
+
+    @Test
+    public void contentLengthOfBytes() {
+
+        byte[] bytes = TEXT.getBytes(StandardCharsets.UTF_8);
+        Response.build(ctx).end(bytes);
+
+        FullHttpResponse response = read();
+        assertContentLength(response, bytes);
+        response.release();
+    }
+
+    @Test
+    public void actionResultIsSerializedIntoAllocatorBuffer() {
+
+        ByteBuf content = ActionResult.build(TEXT, String.class).getContent(allocator);
+
+        assertEquals("\"" + TEXT + "\"", content.toString(StandardCharsets.UTF_8));
+        assertTrue(allocator.buffers.contains(content));
+        content.release();
+
+        assertSame(Unpooled.EMPTY_BUFFER, ActionResult.build(null, Void.TYPE).getContent(allocator));
+    }
+
+    @Test
+    public void bufferIsReleasedWhenSerializationThrowsIOException() {
+
+        JsonSerializerFactory.setSerializer(new FailingSerializer(true));
+
+        try {
+
+            ActionResult.build(TEXT, String.class).getContent(allocator);
+            fail("UncheckedIOException is expected");
+        } catch (UncheckedIOException e) {
+
+            assertEquals("broken", e.getCause().getMessage());
+        }
+
+        assertFalse(allocator.buffers.isEmpty());
+        allocator.buffers.forEach(buf -> assertEquals(0, buf.refCnt()));
+    }
+
+    @Test
+    public void bufferIsReleasedWhenSerializationThrowsRuntimeException() {
+
+        JsonSerializerFactory.setSerializer(new FailingSerializer(false));
+        Response response = Response.build(ctx);
+
+        try {
+
+            response.json(TEXT);
+            fail("IllegalStateException is expected");
+        } catch (IllegalStateException e) {
+
+            assertEquals("broken", e.getMessage());
+        }
+
+        assertFalse(allocator.buffers.isEmpty());
+        allocator.buffers.forEach(buf -> assertEquals(0, buf.refCnt()));
+
+        // nothing is sent, so an error response could still be written
+        assertFalse(response.flushed());
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void bufferIsReleasedWhenResponseIsAlreadySent() {
+
+        Response response = Response.build(ctx);
+        response.end("first");
+        read().release();
+
+        ByteBuf late = allocator.buffer();
+        response.end(late);
+
+        assertEquals(0, late.refCnt());
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void connectionIsClosedWithoutKeepAlive() {
+
+        // request reads static paths of the app
+        TestApp.razor();
+
+        FullHttpRequest fullHttpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        fullHttpRequest.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        Request request = Request.build(ctx, fullHttpRequest, null);
+        HttpContext.set(new HttpContext(request, null));
+
+        Response.build(ctx).end(TEXT);
+
+        read().release();
+        assertFalse(channel.isOpen());
+        request.release();
+    }
+
+    @Test
+    public void serializerIsSelectedByName() {
+
+        Razor razor = Razor.self();
+
+        razor.useJsonSerializer("JACKSON");
+        assertEquals(JacksonSerializer.class, JsonSerializerFactory.getSerializer().getClass());
+
+        razor.useJsonSerializer("gson");
+        assertEquals(GsonSerializer.class, JsonSerializerFactory.getSerializer().getClass());
+    }
+
+    @Test
+    public void unknownSerializerNameIsRejected() {
+
+        JsonSerializer selected = JsonSerializerFactory.getSerializer();
+
+        for (String name : new String[]{"jakson", "fastjson", ""}) {
+
+            try {
+
+                Razor.self().useJsonSerializer(name);
+                fail("IllegalArgumentException is expected for " + name);
+            } catch (IllegalArgumentException e) {
+
+                assertTrue(e.getMessage().contains(name));
+            }
+        }
+
+        // a rejected name keeps the selected serializer
+        assertSame(selected, JsonSerializerFactory.getSerializer());
+    }
+}
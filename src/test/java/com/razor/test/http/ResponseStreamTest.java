@@ -0,0 +1,481 @@
+package com.razor.test.http;
+
+import com.fedepot.mvc.http.HttpContext;
+import com.fedepot.mvc.http.Request;
+import com.fedepot.mvc.http.Response;
+import com.fedepot.mvc.http.ResponseStream;
+import com.razor.test.app.TestApp;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.stream.ChunkedStream;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class ResponseStreamTest {
+
+    /**
+     * Outbound handler holding writes, so their futures complete only when the test decides
+     */
+    private static class Gate extends ChannelOutboundHandlerAdapter {
+
+        private final Queue<ChannelPromise> promises = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+
+            ReferenceCountUtil.release(msg);
+            promises.add(promise);
+        }
+
+        /**
+         * Complete writes held so far, a write made by a waiter woken up meanwhile is kept
+         */
+        void succeed() {
+
+            for (int i = promises.size(); i > 0; i--) {
+
+                promises.poll().setSuccess();
+            }
+        }
+
+        void fail() {
+
+            for (int i = promises.size(); i > 0; i--) {
+
+                promises.poll().setFailure(new IOException("connection reset"));
+            }
+        }
+
+        void awaitWrites(int count) throws InterruptedException {
+
+            for (int i = 0; i < 500 && promises.size() < count; i++) {
+
+                Thread.sleep(10);
+            }
+
+            assertEquals(count, promises.size());
+        }
+    }
+
+    private EmbeddedChannel channel;
+
+    private EventExecutorGroup executorGroup;
+
+    @After
+    public void tearDown() {
+
+        HttpContext.remove();
+
+        if (channel != null) {
+
+            channel.finishAndReleaseAll();
+        }
+
+        if (executorGroup != null) {
+
+            executorGroup.shutdownGracefully();
+        }
+    }
+
+    /**
+     * Channel with chunked write handler as the server pipeline has, context of the last handler is returned
+     */
+    private ChannelHandlerContext chunkedChannel() {
+
+        channel = new EmbeddedChannel(new ChunkedWriteHandler(), new ChannelInboundHandlerAdapter());
+
+        return channel.pipeline().lastContext();
+    }
+
+    private List<Object> outbound() {
+
+        List<Object> messages = new ArrayList<>();
+
+        for (Object msg; (msg = channel.readOutbound()) != null; ) {
+
+            messages.add(msg);
+        }
+
+        return messages;
+    }
+
+    private static List<String> chunks(List<Object> messages) {
+
+        List<String> chunks = new ArrayList<>();
+
+        for (Object msg : messages) {
+
+            if (msg instanceof HttpContent && !(msg instanceof LastHttpContent)) {
+
+                chunks.add(((HttpContent)msg).content().toString(StandardCharsets.UTF_8));
+            }
+        }
+
+        return chunks;
+    }
+
+    private static void assertChunkedHead(Object msg) {
+
+        assertTrue(msg instanceof HttpResponse);
+        assertFalse(msg instanceof HttpContent);
+
+        HttpHeaders headers = ((HttpResponse)msg).headers();
+        assertEquals("chunked", headers.get(HttpHeaderNames.TRANSFER_ENCODING));
+        assertFalse(headers.contains(HttpHeaderNames.CONTENT_LENGTH));
+    }
+
+    private static void assertLast(List<Object> messages) {
+
+        assertSame(LastHttpContent.EMPTY_LAST_CONTENT, messages.get(messages.size() - 1));
+    }
+
+    private static byte[] bytes(String text) {
+
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void bytesAreSentInChunksOfChunkSize() throws Exception {
+
+        ResponseStream stream = Response.build(chunkedChannel()).stream(4);
+
+        stream.write(bytes("abcdefghij"));
+        assertEquals(3, outbound().size());
+
+        stream.flush();
+        for (byte b : bytes("klmn")) {
+
+            stream.write(b);
+        }
+
+        // text is encoded into the pending chunk as a whole
+        stream.write("你好");
+        stream.write(bytes("xy"), 0, 1);
+        stream.close();
+
+        List<Object> messages = outbound();
+        assertEquals(Arrays.asList("ij", "klmn", "你好", "x"), chunks(messages));
+        assertLast(messages);
+        messages.forEach(ReferenceCountUtil::release);
+    }
+
+    @Test
+    public void headIsSentBeforeFirstChunk() throws Exception {
+
+        ResponseStream stream = Response.build(chunkedChannel()).stream(4);
+        stream.write(bytes("abcd"));
+
+        List<Object> messages = outbound();
+        assertChunkedHead(messages.get(0));
+        assertEquals(Collections.singletonList("abcd"), chunks(messages));
+        messages.forEach(ReferenceCountUtil::release);
+
+        // nothing pending, close only sends the last chunk
+        stream.close();
+        messages = outbound();
+        assertEquals(Collections.singletonList(LastHttpContent.EMPTY_LAST_CONTENT), messages);
+        assertTrue(stream.lastFuture().isSuccess());
+    }
+
+    @Test
+    public void bufferIsSentAsOneChunkAfterPendingBytes() throws Exception {
+
+        ResponseStream stream = Response.build(chunkedChannel()).stream(4);
+        stream.write(bytes("ab"));
+        stream.write(Unpooled.copiedBuffer("0123456789", StandardCharsets.UTF_8));
+        stream.close();
+
+        List<Object> messages = outbound();
+        assertEquals(Arrays.asList("ab", "0123456789"), chunks(messages));
+        assertLast(messages);
+        messages.forEach(ReferenceCountUtil::release);
+    }
+
+    @Test
+    public void closedStreamRejectsWrites() throws Exception {
+
+        ResponseStream stream = Response.build(chunkedChannel()).stream(4);
+        stream.close();
+        stream.close();
+
+        // head and the last chunk only
+        List<Object> messages = outbound();
+        assertEquals(2, messages.size());
+        assertLast(messages);
+        assertTrue(stream.isClosed());
+
+        try {
+
+            stream.write(bytes("a"));
+            fail("ClosedChannelException is expected");
+        } catch (ClosedChannelException e) {
+
+            // expected
+        }
+
+        ByteBuf buf = Unpooled.copiedBuffer("late", StandardCharsets.UTF_8);
+
+        try {
+
+            stream.write(buf);
+            fail("ClosedChannelException is expected");
+        } catch (ClosedChannelException e) {
+
+            assertEquals(0, buf.refCnt());
+        }
+
+        // keep-alive connection stays open
+        assertTrue(channel.isOpen());
+    }
+
+    @Test
+    public void connectionIsClosedAfterLastChunkWithoutKeepAlive() throws Exception {
+
+        ChannelHandlerContext ctx = chunkedChannel();
+
+        TestApp.razor();
+        FullHttpRequest fullHttpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        fullHttpRequest.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+        Request request = Request.build(ctx, fullHttpRequest, null);
+        HttpContext.set(new HttpContext(request, null));
+
+        ResponseStream stream = Response.build(ctx).stream(4);
+        stream.write(bytes("ab"));
+        assertTrue(channel.isOpen());
+
+        stream.close();
+
+        List<Object> messages = outbound();
+        assertFalse(((HttpResponse)messages.get(0)).headers().contains(HttpHeaderNames.CONNECTION, "keep-alive", true));
+        assertEquals(Collections.singletonList("ab"), chunks(messages));
+        assertLast(messages);
+        assertFalse(channel.isOpen());
+        messages.forEach(ReferenceCountUtil::release);
+        request.release();
+    }
+
+    @Test
+    public void chunkedInputIsSentByChunkedWriteHandler() throws Exception {
+
+        final boolean[] closed = {false};
+        ByteArrayInputStream in = new ByteArrayInputStream(bytes("abcdefg")) {
+
+            @Override
+            public void close() throws IOException {
+
+                closed[0] = true;
+                super.close();
+            }
+        };
+
+        ResponseStream stream = Response.build(chunkedChannel()).stream(4);
+        stream.write(bytes("12"));
+
+        ChannelFuture future = stream.write(new ChunkedStream(in, 3));
+        stream.close();
+
+        assertTrue(future.isSuccess());
+        assertTrue(closed[0]);
+
+        List<Object> messages = outbound();
+        assertChunkedHead(messages.get(0));
+        assertEquals(Arrays.asList("12", "abc", "def", "g"), chunks(messages));
+        assertLast(messages);
+        messages.forEach(ReferenceCountUtil::release);
+    }
+
+    @Test
+    public void workerThreadWaitsWhileChannelIsNotWritable() throws Exception {
+
+        Gate gate = new Gate();
+        executorGroup = new DefaultEventExecutorGroup(1);
+        channel = new EmbeddedChannel(gate);
+        // the action context runs on another executor, so writes from the test thread are writes of a worker
+        channel.pipeline().addLast(executorGroup, "action", new ChannelInboundHandlerAdapter());
+
+        ResponseStream stream = Response.build(channel.pipeline().context("action")).stream(4);
+        gate.awaitWrites(1);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        assertFalse(stream.isWritable());
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+
+            try {
+
+                stream.write(bytes("abcd"));
+            } catch (Throwable e) {
+
+                error.set(e);
+            }
+        });
+        writer.start();
+
+        // the chunk waits for the head to be sent
+        Thread.sleep(200);
+        assertTrue(writer.isAlive());
+        assertEquals(1, gate.promises.size());
+
+        gate.succeed();
+        writer.join(5000);
+
+        assertFalse(writer.isAlive());
+        assertNull(error.get());
+        gate.awaitWrites(1);
+        gate.succeed();
+    }
+
+    @Test
+    public void failedWriteWhileWaitingClosesStream() throws Exception {
+
+        Gate gate = new Gate();
+        executorGroup = new DefaultEventExecutorGroup(1);
+        channel = new EmbeddedChannel(gate);
+        channel.pipeline().addLast(executorGroup, "action", new ChannelInboundHandlerAdapter());
+
+        ResponseStream stream = Response.build(channel.pipeline().context("action")).stream(4);
+        gate.awaitWrites(1);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+
+            try {
+
+                stream.write(bytes("abcd"));
+            } catch (Throwable e) {
+
+                error.set(e);
+            }
+        });
+        writer.start();
+
+        Thread.sleep(200);
+        gate.fail();
+        writer.join(5000);
+
+        assertTrue(error.get() instanceof IOException);
+        assertEquals("connection reset", error.get().getCause().getMessage());
+        assertTrue(stream.isClosed());
+    }
+
+    @Test
+    public void eventLoopNeverWaitsForWritability() throws Exception {
+
+        Gate gate = new Gate();
+        channel = new EmbeddedChannel(gate, new ChannelInboundHandlerAdapter());
+
+        ResponseStream stream = Response.build(channel.pipeline().lastContext()).stream(4);
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+
+        // head is never sent, yet writes on the event loop return at once
+        stream.write(bytes("abcdefgh"));
+        stream.close();
+
+        assertEquals(4, gate.promises.size());
+        gate.succeed();
+    }
+
+    private List<Object> send(Object data) {
+
+        ChannelHandlerContext ctx = chunkedChannel();
+        Response.build(ctx).send(data);
+
+        return outbound();
+    }
+
+    private static String fullBody(List<Object> messages) {
+
+        assertEquals(1, messages.size());
+
+        FullHttpResponse response = (FullHttpResponse)messages.get(0);
+        String body = response.content().toString(StandardCharsets.UTF_8);
+        assertEquals(Integer.toString(response.content().readableBytes()), response.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+        response.release();
+
+        return body;
+    }
+
+    @Test
+    public void sendDispatchesByType() throws Exception {
+
+        assertEquals("", fullBody(send(null)));
+        assertEquals("text", fullBody(send(new StringBuilder("text"))));
+        assertEquals("bytes", fullBody(send(bytes("bytes"))));
+        assertEquals("buffer", fullBody(send(Unpooled.copiedBuffer("buffer", StandardCharsets.UTF_8))));
+        assertEquals("{\"key\":\"value\"}", fullBody(send(Collections.singletonMap("key", "value"))));
+
+        List<Object> stream = send(new ByteArrayInputStream(bytes("stream")));
+        assertChunkedHead(stream.get(0));
+        assertEquals(Collections.singletonList("stream"), chunks(stream));
+        assertLast(stream);
+        stream.forEach(ReferenceCountUtil::release);
+
+        List<Object> input = send(new ChunkedStream(new ByteArrayInputStream(bytes("input")), 2));
+        assertEquals(Arrays.asList("in", "pu", "t"), chunks(input));
+        assertLast(input);
+        input.forEach(ReferenceCountUtil::release);
+
+        File file = File.createTempFile("razor", ".txt");
+
+        try {
+
+            Files.write(file.toPath(), bytes("file content"));
+
+            List<Object> region = send(file);
+            assertEquals("12", ((HttpResponse)region.get(0)).headers().get(HttpHeaderNames.CONTENT_LENGTH));
+            assertEquals(12, ((FileRegion)region.get(1)).count());
+            assertLast(region);
+            region.forEach(ReferenceCountUtil::release);
+        } finally {
+
+            assertTrue(file.delete());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.razor.test.http;
+
+import com.fedepot.Razor;
+import com.fedepot.mvc.http.HttpSession;
+import com.fedepot.mvc.http.Session;
+import com.fedepot.server.SessionHandler;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.fedepot.mvc.Constants.*;
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class SessionHandlerTest {
+
+    private static final int INTERVAL = 300;
+
+    private static Session newSession() {
+
+        long now = Instant.now().getEpochSecond();
+
+        return new HttpSession(UUID.randomUUID().toString(), now, now + 3600);
+    }
+
+    private static void awaitWrites(SessionHandler handler, long writes) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (handler.writes() < writes && System.currentTimeMillis() < deadline) {
+
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    public void unchangedSessionIsNotWritten() {
+
+        Razor razor = Razor.self();
+        SessionHandler handler = new SessionHandler(razor);
+        Session session = newSession();
+
+        // a new session is written once
+        handler.commit(session);
+        assertEquals(1, handler.writes());
+        assertFalse(session.isDirty());
+
+        handler.commit(session);
+        handler.commit(session);
+        assertEquals(1, handler.writes());
+
+        session.addAttribute("user", "razor");
+        handler.commit(session);
+        assertEquals(2, handler.writes());
+        assertEquals("razor", razor.getSessionManager().get(session.id()).attribute("user"));
+
+        handler.commit(null);
+        assertEquals(2, handler.writes());
+    }
+
+    @Test
+    public void changesWithinIntervalAreWrittenOnce() throws Exception {
+
+        Razor razor = Razor.self();
+        razor.getEnv().set(ENV_KEY_SESSION_WRITE_BEHIND, true).set(ENV_KEY_SESSION_WRITE_BEHIND_INTERVAL, INTERVAL);
+
+        SessionHandler handler = new SessionHandler(razor);
+        Session session = newSession();
+
+        try {
+
+            for (int i = 0; i < 5; i++) {
+
+                session.addAttribute("count", i);
+                handler.commit(session);
+            }
+
+            // stored later by the writer, not by the requests
+            assertEquals(0, handler.writes());
+            assertEquals(4, handler.coalescedWrites());
+
+            awaitWrites(handler, 1);
+            assertEquals(1, handler.writes());
+            assertEquals(4, (int) razor.getSessionManager().get(session.id()).attribute("count"));
+
+            // nothing changed since, later flushes write nothing
+            Thread.sleep(INTERVAL * 3);
+            handler.commit(session);
+            assertEquals(1, handler.writes());
+        } finally {
+
+            handler.shutdown();
+        }
+    }
+
+    @Test
+    public void pendingSessionIsWrittenOnShutdown() {
+
+        Razor razor = Razor.self();
+        razor.getEnv().set(ENV_KEY_SESSION_WRITE_BEHIND, true).set(ENV_KEY_SESSION_WRITE_BEHIND_INTERVAL, 60000);
+
+        SessionHandler handler = new SessionHandler(razor);
+        Session session = newSession();
+
+        session.addAttribute("user", "razor");
+        handler.commit(session);
+        assertEquals(0, handler.writes());
+
+        handler.shutdown();
+
+        assertEquals(1, handler.writes());
+        assertEquals("razor", razor.getSessionManager().get(session.id()).attribute("user"));
+    }
+}
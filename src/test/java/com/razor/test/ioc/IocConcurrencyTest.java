@@ -0,0 +1,123 @@
+package com.razor.test.ioc;
+
+import com.fedepot.ioc.ContainerBuilder;
+import com.fedepot.ioc.IContainer;
+import com.fedepot.ioc.IContainerBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+
+public class IocConcurrencyTest {
+
+    private static final int THREADS = 64;
+
+    private static final AtomicInteger rootCreated = new AtomicInteger();
+
+    private static final AtomicInteger leafCreated = new AtomicInteger();
+
+    public static class Leaf {
+
+        public Leaf() throws InterruptedException {
+
+            leafCreated.incrementAndGet();
+
+            // widen the window in which racing threads could build another instance
+            Thread.sleep(20);
+        }
+    }
+
+    public static class Root {
+
+        private final Leaf leaf;
+
+        public Root(Leaf leaf) {
+
+            rootCreated.incrementAndGet();
+            this.leaf = leaf;
+        }
+
+        public Leaf getLeaf() {
+
+            return leaf;
+        }
+    }
+
+    @Test
+    public void resolveSingletonGraphConcurrently() throws Exception {
+
+        IContainerBuilder builder = ContainerBuilder.getInstance(IocConcurrencyTest.class);
+        builder.registerType(Leaf.class).singleInstance();
+        builder.registerType(Root.class).singleInstance();
+        IContainer ioc = builder.build();
+
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Root>> futures = new ArrayList<>();
+
+        try {
+
+            for (int i = 0; i < THREADS; i++) {
+
+                futures.add(executor.submit(() -> {
+
+                    barrier.await();
+
+                    return ioc.resolve(Root.class);
+                }));
+            }
+
+            Set<Root> roots = Collections.newSetFromMap(new IdentityHashMap<>());
+
+            for (Future<Root> future : futures) {
+
+                Root root = future.get(10, TimeUnit.SECONDS);
+                assertNotNull(root);
+                roots.add(root);
+            }
+
+            assertEquals(1, roots.size());
+            assertSame(ioc.resolve(Leaf.class), roots.iterator().next().getLeaf());
+            assertEquals(1, rootCreated.get());
+            assertEquals(1, leafCreated.get());
+        } finally {
+
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.razor.test.util;
+
+import com.fedepot.util.HttpKit;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Copyright (c) 2017, Touchumind<chinash2010@gmail.com>
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+public class HttpKitTest {
+
+    @Test
+    public void emptyHeaderHasNoCookies() {
+
+        assertTrue(HttpKit.parseCookies(null).isEmpty());
+        assertTrue(HttpKit.parseCookies("").isEmpty());
+        assertTrue(HttpKit.parseCookies(" ; ;").isEmpty());
+    }
+
+    @Test
+    public void pairsAreSplitBySemicolonAndTrimmed() {
+
+        Map<String, String> cookies = HttpKit.parseCookies("a=1; b=2;c=3 ;  d = 4 ");
+
+        assertEquals(4, cookies.size());
+        assertEquals("1", cookies.get("a"));
+        assertEquals("2", cookies.get("b"));
+        assertEquals("3", cookies.get("c"));
+        assertEquals("4", cookies.get("d"));
+    }
+
+    @Test
+    public void emptyAndMissingValues() {
+
+        Map<String, String> cookies = HttpKit.parseCookies("empty=; flag; =orphan");
+
+        assertEquals("", cookies.get("empty"));
+        assertEquals("", cookies.get("flag"));
+        assertEquals(2, cookies.size());
+    }
+
+    @Test
+    public void quotedValueIsUnwrapped() {
+
+        Map<String, String> cookies = HttpKit.parseCookies("q=\"hello world\"; e=\"\"; half=\"open");
+
+        assertEquals("hello world", cookies.get("q"));
+        assertEquals("", cookies.get("e"));
+        assertEquals("\"open", cookies.get("half"));
+    }
+
+    @Test
+    public void firstOfDuplicateNamesWins() {
+
+        Map<String, String> cookies = HttpKit.parseCookies("SESSION=specific; other=1; SESSION=general");
+
+        assertEquals("specific", cookies.get("SESSION"));
+        assertEquals(2, cookies.size());
+    }
+
+    @Test
+    public void valuesAreKeptAsSent() {
+
+        // cookies are written without encoding, so base64 and percent signs must survive
+        Map<String, String> cookies = HttpKit.parseCookies("token=ab+c/d==; pct=%41; amp=a&b=c; eq=x=1");
+
+        assertEquals("ab+c/d==", cookies.get("token"));
+        assertEquals("%41", cookies.get("pct"));
+        assertEquals("a&b=c", cookies.get("amp"));
+        assertEquals("x=1", cookies.get("eq"));
+    }
+}